@@ -0,0 +1,38 @@
+package benchmark.jmh;
+
+import benchmark.SyntheticDataGenerator;
+import myutil.Maps;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * JMH 벤치마크가 함께 쓰는 합성 데이터 위치. 폴더가 없으면 SyntheticDataGenerator 로 만듭니다.
+ * 데이터 폴더는 -Dbench.dataDir 로 바꿀 수 있습니다. (기본 bench-data, BenchmarkRunner 와 같음)
+ */
+final class BenchmarkData {
+    private static final long SEED = 1L;
+
+    final String weightFile;
+    final String statusFile;
+    final String valueFile;
+
+    private BenchmarkData(File dir) {
+        this.weightFile = new File(dir, SyntheticDataGenerator.WEIGHT_FILE).getPath();
+        this.statusFile = new File(dir, SyntheticDataGenerator.STATUS_FILE).getPath();
+        this.valueFile = new File(dir, SyntheticDataGenerator.VALUE_FILE).getPath();
+    }
+
+    static BenchmarkData prepare(int problemCount) throws IOException {
+        File dir = new File(System.getProperty("bench.dataDir", "bench-data"), String.valueOf(problemCount));
+        BenchmarkData data = new BenchmarkData(dir);
+        if (!new File(data.valueFile).isFile()) {
+            SyntheticDataGenerator.generate(dir, problemCount, Maps.VARIABLE_COUNT, SEED);
+        }
+        return data;
+    }
+
+    Maps open(Maps.Loader loader) {
+        return new Maps(weightFile, statusFile, valueFile, loader);
+    }
+}
@@ -0,0 +1,50 @@
+package benchmark.jmh;
+
+import myutil.Maps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps 로딩 시간. (BenchmarkRunner 의 "Maps 로딩" 줄에 해당)
+ * LAZY 는 파일을 닫는 시간까지 포함합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+    @Param({"1000", "10000"})
+    public int problemCount;
+
+    @Param({"LEGACY", "FAST", "LAZY"})
+    public Maps.Loader loader;
+
+    private BenchmarkData data;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = BenchmarkData.prepare(problemCount);
+    }
+
+    @Benchmark
+    public int load() {
+        try (Maps maps = data.open(loader)) {
+            return maps.getStatusStore().size();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package benchmark.jmh;
+
+import myutil.Maps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.MyService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyService 조회 시간. (BenchmarkRunner 의 조회 줄에 해당, 캐시를 끄고 매번 계산하는 비용을 잼)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueryBenchmark {
+    @Param({"1000", "10000"})
+    public int problemCount;
+
+    @Param({"FAST", "LAZY"})
+    public Maps.Loader loader;
+
+    private Maps maps;
+    private MyService service;
+    private int problemId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        maps = BenchmarkData.prepare(problemCount).open(loader);
+        service = new MyService(maps);
+        service.setCacheEnabled(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        maps.close();
+    }
+
+    @Benchmark
+    public double averageTimeForVariable() {
+        return service.getAverageTimeForVariable(problemId++ % Maps.VARIABLE_COUNT);
+    }
+
+    @Benchmark
+    public double[] averageTimeForAllVariables() {
+        return service.getAverageTimeForAllVariables();
+    }
+
+    @Benchmark
+    public List<Integer> topKByHighestReturn() {
+        return service.getTopKProblemsByHighestReturn(10);
+    }
+
+    @Benchmark
+    public List<Integer> topKReturnRiskRatio() {
+        return service.getTopK(MyService.Metric.RETURN_RISK_RATIO, 10, true, false);
+    }
+
+    @Benchmark
+    public List<double[]> histogramReturn() {
+        return service.generateHistogram(MyService.Metric.RETURN, 20);
+    }
+
+    @Benchmark
+    public Double topKWeights() {
+        return service.FindTopKWeights(problemId++ % problemCount, 3);
+    }
+
+    @Benchmark
+    public List<Integer> problemsSolvedWithinTime() {
+        return service.getProblemsSolvedWithinTime(0.01);
+    }
+
+    @Benchmark
+    public TreeMap<Double, Integer[]> treeMapSortedByProfit() {
+        return service.getTreeMapSortedByProfitGroupedByProblemId();
+    }
+}
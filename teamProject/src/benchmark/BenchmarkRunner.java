@@ -0,0 +1,227 @@
+package benchmark;
+
+import myutil.Maps;
+import service.MyService;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Maps 로딩과 MyService 조회의 성능을 재는 벤치마크 실행기. (외부 라이브러리 없이 JMH 의 방식을 따름)
+ * JMH 로 재는 벤치마크는 teamProject/jmh 모듈에 있고, 이 실행기는 JMH 를 쓸 수 없을 때의 대안입니다.
+ * 문제 수별로 합성 데이터(SyntheticDataGenerator)를 만들어 두고, 작업마다 예열(warmup) 반복 후 측정 반복을 하여
+ * 반복별 평균 시간의 평균 ± 표준편차를 출력합니다. 로딩은 MB/s, 행/s 를 함께 출력합니다.
+ * 측정 중의 메모리 할당량(B/op)과 GC 횟수/시간을 함께 출력합니다. (JMH 의 -prof gc 에 해당)
+ * 할당량은 측정 구간 동안 살아 있는 모든 스레드의 할당 바이트 합이므로 병렬 조회의 작업 스레드도 포함합니다.
+ *
+ * 사용법: BenchmarkRunner [문제 수,...] [데이터 폴더]
+ *   기본값: 1000,10000,80000 bench-data
+ *   -Dbench.warmup=예열 반복 수 (기본 3), -Dbench.iterations=측정 반복 수 (기본 5),
+ *   -Dbench.time=반복 하나의 최소 시간 ms (기본 500), -Dbench.loaders=legacy,fast,lazy
+ * 예) java -Xmx8g -p ... -m teamproject/benchmark.BenchmarkRunner 1000,10000 bench-data
+ */
+public class BenchmarkRunner {
+    private static final long SEED = 1L;
+
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 3);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    private static final long ITERATION_NANOS = Long.getLong("bench.time", 500) * 1_000_000L;
+
+    // 결과가 사용되는 것처럼 보이게 하여 JIT 가 조회를 없애지 못하게 함
+    private static volatile long sink;
+
+    /**
+     * 측정 결과 한 줄.
+     */
+    static class Result {
+        final String name;
+        final double meanNanos;   // 작업 한 번의 평균 시간
+        final double errorNanos;  // 반복별 평균 시간의 표준편차
+        final double bytesPerOp;
+        final long gcCount;
+        final long gcMillis;
+
+        Result(String name, double meanNanos, double errorNanos, double bytesPerOp, long gcCount, long gcMillis) {
+            this.name = name;
+            this.meanNanos = meanNanos;
+            this.errorNanos = errorNanos;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+    }
+
+    /**
+     * 작업 하나를 예열한 뒤 측정합니다. 반복 하나는 최소 bench.time 동안 작업을 계속 실행합니다.
+     *
+     * @param name 작업 이름
+     * @param operation 호출 번호 -> 결과 (결과의 hashCode 를 sink 에 모음)
+     * @return 측정 결과
+     */
+    static Result measure(String name, IntFunction<Object> operation) {
+        int[] invocation = new int[1];
+        for (int i = 0; i < WARMUP; i++) {
+            runIteration(operation, invocation);
+        }
+        System.gc();
+
+        double[] iterationMeans = new double[ITERATIONS];
+        long operations = 0;
+        long allocatedBefore = allocatedBytes();
+        long[] gcBefore = gcCountAndMillis();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long[] timeAndCount = runIteration(operation, invocation);
+            iterationMeans[i] = (double) timeAndCount[0] / timeAndCount[1];
+            operations += timeAndCount[1];
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        long[] gcAfter = gcCountAndMillis();
+
+        double mean = 0.0;
+        for (double value : iterationMeans) {
+            mean += value;
+        }
+        mean /= ITERATIONS;
+        double variance = 0.0;
+        for (double value : iterationMeans) {
+            variance += (value - mean) * (value - mean);
+        }
+        double error = ITERATIONS > 1 ? Math.sqrt(variance / (ITERATIONS - 1)) : 0.0;
+        return new Result(name, mean, error, allocated < 0 ? Double.NaN : (double) allocated / operations,
+                gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+    }
+
+    // 최소 ITERATION_NANOS 동안 작업을 반복하고 {걸린 시간, 실행 횟수} 반환
+    private static long[] runIteration(IntFunction<Object> operation, int[] invocation) {
+        long start = System.nanoTime();
+        long elapsed;
+        long count = 0;
+        long hash = 0;
+        do {
+            Object result = operation.apply(invocation[0]++);
+            hash += result == null ? 0 : result.hashCode();
+            count++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        sink += hash;
+        return new long[]{elapsed, count};
+    }
+
+    // 살아 있는 모든 스레드가 지금까지 할당한 바이트 합, 지원하지 않는 JVM 이면 -1
+    private static long allocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static long[] gcCountAndMillis() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+
+    private static void printHeader() {
+        System.out.printf("%-44s %14s %12s %12s %14s %6s %8s%n",
+                "작업", "평균(us/op)", "오차(us)", "처리량(op/s)", "할당(B/op)", "GC", "GC(ms)");
+    }
+
+    private static void print(Result result) {
+        System.out.printf("%-44s %14.3f %12.3f %12.1f %14.0f %6d %8d%n", result.name, result.meanNanos / 1e3,
+                result.errorNanos / 1e3, 1e9 / result.meanNanos, result.bytesPerOp, result.gcCount, result.gcMillis);
+    }
+
+    // 한 번 불러오고 (LAZY 이면 파일을 닫고) 문제 개수를 반환
+    private static int load(String weightFile, String statusFile, String valueFile, Maps.Loader loader) {
+        try (Maps maps = new Maps(weightFile, statusFile, valueFile, loader)) {
+            return maps.getStatusStore().size();
+        }
+    }
+
+    // 문제 수 하나에 대한 로딩/조회 벤치마크
+    private static void runSize(File dataDir, int problemCount, List<Maps.Loader> loaders) throws IOException {
+        File dir = new File(dataDir, String.valueOf(problemCount));
+        String weightFile = new File(dir, SyntheticDataGenerator.WEIGHT_FILE).getPath();
+        String statusFile = new File(dir, SyntheticDataGenerator.STATUS_FILE).getPath();
+        String valueFile = new File(dir, SyntheticDataGenerator.VALUE_FILE).getPath();
+        if (!new File(valueFile).isFile()) {
+            System.out.printf("합성 데이터 생성 중: %s%n", dir);
+            SyntheticDataGenerator.generate(dir, problemCount, Maps.VARIABLE_COUNT, SEED);
+        }
+        long bytes = new File(weightFile).length() + new File(statusFile).length() + new File(valueFile).length();
+
+        System.out.printf("%n===== 문제 %d개 x 변수 %d개 (CSV %.1f MB) =====%n", problemCount, Maps.VARIABLE_COUNT, bytes / 1e6);
+        printHeader();
+        for (Maps.Loader loader : loaders) {
+            Result result = measure("Maps 로딩 (" + loader + ")",
+                    i -> load(weightFile, statusFile, valueFile, loader));
+            print(result);
+            double seconds = result.meanNanos / 1e9;
+            System.out.printf("    -> %.1f MB/s, %.0f 행/s%n", bytes / 1e6 / seconds, problemCount / seconds);
+        }
+
+        try (Maps maps = new Maps(weightFile, statusFile, valueFile, Maps.Loader.FAST)) {
+            MyService service = new MyService(maps);
+            service.setCacheEnabled(false); // 매번 계산하는 비용을 잼 (캐시 적중은 아래에서 따로)
+            List<Result> results = new ArrayList<>();
+            results.add(measure("getAverageTimeForVariable", i -> service.getAverageTimeForVariable(i % Maps.VARIABLE_COUNT)));
+            results.add(measure("getAverageTimeForAllVariables", i -> service.getAverageTimeForAllVariables()));
+            results.add(measure("getTopKProblemsByHighestReturn(10)", i -> service.getTopKProblemsByHighestReturn(10)));
+            results.add(measure("getTopK(RETURN_RISK_RATIO, 10)",
+                    i -> service.getTopK(MyService.Metric.RETURN_RISK_RATIO, 10, true, false)));
+            results.add(measure("generateHistogram(RETURN, 20)", i -> service.generateHistogram(MyService.Metric.RETURN, 20)));
+            results.add(measure("generateHistogram(getSortedProfits(), 20)",
+                    i -> service.generateHistogram(service.getSortedProfits(), 20)));
+            results.add(measure("FindTopKWeights(p, 3)", i -> service.FindTopKWeights(i % problemCount, 3)));
+            results.add(measure("getProblemsSolvedWithinTime(0.01)", i -> service.getProblemsSolvedWithinTime(0.01)));
+            results.add(measure("getTreeMapSortedByProfitGroupedByProblemId",
+                    i -> service.getTreeMapSortedByProfitGroupedByProblemId()));
+            service.setCacheEnabled(true);
+            results.add(measure("getTreeMapSortedByProfit... (캐시 적중)", i -> service.getTreeMapSortedByProfitGroupedByProblemId()));
+            results.add(measure("generateHistogram(RETURN, 20) (캐시 적중)", i -> service.generateHistogram(MyService.Metric.RETURN, 20)));
+            for (Result result : results) {
+                print(result);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        List<Integer> sizes = new ArrayList<>();
+        for (String size : (args.length > 0 ? args[0] : "1000,10000,80000").split(",")) {
+            sizes.add(Integer.parseInt(size.trim()));
+        }
+        File dataDir = new File(args.length > 1 ? args[1] : "bench-data");
+        List<Maps.Loader> loaders = new ArrayList<>();
+        for (String loader : System.getProperty("bench.loaders", "legacy,fast,lazy").split(",")) {
+            loaders.add(Maps.Loader.valueOf(loader.trim().toUpperCase()));
+        }
+
+        System.out.printf("JVM %s, 프로세서 %d개, 최대 힙 %d MB, 예열 %d회, 측정 %d회 x %d ms%n",
+                System.getProperty("java.vm.version"), Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().maxMemory() >> 20, WARMUP, ITERATIONS, ITERATION_NANOS / 1_000_000);
+        try {
+            for (int size : sizes) {
+                runSize(dataDir, size, loaders);
+            }
+        } catch (IOException e) {
+            System.err.println("합성 데이터 생성 중 오류 발생: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
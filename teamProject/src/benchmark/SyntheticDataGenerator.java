@@ -0,0 +1,131 @@
+package benchmark;
+
+import myutil.Maps;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 실제 solver 결과와 같은 형식의 세 CSV 파일(result_weight_v2.csv, result_status.csv, result_value.csv)을 만드는 생성기.
+ * 실제 데이터는 외부에서 내려받아야 하므로 벤치마크와 재현용으로 사용합니다.
+ * 같은 (문제 수, 변수 수, seed) 이면 항상 같은 파일이 만들어집니다.
+ *
+ * 생성 규칙 (실제 결과 파일의 모양을 따름)
+ *   - 문제마다 20 ~ 200 개의 변수를 사용하고, 사용하지 않는 변수의 가중치는 -1
+ *   - 약 90% 의 문제가 optimal, 나머지는 infeasible (가중치는 모두 0, Value 행 없음)
+ *   - optimal 문제는 사용한 변수 중 약 30% 에 합이 1 인 가중치, risk 는 음수, return 은 0 ~ 0.1
+ *
+ * 사용법: SyntheticDataGenerator [출력 폴더] [문제 수] [변수 수] [seed]
+ *   기본값: bench-data, 10000, 3000, 1
+ */
+public class SyntheticDataGenerator {
+    public static final String WEIGHT_FILE = "result_weight_v2.csv";
+    public static final String STATUS_FILE = "result_status.csv";
+    public static final String VALUE_FILE = "result_value.csv";
+
+    private static final int MIN_USED_VARIABLES = 20;
+    private static final int MAX_USED_VARIABLES = 200;
+    private static final double OPTIMAL_RATIO = 0.9;
+    private static final double NONZERO_RATIO = 0.3;
+
+    private SyntheticDataGenerator() {
+    }
+
+    /**
+     * outputDir 에 세 CSV 파일을 만듭니다. (이미 있으면 덮어씀)
+     *
+     * @param outputDir 출력 폴더 (없으면 만듦)
+     * @param problemCount 문제 수
+     * @param variableCount 변수(자산) 수
+     * @param seed 난수 seed
+     * @throws IOException 파일 쓰기에 실패한 경우
+     */
+    public static void generate(File outputDir, int problemCount, int variableCount, long seed) throws IOException {
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("출력 폴더를 만들 수 없습니다: " + outputDir);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] permutation = new int[variableCount]; // 앞부분을 섞어 사용할 변수를 고름
+        for (int v = 0; v < variableCount; v++) {
+            permutation[v] = v;
+        }
+        double[] weights = new double[variableCount];
+        StringBuilder line = new StringBuilder(variableCount * 4);
+
+        try (Writer weightWriter = new BufferedWriter(new FileWriter(new File(outputDir, WEIGHT_FILE)), 1 << 16);
+             Writer statusWriter = new BufferedWriter(new FileWriter(new File(outputDir, STATUS_FILE)));
+             Writer valueWriter = new BufferedWriter(new FileWriter(new File(outputDir, VALUE_FILE)))) {
+            line.append("prob_num");
+            for (int v = 0; v < variableCount; v++) {
+                line.append(',').append(v);
+            }
+            weightWriter.write(line.append('\n').toString());
+            statusWriter.write("prob_num,status,elapsed,n_vars\n");
+            valueWriter.write("prob_num,risk,return\n");
+
+            for (int problemId = 0; problemId < problemCount; problemId++) {
+                int used = Math.min(variableCount, random.nextInt(MIN_USED_VARIABLES, MAX_USED_VARIABLES + 1));
+                for (int i = 0; i < used; i++) { // 부분 Fisher-Yates 섞기
+                    int j = random.nextInt(i, variableCount);
+                    int swap = permutation[i];
+                    permutation[i] = permutation[j];
+                    permutation[j] = swap;
+                }
+                boolean optimal = random.nextDouble() < OPTIMAL_RATIO;
+
+                Arrays.fill(weights, -1.0);
+                double total = 0.0;
+                for (int i = 0; i < used; i++) {
+                    double weight = optimal && random.nextDouble() < NONZERO_RATIO ? random.nextDouble() : 0.0;
+                    weights[permutation[i]] = weight;
+                    total += weight;
+                }
+                if (total > 0) {
+                    for (int i = 0; i < used; i++) {
+                        weights[permutation[i]] /= total;
+                    }
+                }
+
+                line.setLength(0);
+                line.append(problemId);
+                for (int v = 0; v < variableCount; v++) {
+                    line.append(',');
+                    if (weights[v] == -1.0) {
+                        line.append("-1");
+                    } else {
+                        line.append(weights[v]);
+                    }
+                }
+                weightWriter.write(line.append('\n').toString());
+
+                statusWriter.write(problemId + "," + (optimal ? "optimal" : "infeasible") + ","
+                        + random.nextDouble() * 0.05 + "," + used + "\n");
+                if (optimal) {
+                    valueWriter.write(problemId + "," + -random.nextDouble() + "," + random.nextDouble() * 0.1 + "\n");
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        File outputDir = new File(args.length > 0 ? args[0] : "bench-data");
+        int problemCount = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int variableCount = args.length > 2 ? Integer.parseInt(args[2]) : Maps.VARIABLE_COUNT;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+
+        long start = System.nanoTime();
+        try {
+            generate(outputDir, problemCount, variableCount, seed);
+            System.out.printf("문제 %d개 x 변수 %d개 생성 완료: %s (%.1f초)%n", problemCount, variableCount,
+                    outputDir, (System.nanoTime() - start) / 1e9);
+        } catch (IOException e) {
+            System.err.println("합성 데이터 생성 중 오류 발생: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -1,9 +1,13 @@
-/**
- * 
- */
-/**
- * 
- */
-module teamproject {
-    requires java.desktop;
+/**
+ * 
+ */
+/**
+ * 
+ */
+module teamproject {
+    requires transitive java.desktop; // 공개 API 에 Color, BufferedImage, JPanel 등이 나옴
+    requires java.management;
+    requires jdk.management; // 스레드별 할당량 (com.sun.management)
+
+    exports myutil; // JMX 가 MetricsMXBean 을 읽을 수 있도록 (JMX 는 이름 없는 모듈에서 접근함)
 }
\ No newline at end of file
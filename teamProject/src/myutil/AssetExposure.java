@@ -0,0 +1,180 @@
+package myutil;
+
+/**
+ * 여러 포트폴리오(문제)에 걸친 자산(변수)별 가중치 집계.
+ * 자산마다 가중치 합, 최대 가중치, 사용한(가중치가 0 보다 큰) 포트폴리오 개수, 수익률을 곱한 가중치 합(수익률 노출)을 모읍니다.
+ * 가중치 행을 한 번씩만 훑어 모든 자산을 함께 집계하고, 행 블록별로 따로 모은 결과는 merge 로 합칩니다.
+ * collect 로 만든 뒤에는 바뀌지 않으므로, 캐시해 두고 여러 조회가 함께 읽어도 됩니다.
+ */
+public class AssetExposure {
+    private static final int BUILD_BLOCK = 1024; // 병렬로 집계할 때 한 블록의 행 개수
+
+    private final double[] sums;
+    private final double[] maxWeights;
+    private final int[] usageCounts;
+    private final double[] returnExposures; // sum(가중치 * 포트폴리오 수익률), 수익률이 있는 포트폴리오만
+    private final double[] returnWeightSums; // 수익률이 있는 포트폴리오의 가중치 합 (가중 평균 수익률 계산용)
+    private int portfolioCount;
+
+    private AssetExposure(int variableCount) {
+        sums = new double[variableCount];
+        maxWeights = new double[variableCount];
+        usageCounts = new int[variableCount];
+        returnExposures = new double[variableCount];
+        returnWeightSums = new double[variableCount];
+    }
+
+    /**
+     * 스냅샷의 가중치 행을 블록으로 나눠 한 번 훑어 집계합니다.
+     * 블록 경계와 합치는 순서가 고정되어 있으므로 병렬 여부와 관계없이 결과가 같습니다.
+     *
+     * @param data 스냅샷
+     * @param optimalOnly true 이면 optimal 하게 풀린 포트폴리오만, false 이면 가중치가 있는 모든 포트폴리오
+     * @param parallel true 이면 블록들을 ForkJoin 공용 풀에서 병렬로 집계
+     * @return 자산별 집계
+     */
+    public static AssetExposure collect(Dataset data, boolean optimalOnly, boolean parallel) {
+        WeightStore weightStore = data.getWeightStore();
+        StatusStore statusStore = data.getStatusStore();
+        ValueStore valueStore = data.getValueStore();
+        int variableCount = weightStore.getVariableCount();
+
+        return ParallelScan.reduce(weightStore.size(), BUILD_BLOCK, (from, to) -> {
+            AssetExposure exposure = new AssetExposure(variableCount);
+            for (int row = from; row < to; row++) {
+                int problemId = weightStore.getProblemId(row);
+                if (optimalOnly) {
+                    int statusRow = statusStore.getRow(problemId);
+                    if (statusRow < 0 || !statusStore.isOptimal(statusRow)) {
+                        continue;
+                    }
+                }
+                int valueRow = valueStore.getRow(problemId);
+                exposure.add(weightStore.readRow(row), valueRow < 0 ? Double.NaN : valueStore.getReturn(valueRow));
+            }
+            return exposure;
+        }, AssetExposure::merge, new AssetExposure(variableCount), parallel);
+    }
+
+    /**
+     * 포트폴리오 하나의 가중치를 더합니다. (collect 중에만 호출)
+     *
+     * @param weightRow 포트폴리오의 0 이 아닌 가중치들
+     * @param returnValue 포트폴리오의 수익률, 없으면 NaN (수익률 노출에서만 제외)
+     */
+    private void add(WeightRow weightRow, double returnValue) {
+        portfolioCount++;
+        boolean hasReturn = !Double.isNaN(returnValue);
+        for (int i = 0; i < weightRow.size(); i++) {
+            double weight = weightRow.getValue(i);
+            if (weight <= 0) {
+                continue;
+            }
+            int variable = weightRow.getColumn(i);
+            sums[variable] += weight;
+            maxWeights[variable] = Math.max(maxWeights[variable], weight);
+            usageCounts[variable]++;
+            if (hasReturn) {
+                returnExposures[variable] += weight * returnValue;
+                returnWeightSums[variable] += weight;
+            }
+        }
+    }
+
+    /**
+     * 다른 집계를 합칩니다. (collect 중에만 호출, other 는 바뀌지 않음)
+     *
+     * @param other 같은 자산 개수의 집계
+     * @return 이 집계
+     */
+    private AssetExposure merge(AssetExposure other) {
+        if (other.sums.length != sums.length) {
+            throw new IllegalArgumentException("자산 개수가 다른 집계는 합칠 수 없습니다.");
+        }
+        for (int v = 0; v < sums.length; v++) {
+            sums[v] += other.sums[v];
+            maxWeights[v] = Math.max(maxWeights[v], other.maxWeights[v]);
+            usageCounts[v] += other.usageCounts[v];
+            returnExposures[v] += other.returnExposures[v];
+            returnWeightSums[v] += other.returnWeightSums[v];
+        }
+        portfolioCount += other.portfolioCount;
+        return this;
+    }
+
+    /**
+     * @return 자산(변수) 개수
+     */
+    public int getVariableCount() {
+        return sums.length;
+    }
+
+    /**
+     * @return 집계한 포트폴리오 개수
+     */
+    public int getPortfolioCount() {
+        return portfolioCount;
+    }
+
+    /**
+     * @param variable 변수 번호 (0-based index)
+     * @return 모든 포트폴리오에서의 가중치 합
+     */
+    public double getSum(int variable) {
+        return sums[variable];
+    }
+
+    /**
+     * @param variable 변수 번호 (0-based index)
+     * @return 포트폴리오당 평균 가중치 (사용하지 않은 포트폴리오는 0 으로 계산), 포트폴리오가 없으면 0
+     */
+    public double getMean(int variable) {
+        return portfolioCount == 0 ? 0.0 : sums[variable] / portfolioCount;
+    }
+
+    /**
+     * @param variable 변수 번호 (0-based index)
+     * @return 가장 큰 가중치, 사용한 포트폴리오가 없으면 0
+     */
+    public double getMax(int variable) {
+        return maxWeights[variable];
+    }
+
+    /**
+     * @param variable 변수 번호 (0-based index)
+     * @return 가중치가 0 보다 큰 포트폴리오 개수
+     */
+    public int getUsageCount(int variable) {
+        return usageCounts[variable];
+    }
+
+    /**
+     * @param variable 변수 번호 (0-based index)
+     * @return 포트폴리오 수익률로 가중한 노출 sum(가중치 * 수익률)
+     */
+    public double getReturnExposure(int variable) {
+        return returnExposures[variable];
+    }
+
+    /**
+     * @param variable 변수 번호 (0-based index)
+     * @return 자산을 담은 포트폴리오들의 가중치 가중 평균 수익률, 담은 포트폴리오가 없으면 0
+     */
+    public double getWeightedReturn(int variable) {
+        return returnWeightSums[variable] == 0 ? 0.0 : returnExposures[variable] / returnWeightSums[variable];
+    }
+
+    /**
+     * 집중도: 전체 가중치 합에서 이 자산이 차지하는 비율.
+     *
+     * @param variable 변수 번호 (0-based index)
+     * @return 0 ~ 1, 가중치가 없으면 0
+     */
+    public double getShare(int variable) {
+        double total = 0.0;
+        for (double sum : sums) {
+            total += sum;
+        }
+        return total == 0 ? 0.0 : sums[variable] / total;
+    }
+}
@@ -0,0 +1,317 @@
+package myutil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 세 결과 CSV 파일(weight, status, value)을 한 번 변환해 두는 바이너리 스냅샷 파일.
+ * 모든 값은 little-endian 고정 폭 컬럼으로 저장되며, 각 컬럼은 8바이트 경계에서 시작합니다.
+ *
+ * <pre>
+ * header   : magic(int) version(int) variableCount(int) statusRows(int) valueRows(int)
+ *            weightRows(int) weightNonZeros(int) reserved(int)
+ * status   : problemId int[statusRows], optimal byte[statusRows], timeTaken double[statusRows], variableCount int[statusRows]
+ * value    : problemId int[valueRows], risk double[valueRows], return double[valueRows]
+ * weight   : problemId int[weightRows], rowPointer int[weightRows + 1], column short[nnz], value double[nnz]
+ * variable : variablePointer int[variableCount + 1], problemId int[nnz]   (VariableIndex)
+ * </pre>
+ *
+ * 가중치는 메모리의 WeightStore 와 같은 CSR 형식으로 저장하고, 열 때는 파싱 없이 FileChannel.map 한 버퍼를
+ * 그대로 WeightStore/VariableIndex 로 사용하므로 여러 JVM 이 같은 OS 페이지 캐시를 공유합니다.
+ * 크기가 작은 status/value 컬럼만 힙 배열로 복사합니다.
+ */
+public class BinarySnapshot {
+    public static final String DEFAULT_FILE = "result_snapshot.bin";
+
+    private static final int MAGIC = 0x48595553; // "HYUS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private final WeightStore weightStore;
+    private final StatusStore statusStore;
+    private final ValueStore valueStore;
+    private final VariableIndex variableIndex;
+
+    private BinarySnapshot(WeightStore weightStore, StatusStore statusStore, ValueStore valueStore, VariableIndex variableIndex) {
+        this.weightStore = weightStore;
+        this.statusStore = statusStore;
+        this.valueStore = valueStore;
+        this.variableIndex = variableIndex;
+    }
+
+    /**
+     * 스냅샷 파일을 map 하여 엽니다.
+     *
+     * @param filePath 스냅샷 파일 경로
+     * @return 저장소들을 담은 스냅샷
+     * @throws IOException 파일이 없거나 형식이 맞지 않는 경우
+     */
+    public static BinarySnapshot open(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("스냅샷 파일 형식이 아닙니다: " + filePath);
+            }
+            ByteBuffer header = map(channel, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("스냅샷 파일 형식이 아닙니다: " + filePath);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("지원하지 않는 스냅샷 버전입니다: " + header.getInt(4));
+            }
+            int variableCount = header.getInt(8);
+            int statusRows = header.getInt(12);
+            int valueRows = header.getInt(16);
+            int weightRows = header.getInt(20);
+            int nonZeros = header.getInt(24);
+
+            Layout layout = new Layout(variableCount, statusRows, valueRows, weightRows, nonZeros);
+            if (channel.size() != layout.end) {
+                throw new IOException("스냅샷 파일 크기가 맞지 않습니다: " + channel.size() + " (예상 " + layout.end + ")");
+            }
+
+            // status / value: 작은 컬럼이므로 힙으로 복사
+            int[] statusIds = new int[statusRows];
+            map(channel, layout.statusIds, 4L * statusRows).asIntBuffer().get(statusIds);
+            ByteBuffer optimalBytes = map(channel, layout.statusOptimal, statusRows);
+            boolean[] optimal = new boolean[statusRows];
+            for (int i = 0; i < statusRows; i++) {
+                optimal[i] = optimalBytes.get(i) != 0;
+            }
+            double[] timeTaken = new double[statusRows];
+            map(channel, layout.statusTime, 8L * statusRows).asDoubleBuffer().get(timeTaken);
+            int[] variableCounts = new int[statusRows];
+            map(channel, layout.statusVariableCount, 4L * statusRows).asIntBuffer().get(variableCounts);
+
+            int[] valueIds = new int[valueRows];
+            map(channel, layout.valueIds, 4L * valueRows).asIntBuffer().get(valueIds);
+            double[] risks = new double[valueRows];
+            map(channel, layout.valueRisk, 8L * valueRows).asDoubleBuffer().get(risks);
+            double[] returns = new double[valueRows];
+            map(channel, layout.valueReturn, 8L * valueRows).asDoubleBuffer().get(returns);
+
+            // weight / variable index: map 한 버퍼를 그대로 사용
+            int[] weightIds = new int[weightRows];
+            map(channel, layout.weightIds, 4L * weightRows).asIntBuffer().get(weightIds);
+            CsrWeightStore weightStore = new CsrWeightStore(variableCount, weightIds,
+                    map(channel, layout.weightRowPointers, 4L * (weightRows + 1)).asIntBuffer(),
+                    map(channel, layout.weightColumns, 2L * nonZeros).asShortBuffer(),
+                    map(channel, layout.weightValues, 8L * nonZeros).asDoubleBuffer());
+            VariableIndex variableIndex = new VariableIndex(
+                    map(channel, layout.variablePointers, 4L * (variableCount + 1)).asIntBuffer(),
+                    map(channel, layout.variableProblemIds, 4L * nonZeros).asIntBuffer());
+
+            return new BinarySnapshot(weightStore,
+                    new StatusStore(statusIds, optimal, timeTaken, variableCounts),
+                    new ValueStore(valueIds, risks, returns),
+                    variableIndex);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("스냅샷 컬럼이 너무 큽니다: " + length + " bytes");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Maps 의 내용을 스냅샷 파일로 씁니다. 임시 파일에 다 쓴 뒤 이름을 바꾸므로 쓰는 중인 파일을 읽는 일은 없습니다.
+     *
+     * @param maps 저장할 데이터
+     * @param filePath 스냅샷 파일 경로
+     * @throws IOException 파일 쓰기 중 오류가 난 경우
+     */
+    public static void write(Maps maps, String filePath) throws IOException {
+        CsrWeightStore weights;
+        StatusStore status;
+        ValueStore values;
+        VariableIndex index;
+        try (Dataset data = maps.acquire()) { // 네 구조를 같은 버전에서
+            weights = CsrWeightStore.copyOf(data.getWeightStore());
+            status = data.getStatusStore();
+            values = data.getValueStore();
+            index = data.getVariableIndex();
+        }
+        int variableCount = weights.getVariableCount();
+        int nonZeros = weights.getNonZeroCount();
+        Layout layout = new Layout(variableCount, status.size(), values.size(), weights.size(), nonZeros);
+
+        Path target = Path.of(filePath).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ColumnWriter out = new ColumnWriter(channel);
+            out.putInt(MAGIC).putInt(VERSION).putInt(variableCount).putInt(status.size()).putInt(values.size())
+                    .putInt(weights.size()).putInt(nonZeros).putInt(0);
+
+            out.align(layout.statusIds);
+            for (int row = 0; row < status.size(); row++) out.putInt(status.getProblemId(row));
+            out.align(layout.statusOptimal);
+            for (int row = 0; row < status.size(); row++) out.putByte(status.isOptimal(row) ? 1 : 0);
+            out.align(layout.statusTime);
+            for (int row = 0; row < status.size(); row++) out.putDouble(status.getTimeTaken(row));
+            out.align(layout.statusVariableCount);
+            for (int row = 0; row < status.size(); row++) out.putInt(status.getVariableCount(row));
+
+            out.align(layout.valueIds);
+            for (int row = 0; row < values.size(); row++) out.putInt(values.getProblemId(row));
+            out.align(layout.valueRisk);
+            for (int row = 0; row < values.size(); row++) out.putDouble(values.getRisk(row));
+            out.align(layout.valueReturn);
+            for (int row = 0; row < values.size(); row++) out.putDouble(values.getReturn(row));
+
+            out.align(layout.weightIds);
+            for (int row = 0; row < weights.size(); row++) out.putInt(weights.getProblemId(row));
+            out.align(layout.weightRowPointers);
+            for (int row = 0; row <= weights.size(); row++) out.putInt(row == 0 ? 0 : weights.rowEnd(row - 1));
+            out.align(layout.weightColumns);
+            for (int i = 0; i < nonZeros; i++) out.putShort(weights.getColumn(i));
+            out.align(layout.weightValues);
+            for (int i = 0; i < nonZeros; i++) out.putDouble(weights.getValue(i));
+
+            out.align(layout.variablePointers);
+            int pointer = 0;
+            out.putInt(pointer);
+            for (int v = 0; v < variableCount; v++) out.putInt(pointer += index.getProblemCount(v));
+            out.align(layout.variableProblemIds);
+            for (int v = 0; v < variableCount; v++) {
+                for (int i = 0; i < index.getProblemCount(v); i++) out.putInt(index.getProblemId(v, i));
+            }
+            out.align(layout.end);
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public WeightStore getWeightStore() {
+        return weightStore;
+    }
+
+    public StatusStore getStatusStore() {
+        return statusStore;
+    }
+
+    public ValueStore getValueStore() {
+        return valueStore;
+    }
+
+    public VariableIndex getVariableIndex() {
+        return variableIndex;
+    }
+
+    // 헤더의 개수들로부터 계산한 각 컬럼의 시작 위치
+    private static class Layout {
+        final long statusIds, statusOptimal, statusTime, statusVariableCount;
+        final long valueIds, valueRisk, valueReturn;
+        final long weightIds, weightRowPointers, weightColumns, weightValues;
+        final long variablePointers, variableProblemIds;
+        final long end;
+
+        Layout(int variableCount, int statusRows, int valueRows, int weightRows, int nonZeros) {
+            statusIds = HEADER_BYTES;
+            statusOptimal = align(statusIds + 4L * statusRows);
+            statusTime = align(statusOptimal + statusRows);
+            statusVariableCount = align(statusTime + 8L * statusRows);
+            valueIds = align(statusVariableCount + 4L * statusRows);
+            valueRisk = align(valueIds + 4L * valueRows);
+            valueReturn = align(valueRisk + 8L * valueRows);
+            weightIds = align(valueReturn + 8L * valueRows);
+            weightRowPointers = align(weightIds + 4L * weightRows);
+            weightColumns = align(weightRowPointers + 4L * (weightRows + 1));
+            weightValues = align(weightColumns + 2L * nonZeros);
+            variablePointers = align(weightValues + 8L * nonZeros);
+            variableProblemIds = align(variablePointers + 4L * (variableCount + 1));
+            end = align(variableProblemIds + 4L * nonZeros);
+        }
+
+        private static long align(long position) {
+            return (position + 7) & ~7L;
+        }
+    }
+
+    // 버퍼에 모아 FileChannel 에 순차적으로 쓰는 도우미
+    private static class ColumnWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        ColumnWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ColumnWriter putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+            position += 4;
+            return this;
+        }
+
+        void putShort(int value) throws IOException {
+            ensure(2);
+            buffer.putShort((short) value);
+            position += 2;
+        }
+
+        void putByte(int value) throws IOException {
+            ensure(1);
+            buffer.put((byte) value);
+            position += 1;
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+            position += 8;
+        }
+
+        void align(long target) throws IOException {
+            while (position < target) {
+                putByte(0);
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * CSV 파일들을 스냅샷으로 변환합니다.
+     * 사용법: BinarySnapshot [weight.csv status.csv value.csv [snapshot.bin]]
+     */
+    public static void main(String[] args) throws IOException {
+        String weightFile = args.length >= 3 ? args[0] : "result_weight_v2.csv";
+        String statusFile = args.length >= 3 ? args[1] : "result_status.csv";
+        String valueFile = args.length >= 3 ? args[2] : "result_value.csv";
+        String snapshotFile = args.length >= 4 ? args[3] : DEFAULT_FILE;
+
+        long start = System.nanoTime();
+        Maps maps = new Maps(weightFile, statusFile, valueFile);
+        write(maps, snapshotFile);
+        System.out.printf("스냅샷 생성 완료: %s (%.1fMB, %.1f초)%n", snapshotFile,
+                Files.size(Path.of(snapshotFile)) / 1e6, (System.nanoTime() - start) / 1e9);
+    }
+}
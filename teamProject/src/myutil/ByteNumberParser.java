@@ -0,0 +1,260 @@
+package myutil;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ByteBuffer 안의 ASCII 숫자를 String 을 만들지 않고 바로 읽는 파서.
+ * Double.parseDouble(s.trim()), Integer.parseInt(s.trim()) 과 똑같은 값을 돌려줍니다.
+ *
+ * 실수는 유효숫자 19자리 이하이면 Clinger fast path 또는 Eisel-Lemire 알고리즘으로 정확하게 반올림하고,
+ * 그 밖의 드문 경우(20자리 이상, subnormal, NaN/Infinity 표기 등)에만 String 을 만들어 JDK 파서에 맡깁니다.
+ */
+final class ByteNumberParser {
+    private static final int SMALLEST_POWER_OF_TEN = -342;
+    private static final int LARGEST_POWER_OF_TEN = 308;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // 5^q 의 상위 128비트 근사값 (q = -342 ~ 308), [high, low] 쌍으로 저장
+    private static final long[] POWERS_OF_FIVE_128 = buildPowersOfFive();
+
+    private ByteNumberParser() {
+    }
+
+    /**
+     * buffer 의 [start, end) 구간을 정수로 읽습니다. 앞뒤 공백은 무시합니다.
+     *
+     * @throws NumberFormatException 정수 형식이 아닌 경우
+     */
+    static int parseInt(ByteBuffer buffer, int start, int end) {
+        while (start < end && buffer.get(start) <= ' ') start++;
+        while (end > start && buffer.get(end - 1) <= ' ') end--;
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == end || end - i > 9) {
+            return Integer.parseInt(toString(buffer, start, end)); // 빈 값, 오버플로 가능성 -> JDK 파서
+        }
+
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(toString(buffer, start, end));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * buffer 의 [start, end) 구간을 실수로 읽습니다. 앞뒤 공백은 무시합니다.
+     *
+     * @throws NumberFormatException 실수 형식이 아닌 경우
+     */
+    static double parseDouble(ByteBuffer buffer, int start, int end) {
+        while (start < end && buffer.get(start) <= ' ') start++;
+        while (end > start && buffer.get(end - 1) <= ' ') end--;
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean sawDigit = false;
+        boolean truncated = false;
+
+        // 정수부
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) break;
+            sawDigit = true;
+            if (mantissa == 0 && digit == 0) continue; // 앞쪽의 0
+            if (significantDigits < 19) {
+                mantissa = mantissa * 10 + digit;
+                significantDigits++;
+            } else {
+                truncated = true;
+                exponent++;
+            }
+        }
+        // 소수부
+        if (i < end && buffer.get(i) == '.') {
+            for (i++; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) break;
+                sawDigit = true;
+                if (mantissa == 0 && digit == 0) {
+                    exponent--;
+                } else if (significantDigits < 19) {
+                    mantissa = mantissa * 10 + digit;
+                    significantDigits++;
+                    exponent--;
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+        // 지수부
+        if (sawDigit && i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) break;
+                if (explicitExponent < 100000) {
+                    explicitExponent = explicitExponent * 10 + digit;
+                }
+            }
+            if (i == exponentStart) {
+                return fallback(buffer, start, end);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (!sawDigit || i != end || truncated) {
+            return fallback(buffer, start, end);
+        }
+
+        double value = toDouble(mantissa, exponent, negative);
+        return Double.isNaN(value) ? fallback(buffer, start, end) : value;
+    }
+
+    /**
+     * mantissa * 10^exponent 를 가장 가까운 double 로 변환합니다.
+     * 19자리 가수는 long 범위를 넘을 수 있으므로 mantissa 는 부호 없는 64비트 정수로 다룹니다.
+     *
+     * @return 변환 값, 정확한 반올림을 보장할 수 없으면 NaN
+     */
+    private static double toDouble(long mantissa, int exponent, boolean negative) {
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        // Clinger fast path: 가수와 10의 거듭제곱이 모두 double 로 정확히 표현되면 한 번의 연산으로 정확히 반올림됨
+        if (Long.compareUnsigned(mantissa, MAX_EXACT_MANTISSA) <= 0 && exponent >= -22 && exponent <= 22) {
+            double value = (double) mantissa;
+            value = exponent < 0 ? value / EXACT_POWERS_OF_TEN[-exponent] : value * EXACT_POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+        if (exponent < SMALLEST_POWER_OF_TEN) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (exponent > LARGEST_POWER_OF_TEN) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return eiselLemire(mantissa, exponent, negative);
+    }
+
+    // Eisel-Lemire: 64비트 가수와 128비트 5^q 근사값의 곱으로 double 의 상위 비트를 결정
+    private static double eiselLemire(long mantissa, int exponent, boolean negative) {
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        long w = mantissa << leadingZeros;
+
+        int index = 2 * (exponent - SMALLEST_POWER_OF_TEN);
+        long high = Math.unsignedMultiplyHigh(w, POWERS_OF_FIVE_128[index]);
+        long low = w * POWERS_OF_FIVE_128[index];
+        long precisionMask = 0xFFFFFFFFFFFFFFFFL >>> 55;
+        if ((high & precisionMask) == precisionMask) { // 하위 64비트까지 곱해야 결과가 확정됨
+            long secondHigh = Math.unsignedMultiplyHigh(w, POWERS_OF_FIVE_128[index + 1]);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) {
+                high++;
+            }
+        }
+        if (low == 0xFFFFFFFFFFFFFFFFL && (exponent < -27 || exponent > 55)) {
+            return Double.NaN; // 근사 오차 범위 안이라 판정 불가
+        }
+
+        int upperBit = (int) (high >>> 63);
+        int shift = upperBit + 64 - 52 - 3;
+        long bits = high >>> shift;
+        int power2 = (int) ((((152170L + 65536L) * exponent) >> 16) + 63 + upperBit - leadingZeros + 1023);
+        if (power2 <= 0) {
+            return Double.NaN; // subnormal
+        }
+
+        // 정확히 두 double 의 중간이면 짝수 쪽으로 반올림
+        if (Long.compareUnsigned(low, 1) <= 0 && exponent >= -4 && exponent <= 23 && (bits & 3) == 1
+                && (bits << shift) == high) {
+            bits &= ~1L;
+        }
+        bits += bits & 1;
+        bits >>>= 1;
+        if (bits >= (2L << 52)) {
+            bits = 1L << 52;
+            power2++;
+        }
+        bits &= ~(1L << 52);
+        if (power2 >= 0x7FF) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+
+        bits |= (long) power2 << 52;
+        if (negative) {
+            bits |= 1L << 63;
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    private static double fallback(ByteBuffer buffer, int start, int end) {
+        return Double.parseDouble(toString(buffer, start, end));
+    }
+
+    private static String toString(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static long[] buildPowersOfFive() {
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        BigInteger two127 = BigInteger.ONE.shiftLeft(127);
+        long[] table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+
+        for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+            BigInteger value;
+            if (q < 0) {
+                BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+                int z = power5.subtract(BigInteger.ONE).bitLength(); // 2^z >= 5^-q 인 가장 작은 z
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                value = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+                while (value.compareTo(two128) >= 0) {
+                    value = value.shiftRight(1);
+                }
+            } else {
+                value = BigInteger.valueOf(5).pow(q);
+                while (value.compareTo(two127) < 0) {
+                    value = value.shiftLeft(1);
+                }
+                while (value.compareTo(two128) >= 0) {
+                    value = value.shiftRight(1);
+                }
+            }
+            int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+            table[index] = value.shiftRight(64).longValue();
+            table[index + 1] = value.longValue();
+        }
+        return table;
+    }
+}
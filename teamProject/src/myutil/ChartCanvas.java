@@ -0,0 +1,39 @@
+package myutil;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+/**
+ * 차트를 그릴 대상. 같은 그리기 코드로 Swing 화면(Graphics2D), PNG 이미지, SVG 파일에 모두 그릴 수 있게 합니다.
+ * 좌표는 픽셀 단위이며 (0, 0) 이 왼쪽 위입니다.
+ */
+public interface ChartCanvas {
+
+    void setColor(Color color);
+
+    void drawLine(int x1, int y1, int x2, int y2);
+
+    void drawRect(int x, int y, int width, int height);
+
+    void fillRect(int x, int y, int width, int height);
+
+    /**
+     * @param x 글자 왼쪽
+     * @param y 글자 기준선(baseline)
+     */
+    void drawString(String text, int x, int y);
+
+    /**
+     * @return text 를 그렸을 때의 폭 (픽셀)
+     */
+    int stringWidth(String text);
+
+    void drawImage(BufferedImage image, int x, int y);
+
+    /**
+     * 이후 그리는 것을 사각형 안으로 제한합니다. resetClip 으로 해제합니다.
+     */
+    void clipRect(int x, int y, int width, int height);
+
+    void resetClip();
+}
@@ -0,0 +1,89 @@
+package myutil;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 히스토그램과 효율적 투자선 그림을 창을 띄우지 않고 PNG 또는 SVG 파일로 저장합니다.
+ * Swing 창을 쓰지 않으므로 화면이 없는 서버(java.awt.headless=true)에서도 동작하며,
+ * 호출마다 상태를 공유하지 않으므로 여러 그림을 여러 스레드에서 동시에 저장할 수 있습니다.
+ * 파일 형식은 확장자로 정합니다. (.svg 이면 SVG, 그 외에는 PNG)
+ */
+public final class ChartExporter {
+    private static final int BIN_SIZE = 3; // 밀도 칸 크기 (픽셀), 화면과 같음
+
+    private ChartExporter() {
+    }
+
+    /**
+     * 히스토그램을 파일로 저장합니다.
+     *
+     * @param histogram 구간별 {lowerBound, upperBound, count}
+     * @param width 그림 폭
+     * @param height 그림 높이
+     * @param file 저장할 파일 (.png 또는 .svg)
+     * @throws IOException 파일을 쓰지 못한 경우
+     */
+    public static void exportHistogram(List<double[]> histogram, int width, int height, File file) throws IOException {
+        write(file, width, height, canvas -> HistogramPanel.paintHistogram(canvas, histogram, width, height));
+    }
+
+    /**
+     * 점들과 효율적 투자선을 파일로 저장합니다. 보기 영역은 창을 처음 열었을 때와 같습니다.
+     *
+     * @param xData 점들의 x (risk)
+     * @param yData 점들의 y (return)
+     * @param frontierX 투자선 점들의 x (오름차순)
+     * @param frontierY 투자선 점들의 y
+     * @param title 제목
+     * @param width 그림 폭
+     * @param height 그림 높이
+     * @param file 저장할 파일 (.png 또는 .svg)
+     * @throws IOException 파일을 쓰지 못한 경우
+     */
+    public static void exportScatterPlot(double[] xData, double[] yData, double[] frontierX, double[] frontierY,
+                                         String title, int width, int height, File file) throws IOException {
+        DensityRenderer renderer = new DensityRenderer(xData, yData, BIN_SIZE);
+        double[] view = ScatterPlotSimple.initialView(renderer.getGrid());
+        write(file, width, height, canvas ->
+                ScatterPlotSimple.paintPlot(canvas, width, height, renderer, frontierX, frontierY, title, view));
+    }
+
+    private static void write(File file, int width, int height, Consumer<ChartCanvas> painter) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+
+        if (file.getName().toLowerCase().endsWith(".svg")) {
+            SvgCanvas canvas = new SvgCanvas(width, height);
+            painter.accept(canvas);
+            Files.writeString(file.toPath(), canvas.toSvg(), StandardCharsets.UTF_8);
+            return;
+        }
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, width, height);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            painter.accept(new GraphicsCanvas(g2d));
+        } finally {
+            g2d.dispose();
+        }
+        if (!ImageIO.write(image, "png", file)) {
+            throw new IOException("PNG 형식으로 저장할 수 없습니다: " + file);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package myutil;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * 문제별 가중치를 CSR(Compressed Sparse Row) 형식으로 메모리(또는 map 한 스냅샷)에 모두 올려 두는 희소 저장소.
+ * 각 LP 는 3000개 자산 중 vars.txt 에 나열된 일부만 사용하고, 나머지는 -1(null) 또는 0 으로 기록됩니다.
+ * 이 값들은 저장하지 않고 0 이 아닌 가중치의 (변수 번호, 값) 쌍만 행 단위로 이어 붙여 저장합니다.
+ *
+ * row 번째 행의 가중치는 columns/values 의 [rowStart(row), rowEnd(row)) 구간에 변수 번호 오름차순으로 들어 있습니다.
+ * CSV 에서 읽은 경우 힙 배열을 감싼 버퍼를, 바이너리 스냅샷에서 연 경우 파일을 map 한 버퍼를 그대로 사용합니다.
+ */
+public class CsrWeightStore implements WeightStore {
+    private final int variableCount;
+    private IntBuffer rowPointers = IntBuffer.wrap(new int[1]); // 행 row 의 시작 위치 = rowPointers[row], 끝 위치 = rowPointers[row + 1]
+    private ShortBuffer columns = ShortBuffer.wrap(new short[0]); // 변수 번호 (0 ~ 2999 이므로 short 로 충분)
+    private DoubleBuffer values = DoubleBuffer.wrap(new double[0]); // 가중치 값
+    private int[] problemIds = new int[0];
+    private final RowIndex rowIndex;
+    private int size;
+
+    public CsrWeightStore(int variableCount) {
+        this(variableCount, new RowIndex());
+    }
+
+    private CsrWeightStore(int variableCount, RowIndex rowIndex) {
+        if (variableCount > Short.MAX_VALUE + 1) {
+            throw new IllegalArgumentException("변수 개수가 너무 많습니다: " + variableCount);
+        }
+        this.variableCount = variableCount;
+        this.rowIndex = rowIndex;
+    }
+
+    /**
+     * 이미 만들어진 CSR 버퍼로 저장소를 구성합니다. (바이너리 스냅샷에서 사용)
+     *
+     * @param variableCount 변수 개수
+     * @param problemIds 행별 문제 번호
+     * @param rowPointers 행 시작 위치 (길이 problemIds.length + 1)
+     * @param columns 변수 번호
+     * @param values 가중치 값
+     */
+    CsrWeightStore(int variableCount, int[] problemIds, IntBuffer rowPointers, ShortBuffer columns, DoubleBuffer values) {
+        this(variableCount);
+        this.problemIds = problemIds;
+        this.rowPointers = rowPointers;
+        this.columns = columns;
+        this.values = values;
+        this.size = problemIds.length;
+        for (int row = 0; row < size; row++) {
+            rowIndex.put(problemIds[row], row);
+        }
+    }
+
+    /**
+     * CSR 배열을 공유하는 복사본을 만듭니다. 복사본에 추가한 행은 원본의 마지막 행 뒤 위치에만 쓰이고
+     * (용량이 모자라면 새 배열로 옮김) 원본의 size 는 그대로이므로, 원본을 읽는 스레드에는 보이지 않습니다.
+     * 가중치 전체를 복사하지 않으므로 큰 저장소도 새 행 개수에 비례하는 비용으로 다음 버전을 만들 수 있습니다.
+     * 복사본을 만든 뒤에는 원본에 행을 추가하면 안 됩니다. (두 복사본이 같은 빈 자리에 쓰게 됨)
+     *
+     * @return 추가용 복사본
+     */
+    CsrWeightStore copyForAppend() {
+        CsrWeightStore copy = new CsrWeightStore(variableCount, rowIndex.copy());
+        copy.rowPointers = rowPointers;
+        copy.columns = columns;
+        copy.values = values;
+        copy.problemIds = problemIds;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * 문제 하나의 가중치 행을 추가합니다. -1(사용하지 않는 변수)과 0 은 저장하지 않습니다.
+     *
+     * @param problemId 문제 번호 (중복 불가)
+     * @param weights 가중치 배열 (길이 variableCount, 사용하지 않는 변수는 -1)
+     */
+    public void add(int problemId, double[] weights) {
+        if (rowIndex.get(problemId) >= 0) {
+            throw new IllegalArgumentException("이미 등록된 문제 번호입니다: " + problemId);
+        }
+
+        int nonZero = 0;
+        for (int i = 0; i < variableCount; i++) {
+            if (isUsed(weights[i])) {
+                nonZero++;
+            }
+        }
+
+        int start = rowPointers.get(size);
+        ensureCapacity(size + 1, start + nonZero);
+        int position = start;
+        for (int i = 0; i < variableCount; i++) {
+            if (isUsed(weights[i])) {
+                columns.put(position, (short) i);
+                values.put(position, weights[i]);
+                position++;
+            }
+        }
+
+        problemIds[size] = problemId;
+        rowIndex.put(problemId, size);
+        size++;
+        rowPointers.put(size, position);
+    }
+
+    /**
+     * 다른 저장소의 행들을 순서대로 뒤에 이어 붙입니다. (병렬로 읽은 조각들을 합칠 때 사용)
+     *
+     * @param other 이어 붙일 저장소 (변수 개수가 같아야 함)
+     */
+    public void addAll(CsrWeightStore other) {
+        if (other.variableCount != variableCount) {
+            throw new IllegalArgumentException("변수 개수가 다릅니다: " + other.variableCount);
+        }
+        int base = rowPointers.get(size);
+        int otherNonZero = other.getNonZeroCount();
+        ensureCapacity(size + other.size, base + otherNonZero);
+        columns.put(base, other.columns, 0, otherNonZero);
+        values.put(base, other.values, 0, otherNonZero);
+
+        for (int row = 0; row < other.size; row++) {
+            int problemId = other.problemIds[row];
+            if (rowIndex.get(problemId) >= 0) {
+                throw new IllegalArgumentException("이미 등록된 문제 번호입니다: " + problemId);
+            }
+            problemIds[size] = problemId;
+            rowIndex.put(problemId, size);
+            size++;
+            rowPointers.put(size, base + other.rowPointers.get(row + 1));
+        }
+    }
+
+    private static boolean isUsed(double weight) {
+        return weight != 0 && weight != -1;
+    }
+
+    // 필요한 만큼 힙 배열을 늘립니다. 스냅샷(map 된 버퍼)이면 먼저 힙으로 복사합니다.
+    private void ensureCapacity(int rowCount, int nonZeroCount) {
+        if (rowCount + 1 > rowPointers.capacity() || !rowPointers.hasArray()) {
+            int newLength = Math.max(rowCount + 1, rowPointers.capacity() * 2);
+            rowPointers = IntBuffer.wrap(Arrays.copyOf(toIntArray(rowPointers, size + 1), newLength));
+            problemIds = Arrays.copyOf(problemIds, newLength - 1);
+        }
+        if (nonZeroCount > values.capacity() || !values.hasArray()) {
+            int used = rowPointers.get(size);
+            int newLength = Math.max(nonZeroCount, values.capacity() + (values.capacity() >> 1));
+            short[] newColumns = new short[newLength];
+            double[] newValues = new double[newLength];
+            columns.get(0, newColumns, 0, used);
+            values.get(0, newValues, 0, used);
+            columns = ShortBuffer.wrap(newColumns);
+            values = DoubleBuffer.wrap(newValues);
+        }
+    }
+
+    private static int[] toIntArray(IntBuffer buffer, int length) {
+        int[] array = new int[length];
+        buffer.get(0, array, 0, length);
+        return array;
+    }
+
+    /**
+     * 다른 WeightStore 의 내용을 CSR 저장소로 복사합니다. 이미 CsrWeightStore 이면 그대로 반환합니다.
+     *
+     * @param store 복사할 저장소
+     * @return CSR 저장소
+     */
+    public static CsrWeightStore copyOf(WeightStore store) {
+        if (store instanceof CsrWeightStore) {
+            return (CsrWeightStore) store;
+        }
+        CsrWeightStore copy = new CsrWeightStore(store.getVariableCount());
+        double[] weights = new double[store.getVariableCount()];
+        for (int row = 0; row < store.size(); row++) {
+            WeightRow weightRow = store.readRow(row);
+            Arrays.fill(weights, 0.0);
+            for (int i = 0; i < weightRow.size(); i++) {
+                weights[weightRow.getColumn(i)] = weightRow.getValue(i);
+            }
+            copy.add(weightRow.getProblemId(), weights);
+        }
+        copy.trimToSize();
+        return copy;
+    }
+
+    /**
+     * 로드가 끝난 뒤 여유 용량을 잘라내 메모리를 반환합니다.
+     */
+    public void trimToSize() {
+        if (!values.hasArray()) {
+            return; // 스냅샷을 map 한 경우 여유 용량이 없음
+        }
+        int nonZeroCount = rowPointers.get(size);
+        rowPointers = IntBuffer.wrap(Arrays.copyOf(rowPointers.array(), size + 1));
+        problemIds = Arrays.copyOf(problemIds, size);
+        columns = ShortBuffer.wrap(Arrays.copyOf(columns.array(), nonZeroCount));
+        values = DoubleBuffer.wrap(Arrays.copyOf(values.array(), nonZeroCount));
+    }
+
+    @Override
+    public int getRow(int problemId) {
+        return rowIndex.get(problemId);
+    }
+
+    @Override
+    public int getProblemId(int row) {
+        return problemIds[row];
+    }
+
+    @Override
+    public WeightRow readRow(int row) {
+        return new WeightRow(problemIds[row], columns, values, rowPointers.get(row), rowPointers.get(row + 1));
+    }
+
+    /**
+     * 행의 첫 번째 0 이 아닌 원소 위치를 반환합니다.
+     *
+     * @param row 행 번호 (0 ~ size()-1)
+     * @return getColumn/getValue 에 사용할 시작 위치
+     */
+    public int rowStart(int row) {
+        return rowPointers.get(row);
+    }
+
+    /**
+     * 행의 마지막 0 이 아닌 원소 다음 위치를 반환합니다.
+     *
+     * @param row 행 번호 (0 ~ size()-1)
+     * @return getColumn/getValue 에 사용할 끝 위치 (exclusive)
+     */
+    public int rowEnd(int row) {
+        return rowPointers.get(row + 1);
+    }
+
+    /**
+     * @param position rowStart(row) ~ rowEnd(row)-1 사이의 위치
+     * @return 해당 위치의 변수 번호
+     */
+    public int getColumn(int position) {
+        return columns.get(position);
+    }
+
+    /**
+     * @param position rowStart(row) ~ rowEnd(row)-1 사이의 위치
+     * @return 해당 위치의 가중치 값
+     */
+    public double getValue(int position) {
+        return values.get(position);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getHeapBytes() {
+        long bytes = 4L * problemIds.length + rowIndex.getHeapBytes();
+        if (rowPointers.hasArray()) { // 스냅샷을 map 한 버퍼는 힙 밖
+            bytes += 4L * rowPointers.capacity();
+        }
+        if (columns.hasArray()) {
+            bytes += 2L * columns.capacity();
+        }
+        if (values.hasArray()) {
+            bytes += 8L * values.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return 저장된 0 이 아닌 가중치의 총 개수
+     */
+    public int getNonZeroCount() {
+        return rowPointers.get(size);
+    }
+
+    @Override
+    public int getVariableCount() {
+        return variableCount;
+    }
+}
@@ -0,0 +1,90 @@
+package myutil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 실행 중인 solver 가 계속 이어 쓰는 결과 CSV 파일에서 어디까지 읽었는지 기억하는 클래스.
+ * 완성된 줄의 끝까지만 읽은 것으로 기록하고, 그 직전 바이트 몇 개(fingerprint)를 함께 보관해
+ * 파일이 잘렸거나 처음부터 다시 쓰였는지 확인합니다.
+ */
+final class CsvTail {
+    private static final int FINGERPRINT_BYTES = 64;
+
+    private final String filePath;
+    private long offset; // 지금까지 읽은 위치 (완성된 줄의 끝, 0 이면 헤더부터)
+    private byte[] fingerprint = new byte[0];
+
+    CsvTail(String filePath) {
+        this.filePath = filePath;
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return 현재 파일에서 완성된 줄들의 끝 위치 (새 줄이 없으면 getOffset() 과 같음)
+     * @throws IOException 파일 읽기 중 오류가 난 경우
+     */
+    long completeLinesEnd() throws IOException {
+        return FastCsvLoader.completeLinesEnd(filePath, offset);
+    }
+
+    /**
+     * end 까지 읽었다고 기록합니다.
+     *
+     * @param end 읽은 구간의 끝 위치
+     * @throws IOException 파일 읽기 중 오류가 난 경우
+     */
+    void advance(long end) throws IOException {
+        advance(end, fingerprintAt(end));
+    }
+
+    /**
+     * fingerprintAt 으로 미리 읽어 둔 값으로 end 까지 읽었다고 기록합니다. (파일을 읽지 않으므로 실패하지 않음)
+     *
+     * @param end 읽은 구간의 끝 위치
+     * @param endFingerprint fingerprintAt(end) 의 결과
+     */
+    void advance(long end, byte[] endFingerprint) {
+        fingerprint = endFingerprint;
+        offset = end;
+    }
+
+    /**
+     * @param end 파일 위치
+     * @return end 직전 바이트 (advance 에 넘길 값)
+     * @throws IOException 파일 읽기 중 오류가 난 경우
+     */
+    byte[] fingerprintAt(long end) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            return readBefore(channel, end);
+        }
+    }
+
+    /**
+     * @return 파일이 읽은 위치보다 짧아졌거나, 읽은 위치 직전 내용이 달라졌으면 true
+     * @throws IOException 파일 읽기 중 오류가 난 경우
+     */
+    boolean isRewritten() throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            return channel.size() < offset || !Arrays.equals(fingerprint, readBefore(channel, offset));
+        }
+    }
+
+    // position 직전 최대 FINGERPRINT_BYTES 바이트
+    private static byte[] readBefore(FileChannel channel, long position) throws IOException {
+        long start = Math.max(0, position - FINGERPRINT_BYTES);
+        ByteBuffer buffer = ByteBuffer.allocate((int) (position - start));
+        int read = 0;
+        while (read >= 0 && buffer.hasRemaining()) {
+            read = channel.read(buffer, start + buffer.position());
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+}
@@ -0,0 +1,391 @@
+package myutil;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 한 시점의 저장소(가중치/상태/값)와 그로부터 만든 색인들을 묶은 버전별 스냅샷.
+ * Maps 가 게시한 뒤에는 내용이 바뀌지 않으므로 여러 스레드가 잠금 없이 읽어도 항상 같은 버전의 일관된 값을 봅니다.
+ * 색인은 처음 사용할 때 한 번 구성하고(스냅샷마다), 구성한 뒤에는 volatile 읽기 한 번으로 얻습니다.
+ *
+ * refresh 는 이 스냅샷을 고치지 않고 append 로 새 행을 붙인 다음 버전을 따로 만듭니다. 저장소와 색인은 배열을
+ * 공유하되 새 행은 이 스냅샷의 마지막 행 뒤에만 쓰므로, 전체를 복사하지 않고도 이 스냅샷을 읽는 조회에 영향이 없습니다.
+ *
+ * 참조 개수: Maps 가 게시하는 동안 하나, Maps.acquire 로 얻을 때마다 하나씩 늘고 close 로 하나씩 줄어듭니다.
+ * 게시에서 내려온 뒤 마지막 참조가 놓이면 LAZY 로더의 가중치 저장소 참조를 놓습니다. 저장소를 함께 쓰는 다른 버전이 없으면
+ * 이때 가중치 파일이 닫힙니다. (힙 배열은 GC 가 회수)
+ */
+public final class Dataset implements AutoCloseable {
+    /**
+     * 처음 사용할 때 구성하는 색인 종류.
+     */
+    public enum Index {
+        VARIABLE, RETURN, RISK, TIME, HOLDINGS, FRONTIER
+    }
+
+    private final long version;
+    private final WeightStore weightStore;
+    private final StatusStore statusStore;
+    private final ValueStore valueStore;
+    private final AtomicInteger references = new AtomicInteger(1); // Maps 의 게시 참조
+
+    // 처음 사용할 때 구성 (구성은 synchronized, 읽기는 volatile)
+    private volatile VariableIndex variableIndex;
+    private volatile SortedIndex returnIndex;
+    private volatile SortedIndex riskIndex;
+    private volatile SortedIndex timeIndex; // 소요 시간 기준 (Status 행)
+    private volatile TopHoldings topHoldings; // 문제별 가중치 내림차순 (Weight 행)
+    private volatile EfficientFrontier efficientFrontier;
+
+    /**
+     * @param version 데이터 버전 (Maps 가 게시할 때마다 1 씩 증가)
+     * @param weightStore 가중치 저장소
+     * @param statusStore 상태 저장소
+     * @param valueStore 값 저장소
+     * @param variableIndex 이미 만든 역색인 (없으면 null, 처음 사용할 때 구성)
+     */
+    Dataset(long version, WeightStore weightStore, StatusStore statusStore, ValueStore valueStore,
+            VariableIndex variableIndex) {
+        this.version = version;
+        this.weightStore = weightStore;
+        this.statusStore = statusStore;
+        this.valueStore = valueStore;
+        this.variableIndex = variableIndex;
+    }
+
+    /**
+     * @return 데이터 버전 (같은 Maps 에서 값이 같으면 같은 데이터)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public WeightStore getWeightStore() {
+        return weightStore;
+    }
+
+    public StatusStore getStatusStore() {
+        return statusStore;
+    }
+
+    public ValueStore getValueStore() {
+        return valueStore;
+    }
+
+    /**
+     * 색인을 쓰는 조회가 색인을 새로 구성하지 않고 바로 답할 수 있는지 반환합니다. (구성하지는 않음)
+     * HOLDINGS 는 가중치를 파일에서 읽는 저장소(LAZY)이면 행 하나만 읽어 답하므로 항상 true 입니다.
+     *
+     * @param index 색인 종류
+     * @return 이미 구성되었으면 true
+     */
+    public boolean isIndexReady(Index index) {
+        return switch (index) {
+            case VARIABLE -> variableIndex != null;
+            case RETURN -> returnIndex != null;
+            case RISK -> riskIndex != null;
+            case TIME -> timeIndex != null;
+            case HOLDINGS -> topHoldings != null || weightStore instanceof LazyWeightStore;
+            case FRONTIER -> efficientFrontier != null;
+        };
+    }
+
+    /**
+     * @return 변수 -> 문제 역색인
+     */
+    public VariableIndex getVariableIndex() {
+        VariableIndex index = variableIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = variableIndex;
+                if (index == null) {
+                    long start = System.nanoTime();
+                    index = new VariableIndex(weightStore);
+                    Metrics.recordPhase("index.variable", System.nanoTime() - start, weightStore.size(), 0);
+                    variableIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return 수익률(return) 기준으로 정렬된 문제 번호 색인
+     */
+    public SortedIndex getReturnIndex() {
+        SortedIndex index = returnIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = returnIndex;
+                if (index == null) {
+                    long start = System.nanoTime();
+                    index = new SortedIndex();
+                    appendValues(index, 0, true);
+                    Metrics.recordPhase("index.return", System.nanoTime() - start, index.size(), 0);
+                    returnIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return 위험(risk) 기준으로 정렬된 문제 번호 색인
+     */
+    public SortedIndex getRiskIndex() {
+        SortedIndex index = riskIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = riskIndex;
+                if (index == null) {
+                    long start = System.nanoTime();
+                    index = new SortedIndex();
+                    appendValues(index, 0, false);
+                    Metrics.recordPhase("index.risk", System.nanoTime() - start, index.size(), 0);
+                    riskIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return 문제 풀이 소요 시간 기준으로 정렬된 문제 번호 색인
+     */
+    public SortedIndex getTimeIndex() {
+        SortedIndex index = timeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = timeIndex;
+                if (index == null) {
+                    long start = System.nanoTime();
+                    index = new SortedIndex();
+                    appendTimes(index, 0);
+                    Metrics.recordPhase("index.time", System.nanoTime() - start, index.size(), 0);
+                    timeIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return 문제별로 0 보다 큰 가중치를 큰 순서로 정렬한 보유 자산 색인 (행 번호는 WeightStore 와 같음, 병렬로 구성)
+     */
+    public TopHoldings getTopHoldings() {
+        return getTopHoldings(true);
+    }
+
+    /**
+     * @param parallel 처음 구성할 때 병렬로 정렬할지
+     * @return 문제별로 0 보다 큰 가중치를 큰 순서로 정렬한 보유 자산 색인 (행 번호는 WeightStore 와 같음)
+     */
+    public TopHoldings getTopHoldings(boolean parallel) {
+        TopHoldings holdings = topHoldings;
+        if (holdings == null) {
+            synchronized (this) {
+                holdings = topHoldings;
+                if (holdings == null) {
+                    long start = System.nanoTime();
+                    holdings = new TopHoldings(weightStore, parallel);
+                    Metrics.recordPhase("index.holdings", System.nanoTime() - start, holdings.size(), 0);
+                    topHoldings = holdings;
+                }
+            }
+        }
+        return holdings;
+    }
+
+    /**
+     * 행 하나의 보유 자산 색인을 반환합니다. 전체 색인이 이미 있으면 그것을 쓰고, 없을 때 가중치를 파일에서 읽는
+     * 저장소(LAZY)이면 전체 색인을 만들지 않고(모든 행을 읽게 되므로) 그 행만 읽어 정렬합니다.
+     *
+     * @param row WeightStore 행 번호
+     * @param parallel 전체 색인을 처음 구성할 때 병렬로 정렬할지
+     * @return row 를 담은 보유 자산 색인 (row 로 읽음)
+     */
+    public TopHoldings getTopHoldings(int row, boolean parallel) {
+        if (topHoldings == null && weightStore instanceof LazyWeightStore) {
+            return TopHoldings.ofRow(weightStore, row);
+        }
+        return getTopHoldings(parallel);
+    }
+
+    /**
+     * @return (위험 크기 = -risk, 수익률) 기준의 효율적 투자선
+     */
+    public EfficientFrontier getEfficientFrontier() {
+        EfficientFrontier frontier = efficientFrontier;
+        if (frontier == null) {
+            synchronized (this) {
+                frontier = efficientFrontier;
+                if (frontier == null) {
+                    long start = System.nanoTime();
+                    int count = valueStore.size();
+                    int[] problemIds = new int[count];
+                    double[] risks = new double[count];
+                    double[] returns = new double[count];
+                    for (int row = 0; row < count; row++) {
+                        problemIds[row] = valueStore.getProblemId(row);
+                        risks[row] = -valueStore.getRisk(row); // 위험은 음수로 저장됨
+                        returns[row] = valueStore.getReturn(row);
+                    }
+                    frontier = new EfficientFrontier(problemIds, risks, returns, count);
+                    Metrics.recordPhase("index.frontier", System.nanoTime() - start, count, 0);
+                    efficientFrontier = frontier;
+                }
+            }
+        }
+        return frontier;
+    }
+
+    /**
+     * 이 스냅샷의 저장소 뒤에 행이 추가된 저장소들로 다음 버전을 만듭니다. 이 스냅샷은 바뀌지 않습니다.
+     * 이 스냅샷에서 이미 구성한 색인은 복사본에 새 행만 추가하여 넘겨 주므로, 다음 버전에서 다시 구성하지 않습니다.
+     * 저장소들은 이 스냅샷의 저장소를 copyForAppend 한 뒤 행을 추가한 것이어야 합니다. (행이 늘지 않았으면 같은 객체여도 됨)
+     *
+     * @param nextVersion 다음 버전 번호
+     * @param nextWeights 행이 추가된 가중치 저장소
+     * @param nextStatus 행이 추가된 상태 저장소
+     * @param nextValues 행이 추가된 값 저장소
+     * @return 다음 버전 스냅샷 (아직 게시되지 않음)
+     */
+    synchronized Dataset append(long nextVersion, WeightStore nextWeights, StatusStore nextStatus, ValueStore nextValues) {
+        int weightFrom = weightStore.size();
+        int statusFrom = statusStore.size();
+        int valueFrom = valueStore.size();
+        if (nextWeights == weightStore && weightStore instanceof LazyWeightStore lazy) {
+            lazy.retain(); // 가중치 행이 늘지 않음 -> 두 버전이 같은 파일을 읽으므로 각자 참조를 가짐
+        }
+        Dataset next = new Dataset(nextVersion, nextWeights, nextStatus, nextValues, null);
+        if (variableIndex != null) {
+            VariableIndex index = variableIndex.copyForAppend();
+            index.append(nextWeights, weightFrom);
+            next.variableIndex = index;
+        }
+        if (returnIndex != null) {
+            SortedIndex index = returnIndex.copyForAppend();
+            next.appendValues(index, valueFrom, true);
+            next.returnIndex = index;
+        }
+        if (riskIndex != null) {
+            SortedIndex index = riskIndex.copyForAppend();
+            next.appendValues(index, valueFrom, false);
+            next.riskIndex = index;
+        }
+        if (timeIndex != null) {
+            SortedIndex index = timeIndex.copyForAppend();
+            next.appendTimes(index, statusFrom);
+            next.timeIndex = index;
+        }
+        if (topHoldings != null) {
+            TopHoldings holdings = topHoldings.copyForAppend();
+            holdings.append(nextWeights, weightFrom);
+            next.topHoldings = holdings;
+        }
+        if (efficientFrontier != null) {
+            EfficientFrontier frontier = efficientFrontier.copy();
+            for (int row = valueFrom; row < nextValues.size(); row++) {
+                frontier.add(nextValues.getProblemId(row), -nextValues.getRisk(row), nextValues.getReturn(row));
+            }
+            next.efficientFrontier = frontier;
+        }
+        return next;
+    }
+
+    // valueStore 의 fromRow 이후 행들을 정렬 색인에 추가
+    private void appendValues(SortedIndex index, int fromRow, boolean byReturn) {
+        int count = valueStore.size() - fromRow;
+        int[] problemIds = new int[count];
+        double[] keys = new double[count];
+        for (int i = 0; i < count; i++) {
+            problemIds[i] = valueStore.getProblemId(fromRow + i);
+            keys[i] = byReturn ? valueStore.getReturn(fromRow + i) : valueStore.getRisk(fromRow + i);
+        }
+        index.addAll(problemIds, keys, count);
+    }
+
+    // statusStore 의 fromRow 이후 행들을 소요 시간 색인에 추가
+    private void appendTimes(SortedIndex index, int fromRow) {
+        int count = statusStore.size() - fromRow;
+        int[] problemIds = new int[count];
+        double[] times = new double[count];
+        for (int i = 0; i < count; i++) {
+            problemIds[i] = statusStore.getProblemId(fromRow + i);
+            times[i] = statusStore.getTimeTaken(fromRow + i);
+        }
+        index.addAll(problemIds, times, count);
+    }
+
+    /**
+     * 저장소와 지금까지 구성된 색인들의 힙 메모리 사용량을 추정합니다. (구성되지 않은 색인은 만들지 않음)
+     * 이전 버전과 공유하는 배열도 포함하므로 버전별 값을 더하면 실제보다 큽니다.
+     *
+     * @return 구조 이름 -> 바이트
+     */
+    public Map<String, Long> getHeapFootprint() {
+        Map<String, Long> footprint = new LinkedHashMap<>();
+        footprint.put("weightStore", weightStore.getHeapBytes());
+        footprint.put("statusStore", statusStore.getHeapBytes());
+        footprint.put("valueStore", valueStore.getHeapBytes());
+        if (variableIndex != null) {
+            footprint.put("variableIndex", variableIndex.getHeapBytes());
+        }
+        if (returnIndex != null) {
+            footprint.put("returnIndex", returnIndex.getHeapBytes());
+        }
+        if (riskIndex != null) {
+            footprint.put("riskIndex", riskIndex.getHeapBytes());
+        }
+        if (timeIndex != null) {
+            footprint.put("timeIndex", timeIndex.getHeapBytes());
+        }
+        if (topHoldings != null) {
+            footprint.put("topHoldings", topHoldings.getHeapBytes());
+        }
+        if (efficientFrontier != null) {
+            footprint.put("efficientFrontier", efficientFrontier.getHeapBytes());
+        }
+        return footprint;
+    }
+
+    /**
+     * 참조를 하나 늘립니다.
+     *
+     * @return 이미 모든 참조가 놓여 닫힌 스냅샷이면 false
+     */
+    boolean retain() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    /**
+     * 참조를 하나 놓습니다. Maps.acquire 로 얻은 스냅샷마다 한 번만 호출해야 합니다.
+     * 마지막 참조가 놓이면 LAZY 로더의 가중치 저장소 참조를 놓습니다. (저장소를 쓰는 버전이 더 없으면 파일이 닫힘)
+     */
+    @Override
+    public void close() {
+        if (references.decrementAndGet() == 0 && weightStore instanceof LazyWeightStore lazy) {
+            try {
+                lazy.close();
+            } catch (IOException e) {
+                System.err.println("Weight CSV 파일 닫기 중 오류 발생: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return 지금 이 스냅샷을 잡고 있는 참조 개수 (게시 중이면 Maps 의 참조 포함)
+     */
+    public int getReferenceCount() {
+        return references.get();
+    }
+}
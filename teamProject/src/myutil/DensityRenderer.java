@@ -0,0 +1,139 @@
+package myutil;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * 많은 점을 점마다 그리지 않고, 화면을 binSize 픽셀 크기의 칸(bin)으로 나눠 칸마다 점 개수를 센 뒤
+ * 개수에 따른 색으로 칠한 밀도 이미지(BufferedImage)를 만드는 렌더러.
+ * 같은 크기, 같은 보기 영역이면 만들어 둔 이미지를 그대로 반환하므로 다시 그리기(repaint)는 이미지 복사만 합니다.
+ * 보기 영역이 바뀌면 SpatialGrid 로 영역 안의 점들만 다시 셉니다.
+ */
+public class DensityRenderer {
+    private static final int GRID_CELLS = 256;
+    private static final int[] COLOR_STOPS = {0xFF9ECAE1, 0xFF2171B5, 0xFFCB181D}; // 적음 -> 많음
+    private static final int[] COLOR_SCALE = buildColorScale(256);
+
+    private final double[] xs;
+    private final double[] ys;
+    private final SpatialGrid grid;
+    private final int binSize;
+
+    // 마지막으로 만든 이미지와 그때의 크기/보기 영역
+    private BufferedImage image;
+    private int imageWidth, imageHeight;
+    private double viewX0, viewX1, viewY0, viewY1;
+    private int maxCount;
+
+    /**
+     * @param xs 점들의 x 좌표
+     * @param ys 점들의 y 좌표
+     * @param binSize 한 칸의 크기 (픽셀)
+     */
+    public DensityRenderer(double[] xs, double[] ys, int binSize) {
+        this.xs = xs;
+        this.ys = ys;
+        this.grid = new SpatialGrid(xs, ys, GRID_CELLS);
+        this.binSize = Math.max(1, binSize);
+    }
+
+    /**
+     * 보기 영역 [x0, x1] x [y0, y1] 을 width x height 픽셀 이미지로 그립니다. (위쪽이 y1)
+     * 크기와 보기 영역이 이전 호출과 같으면 캐시된 이미지를 반환합니다.
+     *
+     * @return 점이 없는 칸은 투명한 ARGB 이미지
+     */
+    public BufferedImage render(int imageWidth, int imageHeight, double x0, double x1, double y0, double y1) {
+        int width = Math.max(1, imageWidth);
+        int height = Math.max(1, imageHeight);
+        if (image != null && width == this.imageWidth && height == this.imageHeight
+                && x0 == viewX0 && x1 == viewX1 && y0 == viewY0 && y1 == viewY1) {
+            return image;
+        }
+
+        // 1) 보기 영역 안의 점들만 칸별로 세기
+        int binsX = (width + binSize - 1) / binSize;
+        int binsY = (height + binSize - 1) / binSize;
+        int[] counts = new int[binsX * binsY];
+        double scaleX = width / (x1 - x0);
+        double scaleY = height / (y1 - y0);
+        grid.visit(x0, x1, y0, y1, i -> {
+            int px = Math.min(width - 1, (int) ((xs[i] - x0) * scaleX));
+            int py = Math.min(height - 1, (int) ((y1 - ys[i]) * scaleY));
+            counts[(py / binSize) * binsX + px / binSize]++;
+        });
+        int max = 0;
+        for (int count : counts) {
+            max = Math.max(max, count);
+        }
+
+        // 2) 개수 -> 색 (로그 척도) 으로 픽셀 채우기
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt) result.getRaster().getDataBuffer()).getData();
+        double logMax = Math.log1p(max);
+        for (int by = 0; by < binsY; by++) {
+            for (int bx = 0; bx < binsX; bx++) {
+                int count = counts[by * binsX + bx];
+                if (count == 0) {
+                    continue;
+                }
+                int color = colorOf(logMax == 0 ? 1 : Math.log1p(count) / logMax);
+                int xEnd = Math.min(width, (bx + 1) * binSize);
+                for (int y = by * binSize; y < Math.min(height, (by + 1) * binSize); y++) {
+                    Arrays.fill(pixels, y * width + bx * binSize, y * width + xEnd, color);
+                }
+            }
+        }
+
+        image = result;
+        this.imageWidth = width;
+        this.imageHeight = height;
+        viewX0 = x0;
+        viewX1 = x1;
+        viewY0 = y0;
+        viewY1 = y1;
+        maxCount = max;
+        return image;
+    }
+
+    /**
+     * @return 마지막으로 그린 이미지에서 한 칸에 들어간 최대 점 개수 (색 범례용)
+     */
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public SpatialGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * @param t 0(적음) ~ 1(많음)
+     * @return 색 척도의 ARGB 색
+     */
+    public static int colorOf(double t) {
+        int index = (int) Math.round(Math.min(1, Math.max(0, t)) * (COLOR_SCALE.length - 1));
+        return COLOR_SCALE[index];
+    }
+
+    // COLOR_STOPS 사이를 선형 보간한 색표
+    private static int[] buildColorScale(int size) {
+        int[] scale = new int[size];
+        for (int i = 0; i < size; i++) {
+            double position = (double) i / (size - 1) * (COLOR_STOPS.length - 1);
+            int stop = Math.min(COLOR_STOPS.length - 2, (int) position);
+            double f = position - stop;
+            int from = COLOR_STOPS[stop];
+            int to = COLOR_STOPS[stop + 1];
+            int color = 0xFF000000;
+            for (int shift = 0; shift <= 16; shift += 8) {
+                int a = (from >> shift) & 0xFF;
+                int b = (to >> shift) & 0xFF;
+                color |= (int) Math.round(a + (b - a) * f) << shift;
+            }
+            scale[i] = color;
+        }
+        return scale;
+    }
+}
@@ -0,0 +1,215 @@
+package myutil;
+
+import java.util.Arrays;
+
+/**
+ * 위험(x)은 작을수록, 수익률(y)은 클수록 좋은 점들 중 다른 점에 지배되지 않는 점(Pareto 최적)들의 집합, 즉 효율적 투자선.
+ * 점들은 x 오름차순으로 저장되며 y 도 x 를 따라 강하게 증가합니다.
+ * 처음에는 x 기준으로 한 번 정렬한 뒤 훑어서(sort and sweep) 만들고,
+ * 이후 add 로 점을 하나씩 넣으면 이진 탐색으로 자리를 찾아 지배되는 점들만 지웁니다.
+ * 화면과 무관하므로 Swing 없이도 투자선 문제 번호를 얻을 수 있습니다.
+ */
+public class EfficientFrontier {
+    private double[] xs = new double[16];
+    private double[] ys = new double[16];
+    private int[] problemIds = new int[16];
+    private int size;
+
+    public EfficientFrontier() {
+    }
+
+    /**
+     * 점들을 x 기준으로 정렬하고 한 번 훑어 효율적 투자선을 만듭니다.
+     * 같은 x 에서는 y 가 가장 큰 점, y 까지 같으면 먼저 나온 점이 남습니다.
+     *
+     * @param problemIds 문제 번호
+     * @param xs 위험 (작을수록 좋음)
+     * @param ys 수익률 (클수록 좋음)
+     * @param count 점 개수
+     */
+    public EfficientFrontier(int[] problemIds, double[] xs, double[] ys, int count) {
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = i;
+        }
+        SortedIndex byX = new SortedIndex(); // 행 번호를 x 순서로 정렬 (같은 x 는 입력 순서)
+        byX.addAll(rows, Arrays.copyOf(xs, count), count);
+
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int start = 0; start < count; ) {
+            // 같은 x 묶음에서 y 가 가장 큰 점
+            int end = byX.upperBound(byX.getKey(start));
+            int best = byX.getProblemId(start);
+            for (int rank = start + 1; rank < end; rank++) {
+                int row = byX.getProblemId(rank);
+                if (ys[row] > ys[best] || Double.isNaN(ys[best])) {
+                    best = row;
+                }
+            }
+            if (!Double.isNaN(xs[best]) && ys[best] > maxY) {
+                maxY = ys[best];
+                append(problemIds[best], xs[best], ys[best]);
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * 점 하나를 넣습니다. 기존 점에 지배되면 무시하고, 새 점에 지배되는 기존 점들은 지웁니다.
+     * (자리 찾기 O(log h), h = 투자선의 점 개수)
+     *
+     * @param problemId 문제 번호
+     * @param x 위험 (작을수록 좋음)
+     * @param y 수익률 (클수록 좋음)
+     * @return 투자선에 들어갔으면 true
+     */
+    public boolean add(int problemId, double x, double y) {
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            return false;
+        }
+        // x 가 같거나 작은 점 중 가장 오른쪽 점의 y 가 더 크거나 같으면 지배됨
+        int position = upperBound(x);
+        if (position > 0 && ys[position - 1] >= y) {
+            return false;
+        }
+        // x 가 같거나 큰 점들 중 y 가 작거나 같은 점은 새 점에 지배됨 (y 가 증가하므로 앞쪽 연속 구간)
+        int start = position > 0 && xs[position - 1] == x ? position - 1 : position;
+        int end = start;
+        while (end < size && ys[end] <= y) {
+            end++;
+        }
+
+        int removed = end - start;
+        if (removed == 0) {
+            ensureCapacity(size + 1);
+            System.arraycopy(xs, start, xs, start + 1, size - start);
+            System.arraycopy(ys, start, ys, start + 1, size - start);
+            System.arraycopy(problemIds, start, problemIds, start + 1, size - start);
+            size++;
+        } else if (removed > 1) {
+            System.arraycopy(xs, end, xs, start + 1, size - end);
+            System.arraycopy(ys, end, ys, start + 1, size - end);
+            System.arraycopy(problemIds, end, problemIds, start + 1, size - end);
+            size -= removed - 1;
+        }
+        xs[start] = x;
+        ys[start] = y;
+        problemIds[start] = problemId;
+        return true;
+    }
+
+    // sort and sweep 에서 x 순서대로 뒤에 붙임
+    private void append(int problemId, double x, double y) {
+        ensureCapacity(size + 1);
+        xs[size] = x;
+        ys[size] = y;
+        problemIds[size] = problemId;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > xs.length) {
+            int newLength = Math.max(capacity, xs.length * 2);
+            xs = Arrays.copyOf(xs, newLength);
+            ys = Arrays.copyOf(ys, newLength);
+            problemIds = Arrays.copyOf(problemIds, newLength);
+        }
+    }
+
+    // x 보다 작거나 같은 점 개수
+    private int upperBound(double x) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 효율적 투자선 점들 중 위쪽 볼록 껍질(upper convex hull)에 속하는 점들의 위치를 반환합니다.
+     * 투자선이 이미 x 순서이므로 monotone chain 으로 O(h) 에 구합니다.
+     *
+     * @return getX/getY/getProblemId 에 쓸 위치 배열 (x 오름차순)
+     */
+    public int[] upperHull() {
+        int[] hull = new int[size];
+        int hullSize = 0;
+        for (int i = 0; i < size; i++) {
+            // 직전 두 점과 오목하지 않게(왼쪽으로 꺾이거나 일직선) 이어지면 가운데 점을 제거
+            while (hullSize >= 2 && cross(hull[hullSize - 2], hull[hullSize - 1], i) >= 0) {
+                hullSize--;
+            }
+            hull[hullSize++] = i;
+        }
+        return Arrays.copyOf(hull, hullSize);
+    }
+
+    private double cross(int o, int a, int b) {
+        return (xs[a] - xs[o]) * (ys[b] - ys[o]) - (ys[a] - ys[o]) * (xs[b] - xs[o]);
+    }
+
+    /**
+     * @return 같은 점들의 독립된 복사본 (add 는 배열 안에서 점을 옮기므로 배열을 공유할 수 없음)
+     */
+    EfficientFrontier copy() {
+        EfficientFrontier copy = new EfficientFrontier();
+        copy.xs = xs.clone();
+        copy.ys = ys.clone();
+        copy.problemIds = problemIds.clone();
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * @return 투자선의 점 개수
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 힙 메모리 사용량 추정 (바이트, 배열 크기 기준)
+     */
+    public long getHeapBytes() {
+        return 8L * xs.length + 8L * ys.length + 4L * problemIds.length;
+    }
+
+    public double getX(int i) {
+        return xs[i];
+    }
+
+    public double getY(int i) {
+        return ys[i];
+    }
+
+    public int getProblemId(int i) {
+        return problemIds[i];
+    }
+
+    /**
+     * @return 투자선 점들의 문제 번호 (위험 오름차순, 복사본)
+     */
+    public int[] getProblemIds() {
+        return Arrays.copyOf(problemIds, size);
+    }
+
+    /**
+     * @return 투자선 점들의 위험 (오름차순, 복사본)
+     */
+    public double[] getXs() {
+        return Arrays.copyOf(xs, size);
+    }
+
+    /**
+     * @return 투자선 점들의 수익률 (오름차순, 복사본)
+     */
+    public double[] getYs() {
+        return Arrays.copyOf(ys, size);
+    }
+}
@@ -0,0 +1,312 @@
+package myutil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * 결과 CSV 파일을 바이트 단위로 직접 읽어 컬럼 저장소를 만드는 병렬 로더.
+ * 파일을 줄 경계에 맞춘 조각(chunk)으로 나눠 각 조각을 FileChannel.map 으로 열고,
+ * 여러 스레드가 필드마다 String 을 만들지 않고 ByteNumberParser 로 숫자를 읽습니다.
+ * 조각별 결과는 파일 순서대로 합치므로 Maps 의 기존 로더와 같은 행 순서, 같은 값을 얻습니다.
+ * 파일의 [from, to) 바이트 구간만 읽을 수 있어, 실행 중인 solver 가 이어 쓴 줄만 추가로 읽는 데에도 사용합니다.
+ */
+class FastCsvLoader {
+    private static final long MIN_CHUNK_BYTES = 1L << 20;   // 1MB
+    private static final long MAX_CHUNK_BYTES = 1L << 28;   // 256MB (한 번에 map 할 최대 크기)
+    private static final int SCAN_BUFFER_BYTES = 1 << 16;
+
+    private FastCsvLoader() {
+    }
+
+    /**
+     * Weight CSV 파일의 [from, to) 구간을 읽습니다. 값이 없는 뒤쪽 열은 null(-1)로 처리합니다.
+     */
+    static CsrWeightStore loadWeights(String filePath, int variableCount, long from, long to) throws IOException {
+        List<CsrWeightStore> parts = parseChunks(filePath, from, to, buffer -> {
+            CsrWeightStore part = new CsrWeightStore(variableCount);
+            double[] weights = new double[variableCount];
+            int position = 0;
+            while (position < buffer.limit()) {
+                int lineEnd = lineEnd(buffer, position);
+                if (!isBlank(buffer, position, lineEnd)) {
+                    int fieldEnd = fieldEnd(buffer, position, lineEnd);
+                    int problemNumber = ByteNumberParser.parseInt(buffer, position, fieldEnd);
+                    int column = 0;
+                    while (fieldEnd < lineEnd && column < variableCount) {
+                        int fieldStart = fieldEnd + 1;
+                        fieldEnd = fieldEnd(buffer, fieldStart, lineEnd);
+                        weights[column++] = ByteNumberParser.parseDouble(buffer, fieldStart, fieldEnd);
+                    }
+                    Arrays.fill(weights, column, variableCount, -1.0);
+                    part.add(problemNumber, weights);
+                }
+                position = lineEnd + 1;
+            }
+            return part;
+        });
+
+        CsrWeightStore store = new CsrWeightStore(variableCount);
+        for (CsrWeightStore part : parts) {
+            store.addAll(part);
+        }
+        store.trimToSize();
+        return store;
+    }
+
+    /**
+     * Status CSV 파일의 [from, to) 구간을 읽습니다.
+     */
+    static StatusStore loadStatus(String filePath, long from, long to) throws IOException {
+        byte[] optimal = "optimal".getBytes(StandardCharsets.US_ASCII);
+        List<StatusStore> parts = parseChunks(filePath, from, to, buffer -> {
+            StatusStore part = new StatusStore();
+            int position = 0;
+            while (position < buffer.limit()) {
+                int lineEnd = lineEnd(buffer, position);
+                if (!isBlank(buffer, position, lineEnd)) {
+                    int idEnd = fieldEnd(buffer, position, lineEnd);
+                    int statusEnd = fieldEnd(buffer, idEnd + 1, lineEnd);
+                    int timeEnd = fieldEnd(buffer, statusEnd + 1, lineEnd);
+                    int countEnd = fieldEnd(buffer, timeEnd + 1, lineEnd);
+                    if (timeEnd >= lineEnd) {
+                        throw new IllegalStateException("Status CSV 열 개수가 부족합니다.");
+                    }
+
+                    int problemNumber = ByteNumberParser.parseInt(buffer, position, idEnd);
+                    boolean optimality = equalsTrimmed(buffer, idEnd + 1, statusEnd, optimal);
+                    double timeTaken = ByteNumberParser.parseDouble(buffer, statusEnd + 1, timeEnd);
+                    int variableCount = (int) ByteNumberParser.parseDouble(buffer, timeEnd + 1, countEnd);
+                    part.add(problemNumber, optimality, timeTaken, variableCount);
+                }
+                position = lineEnd + 1;
+            }
+            return part;
+        });
+
+        StatusStore store = new StatusStore();
+        for (StatusStore part : parts) {
+            store.addAll(part);
+        }
+        return store;
+    }
+
+    /**
+     * Value CSV 파일의 [from, to) 구간을 읽습니다.
+     */
+    static ValueStore loadValues(String filePath, long from, long to) throws IOException {
+        List<ValueStore> parts = parseChunks(filePath, from, to, buffer -> {
+            ValueStore part = new ValueStore();
+            int position = 0;
+            while (position < buffer.limit()) {
+                int lineEnd = lineEnd(buffer, position);
+                if (!isBlank(buffer, position, lineEnd)) {
+                    int idEnd = fieldEnd(buffer, position, lineEnd);
+                    int riskEnd = fieldEnd(buffer, idEnd + 1, lineEnd);
+                    int returnEnd = fieldEnd(buffer, riskEnd + 1, lineEnd);
+                    if (riskEnd >= lineEnd) {
+                        throw new IllegalStateException("Value CSV 열 개수가 부족합니다.");
+                    }
+
+                    int problemNumber = ByteNumberParser.parseInt(buffer, position, idEnd);
+                    double risk = ByteNumberParser.parseDouble(buffer, idEnd + 1, riskEnd);
+                    double ret = ByteNumberParser.parseDouble(buffer, riskEnd + 1, returnEnd);
+                    part.add(problemNumber, risk, ret);
+                }
+                position = lineEnd + 1;
+            }
+            return part;
+        });
+
+        ValueStore store = new ValueStore();
+        for (ValueStore part : parts) {
+            store.addAll(part);
+        }
+        return store;
+    }
+
+    /**
+     * 파일 끝에서 거꾸로 찾아, from 이후 마지막 '\n' 다음 위치를 반환합니다. (줄바꿈이 없으면 from)
+     * 쓰는 중인 마지막 줄은 아직 완성되지 않았을 수 있으므로 로더는 이 위치까지만 읽습니다.
+     *
+     * @param filePath CSV 파일 경로
+     * @param from 찾기 시작할 위치
+     * @return 완성된 줄들의 끝 위치
+     * @throws IOException 파일 읽기 중 오류가 난 경우
+     */
+    static long completeLinesEnd(String filePath, long from) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+            long end = channel.size();
+            while (end > from) {
+                long start = Math.max(from, end - SCAN_BUFFER_BYTES);
+                scan.clear().limit((int) (end - start));
+                int read = 0;
+                while (read >= 0 && scan.hasRemaining()) {
+                    read = channel.read(scan, start + scan.position());
+                }
+                for (int i = scan.position() - 1; i >= 0; i--) {
+                    if (scan.get(i) == '\n') {
+                        return start + i + 1;
+                    }
+                }
+                end = start;
+            }
+            return from;
+        }
+    }
+
+    /**
+     * from 이후 줄바꿈 없이 끝난 마지막 줄이 열을 fieldCount 개 모두 갖추었으면 파일 끝을, 아니면 from 을 반환합니다.
+     * 처음 읽을 때 이 위치까지 읽으면 기존 로더처럼 마지막 줄바꿈이 없는 파일의 마지막 줄도 읽습니다.
+     * 아직 쓰는 중이던 줄이면 나중에 완성된 줄을 읽을 때 같은 문제 번호가 다시 나오므로 refresh 가 전체를 다시 읽습니다.
+     *
+     * @param filePath CSV 파일 경로
+     * @param from 완성된 줄들의 끝 위치 (completeLinesEnd, 0 이면 아직 헤더도 끝나지 않음)
+     * @param fieldCount 한 줄의 열 개수 (문제 번호 포함)
+     * @return 마지막 줄까지 읽을 끝 위치
+     * @throws IOException 파일 읽기 중 오류가 난 경우
+     */
+    static long lastLineEnd(String filePath, long from, int fieldCount) throws IOException {
+        if (from == 0) {
+            return from;
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long end = channel.size();
+            ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+            int fields = 1;
+            boolean blank = true;
+            for (long position = from; position < end; position += scan.position()) {
+                scan.clear().limit((int) Math.min(SCAN_BUFFER_BYTES, end - position));
+                if (channel.read(scan, position) <= 0) {
+                    return from;
+                }
+                for (int i = 0; i < scan.position(); i++) {
+                    byte b = scan.get(i);
+                    if (b == ',') {
+                        fields++;
+                    }
+                    if (b > ' ') {
+                        blank = false;
+                    }
+                }
+            }
+            return !blank && fields >= fieldCount ? end : from;
+        }
+    }
+
+    /**
+     * 파일의 [from, to) 구간을 줄 경계 조각으로 나눠 병렬로 파싱하고, 조각 순서대로 결과를 반환합니다.
+     * from 이 0 이면 첫 줄은 헤더이므로 건너뜁니다.
+     */
+    private static <T> List<T> parseChunks(String filePath, long from, long to, Function<ByteBuffer, T> parser)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long fileSize = Math.min(to, channel.size());
+            int threads = Runtime.getRuntime().availableProcessors();
+            long chunkBytes = Math.min(MAX_CHUNK_BYTES, Math.max(MIN_CHUNK_BYTES, (fileSize - from) / (threads * 4L)));
+
+            // 조각 경계 계산
+            List<long[]> chunks = new ArrayList<>();
+            long start = from == 0 ? nextLineStart(channel, 0, fileSize) : from;
+            while (start < fileSize) {
+                long end = start + chunkBytes >= fileSize ? fileSize : nextLineStart(channel, start + chunkBytes, fileSize);
+                chunks.add(new long[]{start, end});
+                start = end;
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, chunks.size())));
+            try {
+                List<Future<T>> futures = new ArrayList<>();
+                for (long[] chunk : chunks) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+                    futures.add(executor.submit(() -> parser.apply(buffer)));
+                }
+
+                List<T> results = new ArrayList<>();
+                for (Future<T> future : futures) {
+                    results.add(future.get());
+                }
+                return results;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("CSV 파싱이 중단되었습니다.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    // position 이후 처음 나오는 '\n' 다음 위치 (없으면 파일 끝)
+    private static long nextLineStart(FileChannel channel, long position, long fileSize) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        while (position < fileSize) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return fileSize;
+    }
+
+    private static int lineEnd(ByteBuffer buffer, int position) {
+        while (position < buffer.limit() && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private static int fieldEnd(ByteBuffer buffer, int position, int lineEnd) {
+        while (position < lineEnd && buffer.get(position) != ',') {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsTrimmed(ByteBuffer buffer, int start, int end, byte[] expected) {
+        while (start < end && buffer.get(start) <= ' ') start++;
+        while (end > start && buffer.get(end - 1) <= ' ') end--;
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
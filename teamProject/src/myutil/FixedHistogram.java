@@ -0,0 +1,145 @@
+package myutil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * [min, max] 를 같은 폭의 구간(bin) 으로 나눈 히스토그램. 구간별 개수는 long[] 에 셉니다.
+ * 값을 정렬하지 않고 한 번씩 add 하면 되며, 구간이 같은 히스토그램끼리는 merge 로 합칠 수 있으므로
+ * 데이터를 여러 조각으로 나눠 병렬로 세거나, 새로 들어온 값만 더할 수 있습니다.
+ * 구간 경계는 처음에 정해지므로 범위 밖의 값은 underflow/overflow 로 따로 셉니다. NaN 은 무시합니다.
+ */
+public class FixedHistogram {
+    private final double min;
+    private final double max;
+    private final double binWidth;
+    private final long[] counts;
+    private long underflow;
+    private long overflow;
+
+    /**
+     * @param min 첫 구간의 하한
+     * @param max 마지막 구간의 상한 (포함)
+     * @param bins 구간 개수
+     */
+    public FixedHistogram(double min, double max, int bins) {
+        if (bins <= 0) {
+            throw new IllegalArgumentException("구간 개수는 1 이상이어야 합니다: " + bins);
+        }
+        this.min = min;
+        this.max = max;
+        this.binWidth = (max - min) / bins;
+        this.counts = new long[bins];
+    }
+
+    /**
+     * 값 하나를 셉니다.
+     *
+     * @param value 셀 값
+     */
+    public void add(double value) {
+        if (value < min) {
+            underflow++;
+        } else if (value > max) {
+            overflow++;
+        } else if (value == value) { // NaN 제외
+            counts[binOf(value)]++;
+        }
+    }
+
+    // min <= value <= max 인 값의 구간 (max 는 마지막 구간)
+    private int binOf(double value) {
+        if (binWidth == 0) {
+            return 0; // min == max 이면 모두 첫 구간
+        }
+        return Math.min(counts.length - 1, (int) ((value - min) / binWidth));
+    }
+
+    /**
+     * 구간이 같은 다른 히스토그램의 개수를 더합니다.
+     *
+     * @param other 합칠 히스토그램 (min, max, 구간 개수가 같아야 함)
+     */
+    public void merge(FixedHistogram other) {
+        if (Double.compare(min, other.min) != 0 || Double.compare(max, other.max) != 0
+                || counts.length != other.counts.length) {
+            throw new IllegalArgumentException("구간이 다른 히스토그램은 합칠 수 없습니다.");
+        }
+        for (int bin = 0; bin < counts.length; bin++) {
+            counts[bin] += other.counts[bin];
+        }
+        underflow += other.underflow;
+        overflow += other.overflow;
+    }
+
+    /**
+     * @return 구간이 같고 개수가 0 인 히스토그램 (병렬로 셀 때의 조각용)
+     */
+    public FixedHistogram emptyCopy() {
+        return new FixedHistogram(min, max, counts.length);
+    }
+
+    /**
+     * 개수를 모두 0 으로 되돌립니다. (구간은 유지)
+     */
+    public void clear() {
+        Arrays.fill(counts, 0);
+        underflow = 0;
+        overflow = 0;
+    }
+
+    public int getBinCount() {
+        return counts.length;
+    }
+
+    public long getCount(int bin) {
+        return counts[bin];
+    }
+
+    public double getLowerBound(int bin) {
+        return min + bin * binWidth;
+    }
+
+    public double getUpperBound(int bin) {
+        return bin == counts.length - 1 ? max : getLowerBound(bin) + binWidth;
+    }
+
+    /**
+     * @return min 보다 작아 구간에 들어가지 못한 값 개수
+     */
+    public long getUnderflow() {
+        return underflow;
+    }
+
+    /**
+     * @return max 보다 커서 구간에 들어가지 못한 값 개수
+     */
+    public long getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * @return 구간에 들어간 값 개수의 합
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * HistogramPanel 등에서 쓰는 형식으로 변환합니다.
+     *
+     * @return 구간별 {lowerBound, upperBound, count}
+     */
+    public List<double[]> toList() {
+        List<double[]> histogram = new ArrayList<>(counts.length);
+        for (int bin = 0; bin < counts.length; bin++) {
+            histogram.add(new double[]{getLowerBound(bin), getUpperBound(bin), counts[bin]});
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,64 @@
+package myutil;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+
+/**
+ * Graphics2D 에 그리는 ChartCanvas. (Swing 패널, PNG 이미지)
+ */
+public class GraphicsCanvas implements ChartCanvas {
+    private final Graphics2D g2d;
+    private Shape savedClip;
+
+    public GraphicsCanvas(Graphics2D g2d) {
+        this.g2d = g2d;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        g2d.setColor(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        g2d.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawRect(int x, int y, int width, int height) {
+        g2d.drawRect(x, y, width, height);
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        g2d.fillRect(x, y, width, height);
+    }
+
+    @Override
+    public void drawString(String text, int x, int y) {
+        g2d.drawString(text, x, y);
+    }
+
+    @Override
+    public int stringWidth(String text) {
+        return g2d.getFontMetrics().stringWidth(text);
+    }
+
+    @Override
+    public void drawImage(BufferedImage image, int x, int y) {
+        g2d.drawImage(image, x, y, null);
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        savedClip = g2d.getClip();
+        g2d.clipRect(x, y, width, height);
+    }
+
+    @Override
+    public void resetClip() {
+        g2d.setClip(savedClip);
+    }
+}
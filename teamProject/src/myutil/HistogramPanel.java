@@ -15,9 +15,18 @@ public class HistogramPanel extends JPanel {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        Graphics2D g2d = (Graphics2D) g;
-        int width = getWidth();
-        int height = getHeight();
+        paintHistogram(new GraphicsCanvas((Graphics2D) g), histogram, getWidth(), getHeight());
+    }
+
+    /**
+     * 히스토그램을 canvas 에 그립니다. (화면, PNG, SVG 공용)
+     *
+     * @param canvas 그릴 대상
+     * @param histogram 구간별 {lowerBound, upperBound, count}
+     * @param width 그림 폭
+     * @param height 그림 높이
+     */
+    public static void paintHistogram(ChartCanvas canvas, List<double[]> histogram, int width, int height) {
         int padding = 50;
         int barWidth = (width - 2 * padding) / histogram.size();
 
@@ -39,13 +48,13 @@ public class HistogramPanel extends JPanel {
             int y = height - padding - barHeight;
 
             // Draw bar
-            g2d.setColor(Color.BLUE);
-            g2d.fillRect(x, y, barWidth - 5, barHeight);
+            canvas.setColor(Color.BLUE);
+            canvas.fillRect(x, y, barWidth - 5, barHeight);
 
             // Draw labels
-            g2d.setColor(Color.BLACK);
-            g2d.drawString(String.format("%.2f~%.2f", lowerBound, upperBound), x, height - padding + 15);
-            g2d.drawString(String.valueOf(count), x + barWidth / 4, y - 5);
+            canvas.setColor(Color.BLACK);
+            canvas.drawString(String.format("%.2f~%.2f", lowerBound, upperBound), x, height - padding + 15);
+            canvas.drawString(String.valueOf(count), x + barWidth / 4, y - 5);
         }
     }
 }
@@ -0,0 +1,120 @@
+package myutil;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 조회 시간(나노초)을 세는 로그-선형(HdrHistogram 방식) 히스토그램.
+ * 값을 2 의 거듭제곱 구간으로 나누고 구간마다 16 칸으로 다시 나누므로, 1ns ~ 수백 년 범위를 약 1000 칸으로
+ * 상대 오차 1/16 (약 6%) 이내로 셉니다. 기록은 칸 번호 계산과 원자적 증가 한 번뿐이라 잠금 없이 여러 스레드에서
+ * 동시에 호출할 수 있고, 항상 켜 두어도 부담이 적습니다.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+    }
+
+    /**
+     * 값 하나를 기록합니다.
+     *
+     * @param nanos 걸린 시간 (나노초, 음수는 0 으로 봄)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    // 16 보다 작은 값은 그대로, 그 이상은 (2 의 지수, 상위 4 비트) 로 칸 번호를 정함
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // 칸의 가장 큰 값
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lower = ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS)) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * @return 기록한 값 개수
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @return 평균 (나노초), 기록이 없으면 0
+     */
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * @return 가장 큰 값 (나노초)
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * 분위 값을 칸의 상한으로 근사합니다. (최댓값을 넘지 않음)
+     *
+     * @param fraction 0 ~ 1 (예: 0.99 = p99)
+     * @return 나노초, 기록이 없으면 0
+     */
+    public long getPercentile(double fraction) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * 기록을 모두 지웁니다. (다른 스레드의 기록과 동시에 호출하면 일부가 남을 수 있음)
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.reset();
+    }
+}
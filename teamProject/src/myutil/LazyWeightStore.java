@@ -0,0 +1,282 @@
+package myutil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Weight CSV 파일의 행을 처음 접근할 때 읽는 지연 로딩 저장소.
+ * 생성할 때는 파일을 한 번 훑어 각 줄의 시작 위치(offset)와 문제 번호만 기억하고,
+ * 가중치는 readRow 가 호출될 때 해당 줄만 읽어 파싱합니다.
+ * 최근에 읽은 행은 크기가 제한된 LRU 캐시에 보관하므로 메모리 사용량은 실제로 조회한 행 수에 비례합니다.
+ * 줄바꿈으로 끝나지 않은 마지막 줄은 열이 모두 있으면 처음 만들 때 함께 읽고, 아니면 아직 쓰는 중인 줄로 보고 완성된 뒤
+ * appendLines 로 추가합니다.
+ * copyForAppend 로 만든 복사본은 파일을 따로 열고 행 캐시는 원본과 함께 씁니다. (같은 행 번호는 같은 줄)
+ * 여러 스냅샷(Dataset)이 같은 저장소를 함께 쓸 수 있으므로 참조 개수를 세고, 마지막 참조가 close 될 때 파일을 닫습니다.
+ */
+public final class LazyWeightStore implements WeightStore, AutoCloseable {
+    public static final int DEFAULT_CACHE_ROWS = 4096;
+
+    private static final long SCAN_CHUNK_BYTES = 1L << 28; // 256MB 씩 map 하여 줄 위치 탐색
+
+    private final String filePath;
+    private final FileChannel channel;
+    private final int variableCount;
+    private long[] lineOffsets = new long[1024]; // 행 row 의 줄 = [lineOffsets[row], lineOffsets[row + 1])
+    private int[] problemIds = new int[1024];
+    private int size;
+    private long indexedEnd; // 줄 위치를 기록한 파일 위치 (완성된 마지막 줄의 끝)
+    private final RowIndex rowIndex;
+    private final Map<Integer, WeightRow> cache;
+    private final AtomicInteger references = new AtomicInteger(1); // 만든 쪽의 참조
+
+    /**
+     * Weight CSV 파일의 줄 위치 인덱스를 만듭니다.
+     *
+     * @param filePath Weight CSV 파일 경로
+     * @param variableCount 변수 개수
+     * @param cacheRows 캐시에 보관할 최대 행 개수
+     * @throws IOException 파일 읽기 중 오류가 난 경우
+     */
+    public LazyWeightStore(String filePath, int variableCount, int cacheRows) throws IOException {
+        this.filePath = filePath;
+        this.channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+        this.variableCount = variableCount;
+        this.rowIndex = new RowIndex();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, WeightRow> eldest) {
+                return size() > cacheRows;
+            }
+        };
+
+        try {
+            appendLines(FastCsvLoader.completeLinesEnd(filePath, 0));
+            long lastLineEnd = FastCsvLoader.lastLineEnd(filePath, indexedEnd, variableCount + 1);
+            if (lastLineEnd > indexedEnd) {
+                addLine(indexedEnd, lastLineEnd); // 줄바꿈 없는 마지막 줄 (indexedEnd 는 그대로 두어 완성되면 다시 읽음)
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // source 와 같은 행들을 가진 복사본 (파일은 새로 열고, 줄 위치는 복사하고, 캐시는 공유)
+    private LazyWeightStore(LazyWeightStore source) throws IOException {
+        this.filePath = source.filePath;
+        this.channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+        this.variableCount = source.variableCount;
+        this.lineOffsets = source.lineOffsets.clone(); // appendLines 가 마지막 행의 끝 위치 자리에 다음 줄 시작을 씀
+        this.problemIds = source.problemIds.clone();
+        this.size = source.size;
+        this.indexedEnd = source.indexedEnd;
+        this.rowIndex = source.rowIndex.copy();
+        this.cache = source.cache;
+    }
+
+    /**
+     * 행을 추가할 복사본을 만듭니다. 복사본은 파일을 따로 열므로 원본을 close 해도 복사본은 계속 읽을 수 있습니다.
+     * 줄 위치 배열은 복사하므로(행마다 12 바이트) 복사본에 appendLines 해도 원본은 바뀌지 않습니다.
+     *
+     * @return 추가용 복사본
+     * @throws IOException 파일을 열지 못한 경우
+     */
+    LazyWeightStore copyForAppend() throws IOException {
+        return new LazyWeightStore(this);
+    }
+
+    /**
+     * 지금까지 기록한 위치부터 end 까지 새로 쓰인 줄들의 위치를 기록합니다.
+     *
+     * @param end 완성된 줄들의 끝 위치 (FastCsvLoader.completeLinesEnd)
+     * @return 새로 추가된 행 개수
+     * @throws IOException 파일 읽기 중 오류가 난 경우
+     */
+    int appendLines(long end) throws IOException {
+        int before = size;
+        boolean header = indexedEnd == 0;
+        long lineStart = indexedEnd;
+
+        for (long chunkStart = indexedEnd; chunkStart < end; chunkStart += SCAN_CHUNK_BYTES) {
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart,
+                    Math.min(SCAN_CHUNK_BYTES, end - chunkStart));
+            for (int i = 0; i < chunk.limit(); i++) {
+                if (chunk.get(i) != '\n') {
+                    continue;
+                }
+                long lineEnd = chunkStart + i;
+                if (header) {
+                    header = false; // 헤더 스킵
+                } else if (lineEnd > lineStart) {
+                    addLine(lineStart, lineEnd);
+                }
+                lineStart = lineEnd + 1;
+            }
+        }
+        indexedEnd = lineStart;
+        return size - before;
+    }
+
+    private void addLine(long lineStart, long lineEnd) throws IOException {
+        int problemId = readProblemId(lineStart, lineEnd);
+        if (rowIndex.get(problemId) >= 0) {
+            throw new IllegalArgumentException("이미 등록된 문제 번호입니다: " + problemId);
+        }
+        if (size + 1 >= lineOffsets.length) {
+            lineOffsets = Arrays.copyOf(lineOffsets, lineOffsets.length * 2);
+            problemIds = Arrays.copyOf(problemIds, problemIds.length * 2);
+        }
+        lineOffsets[size] = lineStart;
+        lineOffsets[size + 1] = lineEnd;
+        problemIds[size] = problemId;
+        rowIndex.put(problemId, size);
+        size++;
+    }
+
+    /**
+     * @return 줄 위치를 기록한 파일 위치 (완성된 마지막 줄의 끝)
+     */
+    long getIndexedEnd() {
+        return indexedEnd;
+    }
+
+    // 줄의 첫 번째 열(문제 번호)만 읽음
+    private int readProblemId(long lineStart, long lineEnd) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(32, lineEnd - lineStart));
+        channel.read(buffer, lineStart);
+        int fieldEnd = 0;
+        while (fieldEnd < buffer.position() && buffer.get(fieldEnd) != ',') {
+            fieldEnd++;
+        }
+        return ByteNumberParser.parseInt(buffer, 0, fieldEnd);
+    }
+
+    @Override
+    public WeightRow readRow(int row) {
+        synchronized (cache) {
+            WeightRow cached = cache.get(row);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        WeightRow weightRow;
+        try {
+            weightRow = parseRow(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Weight CSV 파일 읽기 중 오류 발생", e);
+        }
+        synchronized (cache) {
+            cache.put(row, weightRow);
+        }
+        return weightRow;
+    }
+
+    // 줄 하나를 읽어 -1/0 이 아닌 가중치만 남김 (값이 없는 뒤쪽 열은 null(-1)로 처리)
+    private WeightRow parseRow(int row) throws IOException {
+        ByteBuffer line = ByteBuffer.allocate((int) (lineOffsets[row + 1] - lineOffsets[row]));
+        while (line.hasRemaining()) {
+            if (channel.read(line, lineOffsets[row] + line.position()) < 0) {
+                break;
+            }
+        }
+        int lineEnd = line.position();
+
+        short[] columns = new short[16];
+        double[] values = new double[16];
+        int count = 0;
+        int fieldEnd = 0;
+        while (fieldEnd < lineEnd && line.get(fieldEnd) != ',') {
+            fieldEnd++;
+        }
+        for (int column = 0; fieldEnd < lineEnd && column < variableCount; column++) {
+            int fieldStart = fieldEnd + 1;
+            fieldEnd = fieldStart;
+            while (fieldEnd < lineEnd && line.get(fieldEnd) != ',') {
+                fieldEnd++;
+            }
+            double weight = ByteNumberParser.parseDouble(line, fieldStart, fieldEnd);
+            if (weight != 0 && weight != -1) {
+                if (count == columns.length) {
+                    columns = Arrays.copyOf(columns, count * 2);
+                    values = Arrays.copyOf(values, count * 2);
+                }
+                columns[count] = (short) column;
+                values[count] = weight;
+                count++;
+            }
+        }
+        return new WeightRow(problemIds[row], ShortBuffer.wrap(Arrays.copyOf(columns, count)),
+                DoubleBuffer.wrap(Arrays.copyOf(values, count)), 0, count);
+    }
+
+    @Override
+    public int getRow(int problemId) {
+        return rowIndex.get(problemId);
+    }
+
+    @Override
+    public int getProblemId(int row) {
+        return problemIds[row];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getHeapBytes() {
+        long bytes = 8L * lineOffsets.length + 4L * problemIds.length + rowIndex.getHeapBytes();
+        synchronized (cache) { // 캐시된 행: 변수 번호(short) + 값(double)
+            for (WeightRow row : cache.values()) {
+                bytes += 10L * row.size();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * @return 현재 캐시에 들어 있는 행 개수
+     */
+    public int getCachedRowCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * 참조를 하나 늘립니다. 같은 저장소를 다음 버전의 스냅샷이 함께 쓸 때 호출하고, 각 참조는 close 로 놓습니다.
+     */
+    void retain() {
+        references.incrementAndGet();
+    }
+
+    /**
+     * 참조를 하나 놓습니다. 마지막 참조가 놓이면 파일을 닫습니다.
+     *
+     * @throws IOException 파일 닫기 중 오류가 난 경우
+     */
+    @Override
+    public void close() throws IOException {
+        if (references.decrementAndGet() == 0) {
+            channel.close();
+        }
+    }
+}
@@ -1,44 +1,421 @@
 package myutil;
 
 import java.io.*;
-import java.util.*;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class Maps {
-    private HashMap<Integer, Double[]> weightMap = new HashMap<>();
-    private HashMap<Integer, StatusNode> statusMap = new HashMap<>();
-    private HashMap<Integer, Double[]> valueMap = new HashMap<>();
+public class Maps implements AutoCloseable {
+    public static final int VARIABLE_COUNT = 3000; // 전체 변수(자산) 개수
+    public static final String LOADER_PROPERTY = "maps.loader"; // -Dmaps.loader=legacy 로 기존 로더 사용
+    public static final String CACHE_ROWS_PROPERTY = "maps.weightCacheRows"; // LAZY 로더의 가중치 행 캐시 크기
+
+    /**
+     * CSV 로더 종류.
+     * LEGACY: BufferedReader + String.split 으로 한 줄씩 읽는 기존 로더
+     * FAST: 파일을 조각으로 나눠 바이트 단위로 병렬 파싱하는 로더 (FastCsvLoader)
+     * LAZY: status/value 는 FAST 로 읽고, 가중치 행은 처음 접근할 때 읽는 로더 (LazyWeightStore)
+     */
+    public enum Loader {
+        LEGACY, FAST, LAZY;
+
+        /**
+         * 시스템 속성 maps.loader 값(legacy, fast, lazy)으로 로더를 고릅니다. 지정하지 않으면 FAST 입니다.
+         */
+        public static Loader fromSystemProperty() {
+            String value = System.getProperty(LOADER_PROPERTY, "fast");
+            for (Loader loader : values()) {
+                if (loader.name().equalsIgnoreCase(value)) {
+                    return loader;
+                }
+            }
+            return FAST;
+        }
+    }
+
+    /**
+     * refresh 로 행이 추가되거나 파일을 처음부터 다시 읽었을 때 알림을 받는 리스너.
+     * 저장소에서 파생된 집계/정렬 구조를 전체 재계산 없이 갱신하는 데 사용합니다.
+     * 새 버전이 게시된 뒤 refresh 를 호출한 스레드에서 호출되므로, getDataset() 은 새 버전을 반환합니다.
+     */
+    public interface ChangeListener {
+        /**
+         * 결과 파일에 이어 쓰인 행들이 저장소 뒤에 추가된 경우 호출됩니다.
+         * 새로 게시된 버전의 각 저장소에서 [fromRow, size()) 행이 새로 추가된 행입니다.
+         *
+         * @param weightFromRow WeightStore 에 새로 추가된 첫 행 번호
+         * @param statusFromRow StatusStore 에 새로 추가된 첫 행 번호
+         * @param valueFromRow ValueStore 에 새로 추가된 첫 행 번호
+         */
+        void rowsAppended(int weightFromRow, int statusFromRow, int valueFromRow);
+
+        /**
+         * 결과 파일이 잘렸거나 처음부터 다시 쓰여 저장소를 새로 만든 경우 호출됩니다.
+         */
+        void reloaded();
+    }
+
+    private final String weightFilePath;
+    private final String statusFilePath;
+    private final String valueFilePath;
+    private final Loader loader; // 스냅샷에서 만든 경우 null (refresh 하지 않음)
+
+    private final AtomicReference<Dataset> published = new AtomicReference<>(); // 지금 조회에 쓰는 버전 (닫히면 null)
+    private long version; // 마지막으로 만든 버전 번호 (load/refresh 에서만 바뀜)
+
+    private CsvTail weightTail; // FAST/LAZY 로더가 파일별로 읽은 위치
+    private CsvTail statusTail;
+    private CsvTail valueTail;
+    private long[] legacyFileStamps; // LEGACY 로더가 읽은 시점의 파일 크기/수정 시각
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
 
     // 생성자: 파일 경로를 받아 자동으로 Map 구성
     public Maps(String weightFilePath, String statusFilePath, String valueFilePath) {
-        loadWeightCsv(weightFilePath);  // weightMap 구성
-        loadStatusCsv(statusFilePath); // statusMap 구성
-        loadValueCsv(valueFilePath);   // valueMap 구성
+        this(weightFilePath, statusFilePath, valueFilePath, Loader.fromSystemProperty());
+    }
+
+    public Maps(String weightFilePath, String statusFilePath, String valueFilePath, Loader loader) {
+        this.weightFilePath = weightFilePath;
+        this.statusFilePath = statusFilePath;
+        this.valueFilePath = valueFilePath;
+        this.loader = loader;
+        published.set(load());
+    }
+
+    // 생성자: BinarySnapshot 파일을 map 하여 파싱 없이 구성
+    public Maps(String snapshotFilePath) {
+        this.weightFilePath = null;
+        this.statusFilePath = null;
+        this.valueFilePath = null;
+        this.loader = null;
+        Dataset dataset;
+        try {
+            BinarySnapshot snapshot = BinarySnapshot.open(snapshotFilePath);
+            dataset = new Dataset(++version, snapshot.getWeightStore(), snapshot.getStatusStore(), snapshot.getValueStore(),
+                    snapshot.getVariableIndex());
+        } catch (IOException e) {
+            System.err.println("스냅샷 파일 읽기 중 오류 발생: " + e.getMessage());
+            dataset = new Dataset(++version, new CsrWeightStore(VARIABLE_COUNT), new StatusStore(), new ValueStore(), null);
+        }
+        published.set(dataset);
+    }
+
+    // 세 CSV 파일을 처음부터 읽어 새 버전 구성 (게시는 호출한 쪽에서)
+    private Dataset load() {
+        WeightStore weightStore;
+        StatusStore statusStore;
+        ValueStore valueStore;
+        if (loader == Loader.LEGACY) {
+            legacyFileStamps = fileStamps();
+            long start = System.nanoTime();
+            weightStore = loadWeightCsv(weightFilePath);
+            Metrics.recordPhase("load.weight", System.nanoTime() - start, weightStore.size(), new File(weightFilePath).length());
+            start = System.nanoTime();
+            statusStore = loadStatusCsv(statusFilePath);
+            Metrics.recordPhase("load.status", System.nanoTime() - start, statusStore.size(), new File(statusFilePath).length());
+            start = System.nanoTime();
+            valueStore = loadValueCsv(valueFilePath);
+            Metrics.recordPhase("load.value", System.nanoTime() - start, valueStore.size(), new File(valueFilePath).length());
+        } else {
+            weightStore = loader == Loader.LAZY ? loadWeightsLazy() : loadWeightsFast();
+            statusStore = loadStatusFast();
+            valueStore = loadValuesFast();
+        }
+        Dataset dataset = new Dataset(++version, weightStore, statusStore, valueStore, null);
+        if (loader != Loader.LAZY) {
+            dataset.getVariableIndex(); // 변수 -> 문제 역색인 구성 (LAZY 는 처음 사용할 때)
+        }
+        return dataset;
+    }
+
+    // Weight CSV 파일을 FastCsvLoader 로 읽기 (완성된 줄까지, 줄바꿈 없이 끝난 마지막 줄은 열이 모두 있으면 포함)
+    private WeightStore loadWeightsFast() {
+        weightTail = new CsvTail(weightFilePath);
+        try {
+            long start = System.nanoTime();
+            long end = weightTail.completeLinesEnd();
+            CsrWeightStore store = FastCsvLoader.loadWeights(weightFilePath, VARIABLE_COUNT, 0,
+                    FastCsvLoader.lastLineEnd(weightFilePath, end, VARIABLE_COUNT + 1));
+            weightTail.advance(end);
+            Metrics.recordPhase("load.weight", System.nanoTime() - start, store.size(), end);
+            return store;
+        } catch (IOException e) {
+            System.err.println("Weight CSV 파일 읽기 중 오류 발생: " + e.getMessage());
+            return new CsrWeightStore(VARIABLE_COUNT);
+        }
+    }
+
+    // 가중치는 줄 위치만 기억해 두기
+    private WeightStore loadWeightsLazy() {
+        weightTail = new CsvTail(weightFilePath);
+        try {
+            long start = System.nanoTime();
+            LazyWeightStore store = new LazyWeightStore(weightFilePath, VARIABLE_COUNT,
+                    Integer.getInteger(CACHE_ROWS_PROPERTY, LazyWeightStore.DEFAULT_CACHE_ROWS));
+            weightTail.advance(store.getIndexedEnd());
+            Metrics.recordPhase("load.weight", System.nanoTime() - start, store.size(), store.getIndexedEnd());
+            return store;
+        } catch (IOException e) {
+            System.err.println("Weight CSV 파일 읽기 중 오류 발생: " + e.getMessage());
+            return new CsrWeightStore(VARIABLE_COUNT);
+        }
+    }
+
+    private StatusStore loadStatusFast() {
+        statusTail = new CsvTail(statusFilePath);
+        try {
+            long start = System.nanoTime();
+            long end = statusTail.completeLinesEnd();
+            StatusStore store = FastCsvLoader.loadStatus(statusFilePath, 0, FastCsvLoader.lastLineEnd(statusFilePath, end, 4));
+            statusTail.advance(end);
+            Metrics.recordPhase("load.status", System.nanoTime() - start, store.size(), end);
+            return store;
+        } catch (IOException e) {
+            System.err.println("Status CSV 파일 읽기 중 오류 발생: " + e.getMessage());
+            return new StatusStore();
+        }
+    }
+
+    private ValueStore loadValuesFast() {
+        valueTail = new CsvTail(valueFilePath);
+        try {
+            long start = System.nanoTime();
+            long end = valueTail.completeLinesEnd();
+            ValueStore store = FastCsvLoader.loadValues(valueFilePath, 0, FastCsvLoader.lastLineEnd(valueFilePath, end, 3));
+            valueTail.advance(end);
+            Metrics.recordPhase("load.value", System.nanoTime() - start, store.size(), end);
+            return store;
+        } catch (IOException e) {
+            System.err.println("Value CSV 파일 읽기 중 오류 발생: " + e.getMessage());
+            return new ValueStore();
+        }
+    }
+
+    /**
+     * 실행 중인 solver 가 결과 CSV 파일에 새로 이어 쓴 줄들만 읽어 새 버전의 Dataset 을 게시하고 등록된 리스너에 알립니다.
+     * 지금 게시된 버전은 바꾸지 않고, 저장소와 이미 구성된 색인들을 복사(배열은 공유)한 뒤 새 행만 추가하여 다음 버전을 만듭니다.
+     * 새 버전은 모두 만든 뒤 한 번에 바꿔 끼우므로, 동시에 조회하는 스레드는 잠금 없이 이전 버전이나 새 버전 중 하나를 온전히 봅니다.
+     * 아직 줄바꿈이 쓰이지 않은 마지막 줄은 다음 호출 때 읽습니다. 읽는 중 오류가 나면 아무것도 반영하지 않습니다.
+     * (처음 읽을 때 열이 모두 있어 함께 읽은 마지막 줄이 나중에 완성되면, 같은 문제 번호가 다시 나오므로 전체를 다시 읽음)
+     * 파일이 잘렸거나 처음부터 다시 쓰인 경우에는 전체를 다시 읽습니다. (LEGACY 로더는 파일이 바뀌면 항상 전체를 다시 읽음)
+     *
+     * @return 새로 추가된 문제(Status 행) 개수, 전체를 다시 읽은 경우 전체 문제 개수
+     */
+    public synchronized int refresh() {
+        Dataset current = published.get();
+        if (loader == null || current == null) {
+            return 0; // 스냅샷은 원본 CSV 위치를 모름, 또는 이미 닫힘
+        }
+        long start = System.nanoTime();
+        WeightStore weightStore = current.getWeightStore();
+        StatusStore statusStore = current.getStatusStore();
+        ValueStore valueStore = current.getValueStore();
+        LazyWeightStore openedLazy = null; // 실패하면 닫을, 새로 연 지연 로딩 저장소
+        long weightEnd;
+        long statusEnd;
+        long valueEnd;
+        byte[][] fingerprints; // 세 파일의 새 읽은 위치 직전 바이트 (모두 읽은 뒤 한 번에 기록)
+        try {
+            boolean rewritten = loader == Loader.LEGACY
+                    ? !Arrays.equals(legacyFileStamps, fileStamps())
+                    : weightTail.isRewritten() || statusTail.isRewritten() || valueTail.isRewritten();
+            if (rewritten) {
+                return reload();
+            }
+            if (loader == Loader.LEGACY) {
+                return 0;
+            }
+
+            weightEnd = weightTail.completeLinesEnd();
+            if (weightEnd > weightTail.getOffset()) {
+                if (weightStore instanceof LazyWeightStore lazy) {
+                    openedLazy = lazy.copyForAppend();
+                    openedLazy.appendLines(weightEnd);
+                    weightStore = openedLazy;
+                } else {
+                    CsrWeightStore weights = ((CsrWeightStore) weightStore).copyForAppend();
+                    weights.addAll(FastCsvLoader.loadWeights(weightFilePath, VARIABLE_COUNT, weightTail.getOffset(), weightEnd));
+                    weightStore = weights;
+                }
+            }
+            statusEnd = statusTail.completeLinesEnd();
+            if (statusEnd > statusTail.getOffset()) {
+                statusStore = statusStore.copyForAppend();
+                statusStore.addAll(FastCsvLoader.loadStatus(statusFilePath, statusTail.getOffset(), statusEnd));
+            }
+            valueEnd = valueTail.completeLinesEnd();
+            if (valueEnd > valueTail.getOffset()) {
+                valueStore = valueStore.copyForAppend();
+                valueStore.addAll(FastCsvLoader.loadValues(valueFilePath, valueTail.getOffset(), valueEnd));
+            }
+            if (weightStore == current.getWeightStore() && statusStore == current.getStatusStore()
+                    && valueStore == current.getValueStore()) {
+                return 0;
+            }
+            fingerprints = new byte[][]{weightTail.fingerprintAt(weightEnd), statusTail.fingerprintAt(statusEnd),
+                    valueTail.fingerprintAt(valueEnd)};
+        } catch (IOException e) {
+            System.err.println("결과 CSV 파일 다시 읽기 중 오류 발생: " + e.getMessage());
+            closeQuietly(openedLazy);
+            return 0;
+        } catch (IllegalArgumentException e) {
+            closeQuietly(openedLazy);
+            return reload(); // 이미 있는 문제 번호가 다시 나옴 -> 파일이 처음부터 다시 쓰인 것
+        }
+
+        int weightFrom = current.getWeightStore().size();
+        int statusFrom = current.getStatusStore().size();
+        int valueFrom = current.getValueStore().size();
+        long bytes = weightEnd - weightTail.getOffset() + statusEnd - statusTail.getOffset() + valueEnd - valueTail.getOffset();
+        Dataset next = current.append(++version, weightStore, statusStore, valueStore);
+        weightTail.advance(weightEnd, fingerprints[0]);
+        statusTail.advance(statusEnd, fingerprints[1]);
+        valueTail.advance(valueEnd, fingerprints[2]);
+        publish(next);
+
+        for (ChangeListener listener : listeners) {
+            listener.rowsAppended(weightFrom, statusFrom, valueFrom);
+        }
+        Metrics.recordPhase("refresh", System.nanoTime() - start, statusStore.size() - statusFrom, bytes);
+        return statusStore.size() - statusFrom;
+    }
+
+    // 전체를 다시 읽어 게시하고 리스너에 알림
+    private int reload() {
+        Dataset next = load();
+        publish(next);
+        for (ChangeListener listener : listeners) {
+            listener.reloaded();
+        }
+        return next.getStatusStore().size();
+    }
+
+    // 새 버전으로 바꿔 끼우고, 이전 버전은 게시 참조를 놓음 (조회 중인 스레드가 모두 놓으면 닫힘)
+    private void publish(Dataset next) {
+        Dataset previous = published.getAndSet(next);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    // 세 파일의 크기와 수정 시각
+    private long[] fileStamps() {
+        long[] stamps = new long[6];
+        String[] paths = {weightFilePath, statusFilePath, valueFilePath};
+        for (int i = 0; i < paths.length; i++) {
+            File file = new File(paths[i]);
+            stamps[2 * i] = file.length();
+            stamps[2 * i + 1] = file.lastModified();
+        }
+        return stamps;
+    }
+
+    // 게시하지 못한 지연 로딩 저장소가 열어 둔 파일 닫기
+    private static void closeQuietly(LazyWeightStore store) {
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.err.println("Weight CSV 파일 닫기 중 오류 발생: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 지금 게시된 Dataset 을 참조 개수를 늘려 반환합니다. 사용한 뒤에는 반드시 close 해야 합니다.
+     * 여러 값을 함께 읽는 조회는 이 스냅샷 하나로 읽어야, 도중에 refresh 가 일어나도 같은 버전의 값만 봅니다.
+     * 예) try (Dataset data = maps.acquire()) { ... }
+     *
+     * @return 지금 버전의 Dataset
+     * @throws IllegalStateException 이미 닫힌 경우
+     */
+    public Dataset acquire() {
+        while (true) {
+            Dataset dataset = getDataset();
+            if (dataset.retain()) {
+                return dataset;
+            }
+            // 읽은 직후 다음 버전이 게시되어 닫힌 버전 -> 새 버전을 다시 읽음
+        }
+    }
+
+    /**
+     * 지금 게시된 Dataset 을 참조 개수를 늘리지 않고 반환합니다.
+     * 값 하나만 읽는 경우에 사용합니다. (LAZY 로더에서는 다음 refresh 뒤 가중치 파일이 닫힐 수 있으므로 acquire 를 사용)
+     *
+     * @return 지금 버전의 Dataset
+     * @throws IllegalStateException 이미 닫힌 경우
+     */
+    public Dataset getDataset() {
+        Dataset dataset = published.get();
+        if (dataset == null) {
+            throw new IllegalStateException("이미 닫힌 Maps 입니다.");
+        }
+        return dataset;
+    }
+
+    /**
+     * @return 지금 게시된 데이터 버전 (load/refresh 로 새 버전이 게시될 때마다 증가)
+     */
+    public long getVersion() {
+        return getDataset().getVersion();
+    }
+
+    /**
+     * 게시된 Dataset 의 참조를 놓습니다. acquire 로 얻은 스냅샷을 모두 close 하면 LAZY 로더가 연 파일도 닫힙니다.
+     */
+    @Override
+    public synchronized void close() {
+        Dataset previous = published.getAndSet(null);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * refresh 로 저장소가 바뀔 때 알림을 받을 리스너를 등록합니다.
+     *
+     * @param listener 등록할 리스너
+     */
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
     }
 
     // Weight CSV 파일 읽기
-    public void loadWeightCsv(String filePath) {
+    public static CsrWeightStore loadWeightCsv(String filePath) {
+        CsrWeightStore store = new CsrWeightStore(VARIABLE_COUNT);
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             br.readLine(); // 헤더 스킵
+            double[] weights = new double[VARIABLE_COUNT]; // 행마다 재사용 (weightStore 로 복사됨)
 
             while ((line = br.readLine()) != null) {
                 String[] values = line.split(",");
                 int problemNumber = Integer.parseInt(values[0].trim()); // 첫 번째 열이 problem 번호
-                Double[] weights = new Double[3000];
 
-                for (int i = 1; i <= 3000; i++) { // 두 번째 열부터 weight 값 (null 은 -1 로 표현)
+                for (int i = 1; i <= VARIABLE_COUNT; i++) { // 두 번째 열부터 weight 값 (null 은 -1 로 표현)
                     weights[i - 1] = Double.parseDouble(values[i].trim());
                 }
 
-                weightMap.put(problemNumber, weights);
+                store.add(problemNumber, weights);
             }
+            store.trimToSize();
         } catch (IOException e) {
             System.err.println("Weight CSV 파일 읽기 중 오류 발생: " + e.getMessage());
         }
+        return store;
     }
 
     // Status CSV 파일 읽기
-    public void loadStatusCsv(String filePath) {
+    public static StatusStore loadStatusCsv(String filePath) {
+        StatusStore statusStore = new StatusStore();
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             br.readLine(); // 헤더 스킵
@@ -50,17 +427,18 @@ public class Maps {
                 // boolean optimality = Boolean.parseBoolean(values[1].trim()); // optimal 여부
                 double timeTaken = Double.parseDouble(values[2].trim()); // 문제 푸는데 소요된 시간
                 int variableCount = (int) Double.parseDouble(values[3].trim()); // 문제의 변수 개수
-                
-                StatusNode node = new StatusNode(optimality, timeTaken, variableCount);
-                statusMap.put(problemNumber, node);
+
+                statusStore.add(problemNumber, optimality, timeTaken, variableCount);
             }
         } catch (IOException e) {
             System.err.println("Status CSV 파일 읽기 중 오류 발생: " + e.getMessage());
         }
+        return statusStore;
     }
 
     // Value CSV 파일 읽기
-    public void loadValueCsv(String filePath) {
+    public static ValueStore loadValueCsv(String filePath) {
+        ValueStore valueStore = new ValueStore();
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             br.readLine(); // 헤더 스킵
@@ -68,63 +446,76 @@ public class Maps {
             while ((line = br.readLine()) != null) {
                 String[] values = line.split(",");
                 int problemNumber = Integer.parseInt(values[0].trim()); // 첫 번째 열이 problem 번호
-                Double[] valueArray = new Double[2];
-
-                for (int i = 1; i <= 2; i++) { // 두 번째 열부터 risk, return 값
-                    valueArray[i - 1] = Double.parseDouble(values[i].trim());
-                }
+                double risk = Double.parseDouble(values[1].trim());    // 두 번째 열이 risk
+                double ret = Double.parseDouble(values[2].trim());     // 세 번째 열이 return
 
-                valueMap.put(problemNumber, valueArray);
+                valueStore.add(problemNumber, risk, ret);
             }
         } catch (IOException e) {
             System.err.println("Value CSV 파일 읽기 중 오류 발생: " + e.getMessage());
         }
+        return valueStore;
     }
 
-    // Getter 메서드
-    public HashMap<Integer, Double[]> getWeightMap() {
-        return weightMap;
+    // Getter 메서드 (지금 게시된 버전에서 읽음, 여러 값을 함께 읽을 때는 acquire 사용)
+    public WeightStore getWeightStore() {
+        return getDataset().getWeightStore();
     }
 
-    public HashMap<Integer, StatusNode> getStatusMap() {
-        return statusMap;
+    public VariableIndex getVariableIndex() {
+        return getDataset().getVariableIndex();
     }
 
-    public HashMap<Integer, Double[]> getValueMap() {
-        return valueMap;
+    /**
+     * @return 수익률(return) 기준으로 정렬된 문제 번호 색인
+     */
+    public SortedIndex getReturnIndex() {
+        return getDataset().getReturnIndex();
     }
 
-    // 내부 클래스: StatusNode
-    public class StatusNode {
-        private boolean optimality;
-        private double timeTaken;
-        private int variableCount;
+    /**
+     * @return 위험(risk) 기준으로 정렬된 문제 번호 색인
+     */
+    public SortedIndex getRiskIndex() {
+        return getDataset().getRiskIndex();
+    }
 
-        public StatusNode(boolean optimality, double timeTaken, int variableCount) {
-            this.optimality = optimality;
-            this.timeTaken = timeTaken;
-            this.variableCount = variableCount;
-        }
+    /**
+     * @return 문제 풀이 소요 시간 기준으로 정렬된 문제 번호 색인
+     */
+    public SortedIndex getTimeIndex() {
+        return getDataset().getTimeIndex();
+    }
 
-        public boolean isOptimality() {
-            return optimality;
-        }
+    /**
+     * @return 문제별로 0 보다 큰 가중치를 큰 순서로 정렬한 보유 자산 색인 (행 번호는 WeightStore 와 같음)
+     */
+    public TopHoldings getTopHoldings() {
+        return getDataset().getTopHoldings();
+    }
 
-        public double getTimeTaken() {
-            return timeTaken;
-        }
+    /**
+     * @return (위험 크기 = -risk, 수익률) 기준의 효율적 투자선
+     */
+    public EfficientFrontier getEfficientFrontier() {
+        return getDataset().getEfficientFrontier();
+    }
 
-        public int getVariableCount() {
-            return variableCount;
-        }
+    /**
+     * 지금 게시된 버전의 저장소와 구성된 색인들의 힙 메모리 사용량을 추정합니다. (구성되지 않은 색인은 만들지 않음)
+     *
+     * @return 구조 이름 -> 바이트, 이미 닫혔으면 빈 맵
+     */
+    public Map<String, Long> getHeapFootprint() {
+        Dataset dataset = published.get();
+        return dataset == null ? new LinkedHashMap<>() : dataset.getHeapFootprint();
+    }
 
-        @Override
-        public String toString() {
-            return "StatusNode{" +
-                    "optimality=" + optimality +
-                    ", timeTaken=" + timeTaken +
-                    ", variableCount=" + variableCount +
-                    '}';
-        }
+    public StatusStore getStatusStore() {
+        return getDataset().getStatusStore();
+    }
+
+    public ValueStore getValueStore() {
+        return getDataset().getValueStore();
     }
-}
\ No newline at end of file
+}
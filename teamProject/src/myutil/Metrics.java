@@ -0,0 +1,304 @@
+package myutil;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 로딩 단계별 시간/행/바이트, 조회별 시간 분포(LatencyHistogram)와 메모리 할당량, 구조별 힙 사용량을 모으는 통계.
+ * 기록은 잠금 없는 누적(LongAdder, 원자적 증가)뿐이므로 항상 켜 두어도 됩니다. (-Dmetrics.enabled=false 이면 끔)
+ * 처음 사용할 때 플랫폼 MBean 서버에 teamproject:type=Metrics 로 등록되므로 jconsole 등으로도 볼 수 있습니다.
+ * 조회의 할당량은 호출 16 번 중 한 번만 재서(표본) 호출당 평균으로 보고합니다. 조회를 호출한 스레드 기준이므로,
+ * 병렬 조회에서 작업 스레드가 할당한 양은 포함하지 않습니다.
+ */
+public final class Metrics implements MetricsMXBean {
+    public static final String OBJECT_NAME = "teamproject:type=Metrics";
+
+    private static final int ALLOCATION_SAMPLE_RATE = 16; // 할당량을 재는 호출 비율 (1/16)
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+    private static final Metrics INSTANCE = new Metrics();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // 다른 클래스 로더에서 이미 등록함
+        } catch (JMException e) {
+            System.err.println("JMX 등록 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    // 단계 하나의 누적 기록
+    private static class PhaseStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        volatile long lastNanos;
+    }
+
+    // 조회 하나의 누적 기록
+    private static class QueryStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder sampledBytes = new LongAdder(); // 할당량을 잰 호출들의 할당 바이트 합
+        final LongAdder samples = new LongAdder();
+
+        long bytesPerCall() {
+            long n = samples.sum();
+            return n == 0 ? 0 : sampledBytes.sum() / n;
+        }
+    }
+
+    private volatile boolean enabled = Boolean.parseBoolean(System.getProperty("metrics.enabled", "true"));
+    private final Map<String, PhaseStats> phases = new ConcurrentHashMap<>();
+    private final Map<String, QueryStats> queries = new ConcurrentHashMap<>();
+    private volatile WeakReference<Maps> maps = new WeakReference<>(null); // 힙 사용량을 볼 저장소
+
+    private Metrics() {
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+    /**
+     * @return 통계 (JMX 에 등록된 객체와 같음)
+     */
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * 로딩/색인 구성 단계 하나의 실행을 기록합니다.
+     *
+     * @param phase 단계 이름 (예: load.weight)
+     * @param nanos 걸린 시간 (나노초)
+     * @param rows 처리한 행 개수
+     * @param bytes 읽은 바이트 (모르면 0)
+     */
+    public static void recordPhase(String phase, long nanos, long rows, long bytes) {
+        if (!INSTANCE.enabled) {
+            return;
+        }
+        PhaseStats stats = INSTANCE.phases.computeIfAbsent(phase, name -> new PhaseStats());
+        stats.count.increment();
+        stats.nanos.add(nanos);
+        stats.rows.add(rows);
+        stats.bytes.add(bytes);
+        stats.lastNanos = nanos;
+    }
+
+    /**
+     * 조회를 시작할 때 호출합니다. 이번 호출이 할당량 표본이면 현재 스레드가 지금까지 할당한 바이트를 반환합니다.
+     *
+     * @return 할당량 기준값, 표본이 아니거나 통계가 꺼져 있으면 -1
+     */
+    public static long allocationMark() {
+        if (!INSTANCE.enabled || THREADS == null || ThreadLocalRandom.current().nextInt(ALLOCATION_SAMPLE_RATE) != 0) {
+            return -1;
+        }
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * 조회 한 번을 기록합니다.
+     *
+     * @param query 조회 이름
+     * @param nanos 걸린 시간 (나노초)
+     * @param allocationMark 조회를 시작할 때의 allocationMark() 값
+     */
+    public static void recordQuery(String query, long nanos, long allocationMark) {
+        if (!INSTANCE.enabled) {
+            return;
+        }
+        QueryStats stats = INSTANCE.queries.get(query);
+        if (stats == null) {
+            stats = INSTANCE.queries.computeIfAbsent(query, name -> new QueryStats());
+        }
+        stats.latency.record(nanos);
+        if (allocationMark >= 0) {
+            stats.sampledBytes.add(Math.max(0, THREADS.getCurrentThreadAllocatedBytes() - allocationMark));
+            stats.samples.increment();
+        }
+    }
+
+    /**
+     * 힙 사용량을 보고할 저장소를 정합니다. (약한 참조로 들고 있으므로 저장소의 수명에는 영향 없음)
+     *
+     * @param maps 저장소
+     */
+    public static void watch(Maps maps) {
+        INSTANCE.maps = new WeakReference<>(maps);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Map<String, Double> getPhaseLastMillis() {
+        return phaseValues(stats -> stats.lastNanos / 1e6);
+    }
+
+    @Override
+    public Map<String, Double> getPhaseTotalMillis() {
+        return phaseValues(stats -> stats.nanos.sum() / 1e6);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseRows() {
+        return phaseCounts(stats -> stats.rows.sum());
+    }
+
+    @Override
+    public Map<String, Long> getPhaseBytes() {
+        return phaseCounts(stats -> stats.bytes.sum());
+    }
+
+    @Override
+    public Map<String, Long> getQueryCounts() {
+        return queryCounts(stats -> stats.latency.getCount());
+    }
+
+    @Override
+    public Map<String, Double> getQueryMeanMicros() {
+        return queryValues(stats -> stats.latency.getMean() / 1e3);
+    }
+
+    @Override
+    public Map<String, Double> getQueryP50Micros() {
+        return queryValues(stats -> stats.latency.getPercentile(0.5) / 1e3);
+    }
+
+    @Override
+    public Map<String, Double> getQueryP99Micros() {
+        return queryValues(stats -> stats.latency.getPercentile(0.99) / 1e3);
+    }
+
+    @Override
+    public Map<String, Double> getQueryMaxMicros() {
+        return queryValues(stats -> stats.latency.getMax() / 1e3);
+    }
+
+    @Override
+    public Map<String, Long> getQueryAllocatedBytesPerCall() {
+        return queryCounts(QueryStats::bytesPerCall);
+    }
+
+    @Override
+    public Map<String, Long> getHeapFootprint() {
+        Maps watched = maps.get();
+        return watched == null ? new TreeMap<>() : watched.getHeapFootprint();
+    }
+
+    @Override
+    public long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    @Override
+    public long getGcTimeMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("[로딩/색인 단계]\n");
+        for (Map.Entry<String, PhaseStats> entry : new TreeMap<>(phases).entrySet()) {
+            PhaseStats stats = entry.getValue();
+            double totalSeconds = stats.nanos.sum() / 1e9;
+            long bytes = stats.bytes.sum();
+            report.append(String.format("  %-20s 횟수 %d, 마지막 %.1f ms, 누적 %.1f ms, 행 %d", entry.getKey(),
+                    stats.count.sum(), stats.lastNanos / 1e6, totalSeconds * 1e3, stats.rows.sum()));
+            if (bytes > 0) {
+                report.append(String.format(", %.1f MB (%.1f MB/s)", bytes / 1e6, totalSeconds == 0 ? 0 : bytes / 1e6 / totalSeconds));
+            }
+            report.append('\n');
+        }
+
+        report.append("[조회]\n");
+        for (Map.Entry<String, QueryStats> entry : new TreeMap<>(queries).entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            long count = latency.getCount();
+            report.append(String.format("  %-36s 횟수 %d, 평균 %.1f us, p50 %.1f us, p99 %.1f us, 최대 %.1f us, 할당 %d B/회%n",
+                    entry.getKey(), count, latency.getMean() / 1e3, latency.getPercentile(0.5) / 1e3,
+                    latency.getPercentile(0.99) / 1e3, latency.getMax() / 1e3,
+                    entry.getValue().bytesPerCall()));
+        }
+
+        report.append("[힙 사용량 추정]\n");
+        long total = 0;
+        for (Map.Entry<String, Long> entry : getHeapFootprint().entrySet()) {
+            report.append(String.format("  %-20s %.1f MB%n", entry.getKey(), entry.getValue() / 1e6));
+            total += entry.getValue();
+        }
+        report.append(String.format("  %-20s %.1f MB%n", "합계", total / 1e6));
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        report.append(String.format("[JVM] GC %d회 (%d ms), 힙 사용 %.1f MB / 최대 %.1f MB%n", getGcCount(), getGcTimeMillis(),
+                heap.getUsed() / 1e6, heap.getMax() / 1e6));
+        return report.toString();
+    }
+
+    @Override
+    public void reset() {
+        phases.clear();
+        queries.clear();
+    }
+
+    private Map<String, Double> phaseValues(ToDoubleFunction<PhaseStats> value) {
+        Map<String, Double> values = new TreeMap<>();
+        phases.forEach((name, stats) -> values.put(name, value.applyAsDouble(stats)));
+        return values;
+    }
+
+    private Map<String, Long> phaseCounts(ToLongFunction<PhaseStats> value) {
+        Map<String, Long> values = new TreeMap<>();
+        phases.forEach((name, stats) -> values.put(name, value.applyAsLong(stats)));
+        return values;
+    }
+
+    private Map<String, Double> queryValues(ToDoubleFunction<QueryStats> value) {
+        Map<String, Double> values = new TreeMap<>();
+        queries.forEach((name, stats) -> values.put(name, value.applyAsDouble(stats)));
+        return values;
+    }
+
+    private Map<String, Long> queryCounts(ToLongFunction<QueryStats> value) {
+        Map<String, Long> values = new TreeMap<>();
+        queries.forEach((name, stats) -> values.put(name, value.applyAsLong(stats)));
+        return values;
+    }
+}
@@ -0,0 +1,71 @@
+package myutil;
+
+import java.util.Map;
+
+/**
+ * JMX 로 보는 로딩/조회 통계. (jconsole 등에서 teamproject:type=Metrics)
+ * 시간은 밀리초/마이크로초, 메모리는 바이트 단위입니다.
+ */
+public interface MetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return 단계 이름 -> 마지막 실행 시간 (ms) (예: load.weight, index.return, refresh)
+     */
+    Map<String, Double> getPhaseLastMillis();
+
+    /**
+     * @return 단계 이름 -> 누적 실행 시간 (ms)
+     */
+    Map<String, Double> getPhaseTotalMillis();
+
+    /**
+     * @return 단계 이름 -> 누적 처리 행 개수
+     */
+    Map<String, Long> getPhaseRows();
+
+    /**
+     * @return 단계 이름 -> 누적 처리 바이트
+     */
+    Map<String, Long> getPhaseBytes();
+
+    /**
+     * @return 조회 이름 -> 호출 횟수
+     */
+    Map<String, Long> getQueryCounts();
+
+    Map<String, Double> getQueryMeanMicros();
+
+    Map<String, Double> getQueryP50Micros();
+
+    Map<String, Double> getQueryP99Micros();
+
+    Map<String, Double> getQueryMaxMicros();
+
+    /**
+     * @return 조회 이름 -> 호출 한 번에 호출 스레드가 할당한 평균 바이트 (표본 추정)
+     */
+    Map<String, Long> getQueryAllocatedBytesPerCall();
+
+    /**
+     * @return 구조 이름 -> 힙 메모리 사용량 추정 (바이트)
+     */
+    Map<String, Long> getHeapFootprint();
+
+    long getGcCount();
+
+    long getGcTimeMillis();
+
+    /**
+     * @return 모든 통계를 사람이 읽기 좋게 만든 문자열
+     */
+    String getReport();
+
+    /**
+     * 단계/조회 통계를 모두 지웁니다.
+     */
+    void reset();
+}
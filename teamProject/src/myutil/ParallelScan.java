@@ -0,0 +1,121 @@
+package myutil;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * 행 [0, n) 을 고정 크기 블록으로 나눠 훑고 결과를 합치는 병렬 실행 도구.
+ * 블록 경계와 합치는 순서(블록 범위를 항상 가운데에서 둘로 나누는 트리)는 n 과 블록 크기로만 정해지므로,
+ * 병렬 여부나 스레드 개수와 관계없이 부동소수점 합을 포함한 결과가 항상 같습니다.
+ * 블록 안의 합은 Neumaier(개선된 Kahan) 보정 합, 블록끼리는 트리를 따라 쌍으로(pairwise) 더합니다.
+ */
+public final class ParallelScan {
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private ParallelScan() {
+    }
+
+    /**
+     * 블록 [from, to) 하나의 결과를 계산하는 함수.
+     */
+    @FunctionalInterface
+    public interface BlockFunction<T> {
+        T apply(int from, int to);
+    }
+
+    /**
+     * [0, n) 을 blockSize 블록으로 나눠 블록별 결과를 구하고, 정해진 트리 순서로 합칩니다.
+     *
+     * @param n 행 개수
+     * @param blockSize 블록 크기
+     * @param block 블록 하나의 결과
+     * @param combine 이웃한 두 결과 합치기 (왼쪽, 오른쪽 순서, 왼쪽 객체를 고쳐 반환해도 됨)
+     * @param identity n == 0 일 때의 결과
+     * @param parallel true 이면 ForkJoin 공용 풀에서 병렬로 실행
+     * @return 합친 결과
+     */
+    public static <T> T reduce(int n, int blockSize, BlockFunction<T> block, BinaryOperator<T> combine,
+                               T identity, boolean parallel) {
+        if (n <= 0) {
+            return identity;
+        }
+        int blocks = (n + blockSize - 1) / blockSize;
+        BlockTask<T> task = new BlockTask<>(n, blockSize, block, combine, 0, blocks);
+        if (parallel && blocks > 1) {
+            return ForkJoinPool.commonPool().invoke(task);
+        }
+        return task.compute();
+    }
+
+    // 블록 범위 [firstBlock, endBlock) 을 가운데에서 나눠 처리하는 작업
+    @SuppressWarnings("serial") // ForkJoin 작업으로만 쓰고 직렬화하지 않음
+    private static class BlockTask<T> extends RecursiveTask<T> {
+        private final int n;
+        private final int blockSize;
+        private final BlockFunction<T> block;
+        private final BinaryOperator<T> combine;
+        private final int firstBlock;
+        private final int endBlock;
+
+        BlockTask(int n, int blockSize, BlockFunction<T> block, BinaryOperator<T> combine, int firstBlock, int endBlock) {
+            this.n = n;
+            this.blockSize = blockSize;
+            this.block = block;
+            this.combine = combine;
+            this.firstBlock = firstBlock;
+            this.endBlock = endBlock;
+        }
+
+        @Override
+        protected T compute() {
+            if (endBlock - firstBlock == 1) {
+                int from = firstBlock * blockSize;
+                return block.apply(from, Math.min(n, from + blockSize));
+            }
+            int middle = (firstBlock + endBlock) >>> 1;
+            BlockTask<T> left = new BlockTask<>(n, blockSize, block, combine, firstBlock, middle);
+            BlockTask<T> right = new BlockTask<>(n, blockSize, block, combine, middle, endBlock);
+            if (!inForkJoinPool()) { // 순차 실행
+                return combine.apply(left.compute(), right.compute());
+            }
+            left.fork();
+            T rightResult = right.compute();
+            return combine.apply(left.join(), rightResult);
+        }
+    }
+
+    /**
+     * value 가 NaN 이 아닌 행들의 value 합과 개수를 구합니다. (평균 계산용)
+     * 더하지 않을 행은 value 에서 NaN 을 반환하면 되므로, 행마다 값을 한 번만 구합니다.
+     *
+     * @param n 행 개수
+     * @param value 행 -> 값 (NaN 이면 건너뜀)
+     * @param parallel 병렬 실행 여부 (결과는 같음)
+     * @return {합, 개수}
+     */
+    public static double[] sumAndCount(int n, IntToDoubleFunction value, boolean parallel) {
+        return reduce(n, DEFAULT_BLOCK_SIZE, (from, to) -> {
+            double sum = 0.0;
+            double compensation = 0.0;
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                double x = value.applyAsDouble(i);
+                if (Double.isNaN(x)) {
+                    continue;
+                }
+                double t = sum + x;
+                // Neumaier: 크기가 큰 쪽을 기준으로 잃어버린 낮은 자리수를 모음
+                compensation += Math.abs(sum) >= Math.abs(x) ? (sum - t) + x : (x - t) + sum;
+                sum = t;
+                count++;
+            }
+            return new double[]{sum + compensation, count};
+        }, (left, right) -> {
+            left[0] += right[0];
+            left[1] += right[1];
+            return left;
+        }, new double[]{0.0, 0}, parallel);
+    }
+}
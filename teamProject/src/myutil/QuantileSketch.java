@@ -0,0 +1,421 @@
+package myutil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 값을 하나씩 넣으면서 분위수(quantile)를 근사하는 KLL 스케치.
+ * 전체 값을 저장하지 않고 높이(level)별 버퍼만 유지합니다. 버퍼가 차면 정렬해 하나 건너 하나만 다음 높이로 올리며,
+ * 높이 h 의 값은 원래 값 2^h 개를 대표합니다. 메모리는 대략 O(k log(n / k)) 이고 순위(rank) 오차는 약 1.7 / k 입니다.
+ * 최솟값/최댓값은 정확히 유지합니다. NaN 은 무시합니다.
+ * 스케치끼리는 merge 로 합칠 수 있고 write/read 로 저장할 수 있으므로, 여러 solver 조각(shard)의 스케치를 모아 합칠 수 있습니다.
+ * 압축할 때 고르는 위치(짝/홀)는 고정된 seed 의 난수로 정하므로 같은 입력이면 항상 같은 결과가 나옵니다.
+ */
+public class QuantileSketch {
+    public static final int DEFAULT_K = 200;
+
+    private static final int MAGIC = 0x4B4C4C31; // "KLL1"
+    private static final double CAPACITY_DECAY = 2.0 / 3.0; // 한 단계 낮은 높이의 버퍼 크기 비율
+    private static final int MIN_CAPACITY = 8; // 낮은 높이 버퍼가 너무 작으면 압축이 잦아짐
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final int MAX_K = 1 << 16; // read 가 받아들이는 최대 k
+    private static final int MAX_HEIGHT = 62; // 높이 h 의 값은 2^h 개를 대표하므로 long 안에 들어가야 함
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] levelSizes = new int[1];
+    private int[] capacities; // 높이별 버퍼 크기 (높이가 늘 때 다시 계산)
+    private int retained; // 모든 높이에 남아 있는 값 개수
+    private int maxRetained;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private long randomState = SEED;
+
+    // 조회용으로 정렬해 둔 (값, 누적 가중치) - 값이 추가되면 null
+    private double[] sortedValues;
+    private long[] cumulativeWeights;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k 가장 높은 버퍼의 크기 (클수록 정확하고 메모리를 더 씀, 8 이상)
+     */
+    public QuantileSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k 는 8 이상이어야 합니다: " + k);
+        }
+        this.k = k;
+        levels[0] = new double[0];
+        computeCapacities();
+    }
+
+    /**
+     * 값 하나를 넣습니다.
+     *
+     * @param value 넣을 값
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        append(0, value);
+        retained++;
+        sortedValues = null;
+        if (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * 다른 스케치의 값들을 합칩니다. (other 는 바뀌지 않음)
+     *
+     * @param other 합칠 스케치
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        count += other.count;
+        while (levels.length < other.levels.length) {
+            grow();
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.levelSizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+            retained += other.levelSizes[h];
+        }
+        sortedValues = null;
+        while (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * @return 같은 상태(난수 상태 포함)의 독립된 복사본, 이후 같은 값들을 넣으면 원본과 같은 결과가 됨
+     */
+    QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(k);
+        copy.levels = new double[levels.length][];
+        for (int h = 0; h < levels.length; h++) {
+            copy.levels[h] = levels[h].clone();
+        }
+        copy.levelSizes = levelSizes.clone();
+        copy.capacities = capacities.clone();
+        copy.retained = retained;
+        copy.maxRetained = maxRetained;
+        copy.count = count;
+        copy.min = min;
+        copy.max = max;
+        copy.randomState = randomState;
+        return copy;
+    }
+
+    // 가득 찬 가장 낮은 높이의 버퍼를 압축해 절반을 한 단계 위로 올림
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (levelSizes[h] >= capacities[h]) {
+                if (h + 1 == levels.length) {
+                    grow();
+                }
+                compact(h);
+                if (retained < maxRetained) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void compact(int h) {
+        double[] level = levels[h];
+        int size = levelSizes[h];
+        Arrays.sort(level, 0, size);
+        // 개수가 홀수이면 가장 큰 값 하나는 이 높이에 남김
+        int pairs = size / 2;
+        int offset = nextBit();
+        for (int i = 0; i < pairs; i++) {
+            append(h + 1, level[2 * i + offset]);
+        }
+        if (size % 2 == 1) {
+            level[0] = level[size - 1];
+            levelSizes[h] = 1;
+        } else {
+            levelSizes[h] = 0;
+        }
+        retained -= pairs;
+    }
+
+    private void grow() {
+        int height = levels.length + 1;
+        levels = Arrays.copyOf(levels, height);
+        levelSizes = Arrays.copyOf(levelSizes, height);
+        levels[height - 1] = new double[0];
+        computeCapacities();
+    }
+
+    // 높이 h 버퍼의 크기: 가장 높은 버퍼가 k, 한 단계 내려갈 때마다 2/3 배 (최소 MIN_CAPACITY)
+    private void computeCapacities() {
+        capacities = new int[levels.length];
+        maxRetained = 0;
+        for (int h = 0; h < levels.length; h++) {
+            int depth = levels.length - h - 1;
+            capacities[h] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+            maxRetained += capacities[h];
+        }
+    }
+
+    private void append(int h, double value) {
+        if (levelSizes[h] == levels[h].length) {
+            levels[h] = Arrays.copyOf(levels[h], Math.max(8, levels[h].length * 2));
+        }
+        levels[h][levelSizes[h]++] = value;
+    }
+
+    // xorshift64 로 0 또는 1
+    private int nextBit() {
+        randomState ^= randomState << 13;
+        randomState ^= randomState >>> 7;
+        randomState ^= randomState << 17;
+        return (int) (randomState >>> 63);
+    }
+
+    // 남아 있는 값들을 정렬하고 누적 가중치를 계산해 둠
+    private void prepareQueries() {
+        if (sortedValues != null) {
+            return;
+        }
+        int[] heights = new int[retained];
+        double[] values = new double[retained];
+        int n = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < levelSizes[h]; i++) {
+                heights[n] = h;
+                values[n] = levels[h][i];
+                n++;
+            }
+        }
+        SortedIndex byValue = new SortedIndex(); // 값 순서로 정렬, id 자리에 높이를 둠
+        byValue.addAll(heights, values, n);
+
+        double[] sorted = new double[n];
+        long[] cumulative = new long[n];
+        long total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sorted[rank] = byValue.getKey(rank);
+            total += 1L << byValue.getProblemId(rank); // 높이 h 의 값은 2^h 개를 대표
+            cumulative[rank] = total;
+        }
+        cumulativeWeights = cumulative;
+        sortedValues = sorted;
+    }
+
+    /**
+     * 분위수를 근사합니다.
+     *
+     * @param fraction 0 ~ 1 (예: 0.5 = 중앙값, 0.99 = p99)
+     * @return 해당 분위의 값, 값이 없으면 NaN (0 이면 최솟값, 1 이면 최댓값)
+     */
+    public synchronized double getQuantile(double fraction) {
+        if (fraction < 0 || fraction > 1 || Double.isNaN(fraction)) {
+            throw new IllegalArgumentException("분위는 0 ~ 1 사이여야 합니다: " + fraction);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (fraction == 0) {
+            return min;
+        }
+        if (fraction == 1) {
+            return max;
+        }
+        prepareQueries();
+        long total = cumulativeWeights[cumulativeWeights.length - 1];
+        long target = (long) Math.ceil(fraction * total);
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) { // 누적 가중치가 target 이상인 첫 위치
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return sortedValues[low];
+    }
+
+    /**
+     * @param fractions 분위들
+     * @return 분위별 값
+     */
+    public double[] getQuantiles(double... fractions) {
+        double[] quantiles = new double[fractions.length];
+        for (int i = 0; i < fractions.length; i++) {
+            quantiles[i] = getQuantile(fractions[i]);
+        }
+        return quantiles;
+    }
+
+    /**
+     * value 이하인 값의 비율을 근사합니다. (누적 분포)
+     *
+     * @param value 기준 값
+     * @return 0 ~ 1, 값이 없으면 NaN
+     */
+    public synchronized double getRank(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        prepareQueries();
+        int low = 0;
+        int high = sortedValues.length;
+        while (low < high) { // value 보다 큰 첫 위치
+            int mid = (low + high) >>> 1;
+            if (sortedValues[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low == 0 ? 0 : (double) cumulativeWeights[low - 1] / cumulativeWeights[cumulativeWeights.length - 1];
+    }
+
+    /**
+     * @return 넣은 값 개수 (NaN 제외)
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return 최솟값, 값이 없으면 NaN
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return 최댓값, 값이 없으면 NaN
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return 스케치에 남아 있는 값 개수 (메모리 사용량)
+     */
+    public int getRetainedCount() {
+        return retained;
+    }
+
+    /**
+     * 스케치를 저장합니다.
+     *
+     * @param out 저장할 곳
+     * @throws IOException 쓰기에 실패한 경우
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(k);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeLong(randomState);
+        out.writeInt(levels.length);
+        for (int h = 0; h < levels.length; h++) {
+            out.writeInt(levelSizes[h]);
+            for (int i = 0; i < levelSizes[h]; i++) {
+                out.writeDouble(levels[h][i]);
+            }
+        }
+    }
+
+    /**
+     * write 로 저장한 스케치를 읽습니다.
+     *
+     * @param in 읽을 곳
+     * @return 읽은 스케치
+     * @throws IOException 읽기에 실패했거나 스케치 형식이 아닌 경우 (k, 높이, 버퍼 크기, 값 개수가 맞지 않는 경우 포함)
+     */
+    public static QuantileSketch read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("분위수 스케치 형식이 아닙니다.");
+        }
+        int k = in.readInt();
+        if (k < 8 || k > MAX_K) {
+            throw new IOException("분위수 스케치의 k 가 잘못되었습니다: " + k);
+        }
+        QuantileSketch sketch = new QuantileSketch(k);
+        sketch.count = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        sketch.randomState = in.readLong();
+        int height = in.readInt();
+        if (height < 1 || height > MAX_HEIGHT) {
+            throw new IOException("분위수 스케치의 높이가 잘못되었습니다: " + height);
+        }
+        while (sketch.levels.length < height) {
+            sketch.grow();
+        }
+        long weight = 0; // 남은 값들이 대표하는 원래 값 개수 (= count)
+        for (int h = 0; h < height; h++) {
+            int size = in.readInt();
+            if (size < 0 || size > sketch.maxRetained - sketch.retained) {
+                throw new IOException("분위수 스케치의 높이 " + h + " 버퍼 크기가 잘못되었습니다: " + size);
+            }
+            for (int i = 0; i < size; i++) {
+                sketch.append(h, in.readDouble());
+            }
+            sketch.retained += size;
+            weight += (long) size << h;
+        }
+        if (weight != sketch.count) {
+            throw new IOException("분위수 스케치의 값 개수가 맞지 않습니다: " + sketch.count + " (버퍼 " + weight + ")");
+        }
+        return sketch;
+    }
+
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out);
+        } catch (IOException e) { // 메모리에 쓰므로 발생하지 않음
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static QuantileSketch fromByteArray(byte[] bytes) throws IOException {
+        return read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QuantileSketch{count=%d, p50=%s, p90=%s, p99=%s, retained=%d}",
+                count, getQuantile(0.5), getQuantile(0.9), getQuantile(0.99), retained);
+    }
+}
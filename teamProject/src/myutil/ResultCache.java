@@ -0,0 +1,97 @@
+package myutil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 데이터 버전별로 조회 결과를 기억하는 크기 제한 LRU 캐시.
+ * 키는 조회 이름과 인자(지표, K, 구간 개수, 시간 범위 등)를 담은 List 처럼 값으로 비교되는 객체입니다.
+ * 캐시는 한 데이터 버전의 결과만 보관하고, 더 새 버전으로 조회하면 이전 버전의 결과를 모두 버립니다.
+ * (refresh 로 새 버전이 게시되면 다음 조회에서 저절로 비워짐) 더 오래된 버전으로 조회하면 캐시를 쓰지 않고 계산만 합니다.
+ * 결과를 계산하는 동안에는 잠그지 않으므로, 같은 키를 여러 스레드가 동시에 처음 조회하면 각자 계산할 수 있습니다. (결과는 같음)
+ * 저장된 결과는 여러 호출자가 함께 쓰므로 고치면 안 됩니다.
+ */
+public class ResultCache {
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final int maxEntries;
+    private final Map<Object, Object> entries;
+    private long version = Long.MIN_VALUE; // entries 를 계산한 데이터 버전
+    private long hits;
+    private long misses;
+
+    /**
+     * @param maxEntries 보관할 최대 결과 개수 (넘으면 가장 오래 쓰지 않은 결과부터 버림, 0 이면 캐시하지 않음)
+     */
+    public ResultCache(int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > ResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 같은 버전에서 같은 키로 계산한 결과가 있으면 반환하고, 없으면 계산하여 보관한 뒤 반환합니다.
+     *
+     * @param version 결과를 계산할 데이터 버전 (Dataset.getVersion())
+     * @param key 조회 이름과 인자
+     * @param loader 결과 계산 (같은 버전, 같은 키이면 항상 같은 결과여야 함)
+     * @return 결과 (캐시된 객체일 수 있으므로 고치지 말 것)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(long version, Object key, Supplier<T> loader) {
+        synchronized (this) {
+            if (version > this.version) {
+                entries.clear(); // 새 버전이 게시됨 -> 이전 결과는 모두 낡음
+                this.version = version;
+            }
+            if (version == this.version) {
+                Object cached = entries.get(key);
+                if (cached != null) {
+                    hits++;
+                    return (T) cached;
+                }
+            }
+            misses++;
+        }
+        T value = loader.get();
+        if (value != null) {
+            synchronized (this) {
+                if (version == this.version) {
+                    entries.put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 보관한 결과를 모두 버립니다.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return 보관 중인 결과 개수
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+}
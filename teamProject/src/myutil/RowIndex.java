@@ -0,0 +1,90 @@
+package myutil;
+
+import java.util.Arrays;
+
+/**
+ * 문제 번호 -> 행(row) 번호 인덱스.
+ * 문제 번호는 vars.txt 의 라인 번호이므로 0 이상의 조밀한 정수라고 보고, 문제 번호를 그대로 배열 인덱스로 사용합니다.
+ * 배열은 PAGE_SIZE 개씩 페이지로 나누어, 늘어날 때는 페이지 목록만 늘리고 페이지는 그 안에 문제 번호가 처음 들어올 때 만듭니다.
+ * copy 는 페이지 목록만 복사하고 페이지는 원본과 함께 쓰며, 함께 쓰는 페이지에 처음 put 할 때 그 페이지만 복사합니다.
+ * (refresh 로 행을 추가할 때 복사 비용이 전체 문제 수가 아니라 새 행이 들어간 페이지 수에 비례)
+ */
+public class RowIndex {
+    private static final int NO_ROW = -1;
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS; // 페이지 하나의 문제 번호 개수
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private int[][] pages = new int[0][]; // 아직 문제 번호가 없는 페이지는 null
+    private boolean[] owned = new boolean[0]; // 이 인덱스만 쓰는 페이지 (false 이면 다른 복사본과 공유 -> 쓰기 전에 복사)
+
+    public RowIndex() {
+    }
+
+    /**
+     * 문제 번호에 해당하는 행 번호를 반환합니다.
+     *
+     * @param problemId 문제 번호
+     * @return 행 번호, 등록되지 않은 문제이면 -1
+     */
+    public int get(int problemId) {
+        int page = problemId >>> PAGE_BITS;
+        if (problemId < 0 || page >= pages.length || pages[page] == null) {
+            return NO_ROW;
+        }
+        return pages[page][problemId & PAGE_MASK];
+    }
+
+    /**
+     * 문제 번호와 행 번호를 연결합니다.
+     *
+     * @param problemId 문제 번호 (0 이상)
+     * @param row 행 번호
+     */
+    public void put(int problemId, int row) {
+        if (problemId < 0) {
+            throw new IllegalArgumentException("문제 번호는 0 이상이어야 합니다: " + problemId);
+        }
+        int page = problemId >>> PAGE_BITS;
+        if (page >= pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(page + 1, pages.length * 2));
+            owned = Arrays.copyOf(owned, pages.length);
+        }
+        if (pages[page] == null) {
+            pages[page] = new int[PAGE_SIZE];
+            Arrays.fill(pages[page], NO_ROW);
+            owned[page] = true;
+        } else if (!owned[page]) {
+            pages[page] = pages[page].clone();
+            owned[page] = true;
+        }
+        pages[page][problemId & PAGE_MASK] = row;
+    }
+
+    /**
+     * 같은 내용의 복사본을 만듭니다. 페이지는 공유하므로 어느 쪽에 put 해도 다른 쪽은 바뀌지 않습니다.
+     * 원본과 복사본을 서로 다른 스레드에서 동시에 put 하면 안 됩니다. (Maps 는 refresh 중에 복사본에만 put)
+     *
+     * @return 같은 내용의 독립된 복사본
+     */
+    RowIndex copy() {
+        RowIndex copy = new RowIndex();
+        copy.pages = pages.clone();
+        copy.owned = new boolean[pages.length];
+        Arrays.fill(owned, false); // 이제 원본도 페이지를 공유하므로 쓰기 전에 복사해야 함
+        return copy;
+    }
+
+    /**
+     * @return 힙 메모리 사용량 추정 (바이트, 배열 크기 기준, 다른 복사본과 공유하는 페이지 포함)
+     */
+    public long getHeapBytes() {
+        long bytes = 9L * pages.length;
+        for (int[] page : pages) {
+            if (page != null) {
+                bytes += 4L * PAGE_SIZE;
+            }
+        }
+        return bytes;
+    }
+}
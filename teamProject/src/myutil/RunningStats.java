@@ -0,0 +1,131 @@
+package myutil;
+
+/**
+ * 값을 하나씩 더하면서 개수, 합, 최소/최대, 평균, 분산을 유지하는 누적 통계.
+ * 평균과 분산은 Welford 방식으로 갱신하므로 값이 많아도 큰 수끼리 빼는 오차가 쌓이지 않으며,
+ * 모든 조회는 O(1) 입니다. 두 통계는 merge 로 합칠 수 있습니다. (Chan 의 병렬 분산 공식)
+ */
+public class RunningStats {
+    private long count;
+    private double sum;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private double mean;
+    private double m2; // 평균과의 차이 제곱합
+
+    public RunningStats() {
+    }
+
+    /**
+     * 값 하나를 더합니다.
+     *
+     * @param value 더할 값
+     */
+    public void add(double value) {
+        count++;
+        sum += value;
+        if (count == 1) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * 다른 통계를 합칩니다. 결과는 두 통계의 값들을 모두 add 한 것과 같습니다. (합은 더하는 순서에 따른 오차 범위 내)
+     *
+     * @param other 합칠 통계
+     */
+    public void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            sum = other.sum;
+            min = other.min;
+            max = other.max;
+            mean = other.mean;
+            m2 = other.m2;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return 같은 상태의 독립된 복사본
+     */
+    RunningStats copy() {
+        RunningStats copy = new RunningStats();
+        copy.merge(this); // 빈 통계에 합치면 값이 그대로 복사됨
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return 최솟값, 값이 없으면 NaN
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return 최댓값, 값이 없으면 NaN
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return 평균, 값이 없으면 0
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return 모분산 (제곱 편차의 평균), 값이 없으면 0
+     */
+    public double getVariance() {
+        return count == 0 ? 0.0 : m2 / count;
+    }
+
+    /**
+     * @return 표본분산 (n - 1 로 나눔), 값이 2개 미만이면 0
+     */
+    public double getSampleVariance() {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    /**
+     * @return 모표준편차
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, sum=%.6f, min=%.6f, max=%.6f, mean=%.6f, std=%.6f",
+                count, sum, min, max, mean, getStandardDeviation());
+    }
+}
@@ -1,125 +1,256 @@
-package myutil; 
-
-import java.util.*;
-import java.util.List;
+package myutil;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 
 public class ScatterPlotSimple {
+    private static final int PADDING = 100;
+    private static final int BIN_SIZE = 3; // 밀도 칸 크기 (픽셀)
+
+    private ScatterPlotSimple() {
+    }
 
     public static void drawScatterPlot(double[] xData, double[] yData, String title) {
+        // Efficient Frontier 데이터 계산
+        int[] indexes = new int[xData.length];
+        for (int i = 0; i < xData.length; i++) {
+            indexes[i] = i;
+        }
+        EfficientFrontier efficientFrontier = new EfficientFrontier(indexes, xData, yData, xData.length);
+
+        drawScatterPlot(xData, yData, efficientFrontier.getXs(), efficientFrontier.getYs(), title);
+    }
+
+    /**
+     * 점들과 미리 계산한 효율적 투자선을 그립니다.
+     * 점들은 밀도 이미지로 그리며, 마우스 휠로 확대/축소, 끌어서 이동, 더블클릭으로 처음 보기로 돌아갑니다.
+     *
+     * @param xData 점들의 x (risk)
+     * @param yData 점들의 y (return)
+     * @param frontierX 투자선 점들의 x (오름차순)
+     * @param frontierY 투자선 점들의 y
+     * @param title 창 제목
+     */
+    public static void drawScatterPlot(double[] xData, double[] yData, double[] frontierX, double[] frontierY, String title) {
         JFrame frame = new JFrame(title);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setSize(1000, 1000);
 
-        // Efficient Frontier 데이터 계산
-        TreeMap<Double, Double> efficientFrontier = new TreeMap<>();
-        List<double[]> dataPoints = new ArrayList<>();
+        JPanel panel = new PlotPanel(xData, yData, frontierX, frontierY, title);
 
-        // 데이터를 리스트로 변환
-        for (int i = 0; i < xData.length; i++) {
-            dataPoints.add(new double[]{xData[i], yData[i]});
-        }
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); // 창만 닫기
+        frame.add(panel);
+        frame.setVisible(true);
+    }
 
-        // 리스크를 기준으로 정렬
-        dataPoints.sort(Comparator.comparingDouble(a -> a[0]));
+    /**
+     * 밀도 이미지 + 축/격자/투자선을 그리는 패널.
+     * 점들은 DensityRenderer 가 캐시한 이미지로 그리므로, 보기 영역이나 크기가 바뀔 때만 다시 셉니다.
+     */
+    @SuppressWarnings("serial") // 화면 표시용으로만 쓰고 직렬화하지 않음
+    private static class PlotPanel extends JPanel {
+        private final double[] frontierX;
+        private final double[] frontierY;
+        private final String title;
+        private final DensityRenderer renderer;
 
-        double maxReturn = Double.NEGATIVE_INFINITY;
-        for (double[] point : dataPoints) {
-            double risk = point[0];
-            double ret = point[1];
-            if (ret > maxReturn) {
-                maxReturn = ret;
-                efficientFrontier.put(risk, ret); // 외곽 점 추가
-            }
-        }
+        // 처음 보기 영역 {xMin, xMax, yMin, yMax}
+        private final double[] initialView;
+        // 현재 보기 영역
+        private double xMin, xMax, yMin, yMax;
+
+        private Point dragStart;
+
+        PlotPanel(double[] xData, double[] yData, double[] frontierX, double[] frontierY, String title) {
+            this.frontierX = frontierX;
+            this.frontierY = frontierY;
+            this.title = title;
+            this.renderer = new DensityRenderer(xData, yData, BIN_SIZE);
+
+            this.initialView = initialView(renderer.getGrid());
+            resetView();
 
-        JPanel panel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                int padding = 100;
-                int width = getWidth() - 2 * padding;
-                int height = getHeight() - 2 * padding;
-
-                g2d.drawLine(padding, getHeight() - padding, padding, padding);
-                g2d.drawLine(padding, getHeight() - padding, getWidth() - padding, getHeight() - padding);
-
-                g2d.setColor(Color.BLACK);
-                FontMetrics metrics = g2d.getFontMetrics();
-                String yLabel = "Return";
-                String xLabel = "Risk";
-                g2d.drawString(yLabel, padding / 2 - metrics.stringWidth(yLabel) / 2, getHeight() / 2);
-                g2d.drawString(xLabel, getWidth() - padding - metrics.stringWidth(xLabel) / 2, getHeight() - padding + 30);
-
-                double xMin = Double.MAX_VALUE, xMax = Double.MIN_VALUE;
-                double yMin = Double.MAX_VALUE, yMax = Double.MIN_VALUE;
-                for (int i = 0; i < xData.length; i++) {
-                    xMin = Math.min(xMin, xData[i]);
-                    xMax = Math.max(xMax, xData[i]);
-                    yMin = Math.min(yMin, yData[i]);
-                    yMax = Math.max(yMax, yData[i]);
+            MouseAdapter mouse = new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    dragStart = e.getPoint();
                 }
 
-                double xRange = xMax - xMin;
-                double yRange = yMax - yMin;
-
-                xMin -= 0.1 * xRange;
-                xMax += 0.1 * xRange;
-                yMin -= 0.1 * yRange;
-                yMax += 0.1 * yRange;
-
-                // label
-                g2d.setColor(Color.LIGHT_GRAY);
-                for (int i = 0; i <= 10; i++) {
-                    int xGrid = padding + (int) ((i / 10.0) * width);
-                    double xValue = xMin + (i / 10.0) * (xMax - xMin);
-                    g2d.drawLine(xGrid, getHeight() - padding, xGrid, padding);
-                    g2d.setColor(Color.BLACK);
-                    g2d.drawString(String.format("%.4f", xValue), xGrid - 15, getHeight() - padding + 20);
-                    g2d.setColor(Color.LIGHT_GRAY);
-
-                    int yGrid = getHeight() - padding - (int) ((i / 10.0) * height);
-                    double yValue = yMin + (i / 10.0) * (yMax - yMin);
-                    g2d.drawLine(padding, yGrid, getWidth() - padding, yGrid);
-                    g2d.setColor(Color.BLACK);
-                    g2d.drawString(String.format("%.4f", yValue), padding - 50, yGrid + 5);
-                    g2d.setColor(Color.LIGHT_GRAY);
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    if (dragStart == null) {
+                        return;
+                    }
+                    // 끈 만큼 보기 영역 이동
+                    double dx = (e.getX() - dragStart.x) * (xMax - xMin) / plotWidth();
+                    double dy = (e.getY() - dragStart.y) * (yMax - yMin) / plotHeight();
+                    xMin -= dx;
+                    xMax -= dx;
+                    yMin += dy;
+                    yMax += dy;
+                    dragStart = e.getPoint();
+                    repaint();
                 }
 
-                g2d.setColor(Color.BLUE);
-                for (int i = 0; i < xData.length; i++) {
-                    int x = (int) (padding + (xData[i] - xMin) / (xMax - xMin) * width);
-                    int y = (int) (getHeight() - padding - (yData[i] - yMin) / (yMax - yMin) * height);
-                    g2d.fillOval(x - 2, y - 2, 4, 4);
+                @Override
+                public void mouseReleased(MouseEvent e) {
+                    dragStart = null;
                 }
 
-                // Efficient Frontier 그리기
-                g2d.setColor(Color.RED);
-                int prevX = -1, prevY = -1;
-                for (Map.Entry<Double, Double> entry : efficientFrontier.entrySet()) {
-                    int x = (int) (padding + (entry.getKey() - xMin) / (xMax - xMin) * width);
-                    int y = (int) (getHeight() - padding - (entry.getValue() - yMin) / (yMax - yMin) * height);
-                    if (prevX != -1 && prevY != -1) {
-                        g2d.drawLine(prevX, prevY, x, y);
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (e.getClickCount() == 2) {
+                        resetView();
+                        repaint();
                     }
-                    prevX = x;
-                    prevY = y;
                 }
 
-                g2d.setColor(Color.BLACK);
-                g2d.drawString(title, getWidth() / 2 - g2d.getFontMetrics().stringWidth(title) / 2, padding / 2);
+                @Override
+                public void mouseWheelMoved(MouseWheelEvent e) {
+                    // 마우스 위치를 중심으로 확대/축소
+                    double factor = Math.pow(1.2, e.getPreciseWheelRotation());
+                    double x = xMin + (e.getX() - PADDING) * (xMax - xMin) / plotWidth();
+                    double y = yMax - (e.getY() - PADDING) * (yMax - yMin) / plotHeight();
+                    xMin = x - (x - xMin) * factor;
+                    xMax = x + (xMax - x) * factor;
+                    yMin = y - (y - yMin) * factor;
+                    yMax = y + (yMax - y) * factor;
+                    repaint();
+                }
+            };
+            addMouseListener(mouse);
+            addMouseMotionListener(mouse);
+            addMouseWheelListener(mouse);
+        }
+
+        private void resetView() {
+            xMin = initialView[0];
+            xMax = initialView[1];
+            yMin = initialView[2];
+            yMax = initialView[3];
+        }
+
+        private int plotWidth() {
+            return Math.max(1, getWidth() - 2 * PADDING);
+        }
+
+        private int plotHeight() {
+            return Math.max(1, getHeight() - 2 * PADDING);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            paintPlot(new GraphicsCanvas(g2d), getWidth(), getHeight(), renderer, frontierX, frontierY, title,
+                    new double[]{xMin, xMax, yMin, yMax});
+        }
+    }
+
+    /**
+     * 점들과 효율적 투자선을 canvas 에 그립니다. (화면, PNG, SVG 공용)
+     *
+     * @param canvas 그릴 대상
+     * @param panelWidth 그림 폭
+     * @param panelHeight 그림 높이
+     * @param renderer 점들의 밀도 렌더러
+     * @param frontierX 투자선 점들의 x (오름차순)
+     * @param frontierY 투자선 점들의 y
+     * @param title 제목
+     * @param view 보기 영역 {xMin, xMax, yMin, yMax}
+     */
+    static void paintPlot(ChartCanvas canvas, int panelWidth, int panelHeight, DensityRenderer renderer,
+                          double[] frontierX, double[] frontierY, String title, double[] view) {
+        double xMin = view[0], xMax = view[1], yMin = view[2], yMax = view[3];
+        int padding = PADDING;
+        int width = Math.max(1, panelWidth - 2 * padding);
+        int height = Math.max(1, panelHeight - 2 * padding);
+
+        canvas.setColor(Color.BLACK);
+        canvas.drawLine(padding, panelHeight - padding, padding, padding);
+        canvas.drawLine(padding, panelHeight - padding, panelWidth - padding, panelHeight - padding);
+
+        String yLabel = "Return";
+        String xLabel = "Risk";
+        canvas.drawString(yLabel, padding / 2 - canvas.stringWidth(yLabel) / 2, panelHeight / 2);
+        canvas.drawString(xLabel, panelWidth - padding - canvas.stringWidth(xLabel) / 2, panelHeight - padding + 30);
+
+        // label
+        canvas.setColor(Color.LIGHT_GRAY);
+        for (int i = 0; i <= 10; i++) {
+            int xGrid = padding + (int) ((i / 10.0) * width);
+            double xValue = xMin + (i / 10.0) * (xMax - xMin);
+            canvas.drawLine(xGrid, panelHeight - padding, xGrid, padding);
+            canvas.setColor(Color.BLACK);
+            canvas.drawString(String.format("%.4f", xValue), xGrid - 15, panelHeight - padding + 20);
+            canvas.setColor(Color.LIGHT_GRAY);
+
+            int yGrid = panelHeight - padding - (int) ((i / 10.0) * height);
+            double yValue = yMin + (i / 10.0) * (yMax - yMin);
+            canvas.drawLine(padding, yGrid, panelWidth - padding, yGrid);
+            canvas.setColor(Color.BLACK);
+            canvas.drawString(String.format("%.4f", yValue), padding - 50, yGrid + 5);
+            canvas.setColor(Color.LIGHT_GRAY);
+        }
+
+        // 점 밀도 이미지 (보기 영역/크기가 같으면 캐시 재사용)
+        canvas.drawImage(renderer.render(width, height, xMin, xMax, yMin, yMax), padding, padding);
+
+        // Efficient Frontier 그리기
+        canvas.clipRect(padding, padding, width, height);
+        canvas.setColor(Color.RED);
+        int prevX = -1, prevY = -1;
+        for (int i = 0; i < frontierX.length; i++) {
+            int x = (int) (padding + (frontierX[i] - xMin) / (xMax - xMin) * width);
+            int y = (int) (panelHeight - padding - (frontierY[i] - yMin) / (yMax - yMin) * height);
+            if (prevX != -1 && prevY != -1) {
+                canvas.drawLine(prevX, prevY, x, y);
             }
-        };
+            prevX = x;
+            prevY = y;
+        }
+        canvas.resetClip();
 
-        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); // 창만 닫기
-        frame.add(panel);
-        frame.setVisible(true);
+        drawLegend(canvas, renderer, panelWidth - padding + 20, padding, height);
+
+        canvas.setColor(Color.BLACK);
+        canvas.drawString(title, panelWidth / 2 - canvas.stringWidth(title) / 2, padding / 2);
+    }
+
+    // 색 범례: 아래(1개) -> 위(한 칸 최대 개수), 로그 척도
+    private static void drawLegend(ChartCanvas canvas, DensityRenderer renderer, int x, int y, int height) {
+        int barHeight = Math.min(200, height);
+        for (int i = 0; i < barHeight; i++) {
+            canvas.setColor(new Color(DensityRenderer.colorOf(1 - (double) i / (barHeight - 1)), true));
+            canvas.drawLine(x, y + i, x + 12, y + i);
+        }
+        canvas.setColor(Color.BLACK);
+        canvas.drawRect(x, y, 12, barHeight);
+        canvas.drawString(String.valueOf(renderer.getMaxCount()), x + 16, y + 10);
+        canvas.drawString("1", x + 16, y + barHeight);
+    }
+
+    /**
+     * 처음 보기 영역 (데이터 범위 + 10% 여백)
+     *
+     * @return {xMin, xMax, yMin, yMax}
+     */
+    static double[] initialView(SpatialGrid grid) {
+        double xRange = grid.getMaxX() - grid.getMinX();
+        double yRange = grid.getMaxY() - grid.getMinY();
+        if (xRange == 0) {
+            xRange = 1;
+        }
+        if (yRange == 0) {
+            yRange = 1;
+        }
+        return new double[]{grid.getMinX() - 0.1 * xRange, grid.getMaxX() + 0.1 * xRange,
+                grid.getMinY() - 0.1 * yRange, grid.getMaxY() + 0.1 * yRange};
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,277 @@
+package myutil;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * 값(key) 기준으로 정렬된 (key, 문제 번호) 쌍의 색인.
+ * double[] keys 와 int[] problemIds 를 함께 오름차순으로 정렬해 두고, 순위(rank) = 배열 위치로 조회합니다.
+ * 같은 key 끼리는 추가된 순서(파일의 행 순서)를 유지합니다.
+ * 상위/하위 K 개는 배열 양 끝의 구간, 값 범위 조회는 이진 탐색으로 찾은 구간이므로 트리를 만들 필요가 없습니다.
+ * key 의 순서는 Double.compare 와 같습니다. (-0.0 < 0.0, NaN 은 가장 큼)
+ */
+public class SortedIndex {
+    private static final int RADIX_BITS = 16;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private double[] keys = new double[0];
+    private int[] problemIds = new int[0];
+    private int size;
+
+    public SortedIndex() {
+    }
+
+    /**
+     * 새 (문제 번호, key) 쌍들을 정렬해 기존 색인과 병합합니다.
+     * 새 쌍을 정렬하는 데 O(m), 병합하는 데 O(n + m) 이 걸립니다.
+     *
+     * @param newProblemIds 추가할 문제 번호
+     * @param newKeys 추가할 key (newProblemIds 와 같은 순서)
+     * @param count 추가할 개수
+     */
+    public void addAll(int[] newProblemIds, double[] newKeys, int count) {
+        if (count == 0) {
+            return;
+        }
+        int[] order = sortedOrder(newKeys, count);
+        double[] mergedKeys = new double[size + count];
+        int[] mergedIds = new int[size + count];
+
+        // 같은 key 이면 기존 항목을 먼저 (추가 순서 유지)
+        int i = 0;
+        int j = 0;
+        int out = 0;
+        while (i < size && j < count) {
+            double newKey = newKeys[order[j]];
+            if (Double.compare(keys[i], newKey) <= 0) {
+                mergedKeys[out] = keys[i];
+                mergedIds[out++] = problemIds[i++];
+            } else {
+                mergedKeys[out] = newKey;
+                mergedIds[out++] = newProblemIds[order[j++]];
+            }
+        }
+        while (i < size) {
+            mergedKeys[out] = keys[i];
+            mergedIds[out++] = problemIds[i++];
+        }
+        while (j < count) {
+            mergedKeys[out] = newKeys[order[j]];
+            mergedIds[out++] = newProblemIds[order[j++]];
+        }
+        keys = mergedKeys;
+        problemIds = mergedIds;
+        size = out;
+    }
+
+    // key 오름차순이 되는 위치 순서 (LSD radix sort 이므로 같은 key 끼리는 입력 순서 유지)
+    private static int[] sortedOrder(double[] keys, int count) {
+        long[] sortable = new long[count];
+        for (int i = 0; i < count; i++) {
+            long bits = Double.doubleToLongBits(keys[i]);
+            sortable[i] = bits ^ ((bits >> 63) | Long.MIN_VALUE); // 음수는 모든 비트, 양수는 부호 비트만 뒤집어 부호 없는 비교 순서로
+        }
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        int[] buffer = new int[count];
+        int[] counts = new int[RADIX + 1];
+        for (int shift = 0; shift < 64; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < count; i++) {
+                counts[((int) (sortable[order[i]] >>> shift) & (RADIX - 1)) + 1]++;
+            }
+            if (counts[((int) (sortable[order[0]] >>> shift) & (RADIX - 1)) + 1] == count) {
+                continue; // 이 자릿수가 모두 같으면 건너뜀
+            }
+            for (int d = 0; d < RADIX; d++) {
+                counts[d + 1] += counts[d];
+            }
+            for (int i = 0; i < count; i++) {
+                buffer[counts[(int) (sortable[order[i]] >>> shift) & (RADIX - 1)]++] = order[i];
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+
+    /**
+     * 배열을 공유하는 복사본을 만듭니다. addAll 은 항상 새 배열을 만들어 바꿔 끼우므로,
+     * 복사본에 추가해도 원본이 보는 배열은 바뀌지 않습니다.
+     *
+     * @return 추가용 복사본
+     */
+    SortedIndex copyForAppend() {
+        SortedIndex copy = new SortedIndex();
+        copy.keys = keys;
+        copy.problemIds = problemIds;
+        copy.size = size;
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 힙 메모리 사용량 추정 (바이트, 배열 크기 기준)
+     */
+    public long getHeapBytes() {
+        return 8L * keys.length + 4L * problemIds.length;
+    }
+
+    /**
+     * @param rank 순위 (0 = key 가 가장 작은 항목)
+     * @return 해당 순위의 key
+     */
+    public double getKey(int rank) {
+        return keys[rank];
+    }
+
+    /**
+     * @param rank 순위 (0 = key 가 가장 작은 항목)
+     * @return 해당 순위의 문제 번호
+     */
+    public int getProblemId(int rank) {
+        return problemIds[rank];
+    }
+
+    /**
+     * @param key 찾을 값
+     * @return key 보다 작은 항목 개수 (= key 가 들어갈 첫 순위)
+     */
+    public int lowerBound(double key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(keys[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param key 찾을 값
+     * @return key 보다 작거나 같은 항목 개수
+     */
+    public int upperBound(double key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(keys[mid], key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param fromRank 시작 순위 (inclusive)
+     * @param toRank 끝 순위 (exclusive)
+     * @return [fromRank, toRank) 순위의 문제 번호 (key 오름차순, 복사본)
+     */
+    public int[] getProblemIds(int fromRank, int toRank) {
+        return Arrays.copyOfRange(problemIds, fromRank, toRank);
+    }
+
+    /**
+     * [fromRank, toRank) 순위의 문제 번호를 복사하지 않고 하나씩 돌려주는 반복자를 반환합니다.
+     * 만든 시점의 배열을 보므로 이후 addAll 로 항목이 추가되어도 결과는 바뀌지 않습니다.
+     *
+     * @param fromRank 시작 순위 (inclusive)
+     * @param toRank 끝 순위 (exclusive)
+     * @return 문제 번호 반복자 (key 오름차순)
+     */
+    public PrimitiveIterator.OfInt iterator(int fromRank, int toRank) {
+        int[] ids = problemIds;
+        if (fromRank < 0 || toRank > size || fromRank > toRank) {
+            throw new IndexOutOfBoundsException("순위 범위가 잘못되었습니다: [" + fromRank + ", " + toRank + ")");
+        }
+        return new PrimitiveIterator.OfInt() {
+            private int rank = fromRank;
+
+            @Override
+            public boolean hasNext() {
+                return rank < toRank;
+            }
+
+            @Override
+            public int nextInt() {
+                if (rank >= toRank) {
+                    throw new NoSuchElementException();
+                }
+                return ids[rank++];
+            }
+        };
+    }
+
+    /**
+     * @param lowerBound 하한 (inclusive)
+     * @param upperBound 상한 (inclusive)
+     * @return key 가 [lowerBound, upperBound] 에 속하는 문제 번호 (key 오름차순)
+     */
+    public int[] getProblemIdsInRange(double lowerBound, double upperBound) {
+        int from = lowerBound(lowerBound);
+        return getProblemIds(from, Math.max(from, upperBound(upperBound)));
+    }
+
+    /**
+     * @param lowerBound 하한 (inclusive)
+     * @param upperBound 상한 (inclusive)
+     * @return key 가 [lowerBound, upperBound] 에 속하는 항목 개수
+     */
+    public int countInRange(double lowerBound, double upperBound) {
+        return Math.max(0, upperBound(upperBound) - lowerBound(lowerBound));
+    }
+
+    /**
+     * key 가 가장 작은 K 개의 문제 번호를 반환합니다.
+     * K 번째 항목과 key 가 같은 항목들도 모두 포함하므로 결과가 K 개보다 많을 수 있습니다.
+     *
+     * @param k 가져올 개수
+     * @return 문제 번호 (key 오름차순)
+     */
+    public int[] lowest(int k) {
+        if (k <= 0 || size == 0) {
+            return new int[0];
+        }
+        int end = Math.min(k, size);
+        return getProblemIds(0, upperBound(keys[end - 1]));
+    }
+
+    /**
+     * key 가 가장 큰 K 개의 문제 번호를 반환합니다.
+     * K 번째 항목과 key 가 같은 항목들도 모두 포함하므로 결과가 K 개보다 많을 수 있습니다.
+     * 같은 key 끼리는 추가된 순서를 유지합니다.
+     *
+     * @param k 가져올 개수
+     * @return 문제 번호 (key 내림차순)
+     */
+    public int[] highest(int k) {
+        if (k <= 0 || size == 0) {
+            return new int[0];
+        }
+        int start = lowerBound(keys[size - Math.min(k, size)]);
+        int[] result = new int[size - start];
+        int out = 0;
+        // 뒤쪽부터 같은 key 묶음 단위로 복사
+        for (int end = size; end > start; ) {
+            int groupStart = Math.max(start, lowerBound(keys[end - 1]));
+            System.arraycopy(problemIds, groupStart, result, out, end - groupStart);
+            out += end - groupStart;
+            end = groupStart;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,135 @@
+package myutil;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 2차원 점들을 균등한 격자 칸(cell)으로 나눠 둔 공간 색인.
+ * 칸마다 속한 점 번호를 CSR 형태(cellPointers + pointIndexes)로 모아 두므로,
+ * 사각형 영역을 조회할 때 영역과 겹치는 칸의 점들만 확인합니다.
+ * 영역에 완전히 들어가는 칸은 점마다 좌표를 비교하지 않습니다.
+ */
+public class SpatialGrid {
+    private final double[] xs;
+    private final double[] ys;
+    private final int cells; // 한 축의 칸 개수
+    private final double minX, maxX, minY, maxY;
+    private final double cellWidth, cellHeight;
+    private final int[] cellPointers; // 칸 c 의 점 = pointIndexes[cellPointers[c] .. cellPointers[c + 1])
+    private final int[] pointIndexes;
+
+    /**
+     * @param xs 점들의 x 좌표
+     * @param ys 점들의 y 좌표
+     * @param cells 한 축의 칸 개수 (전체 칸 개수 = cells * cells)
+     */
+    public SpatialGrid(double[] xs, double[] ys, int cells) {
+        this.xs = xs;
+        this.ys = ys;
+        this.cells = Math.max(1, cells);
+
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < xs.length; i++) {
+            if (isFinite(i)) {
+                minX = Math.min(minX, xs[i]);
+                maxX = Math.max(maxX, xs[i]);
+                minY = Math.min(minY, ys[i]);
+                maxY = Math.max(maxY, ys[i]);
+            }
+        }
+        if (minX > maxX) { // 유효한 점이 없음
+            minX = maxX = minY = maxY = 0;
+        }
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.cellWidth = maxX > minX ? (maxX - minX) / this.cells : 1;
+        this.cellHeight = maxY > minY ? (maxY - minY) / this.cells : 1;
+
+        // 칸별 개수 -> 누적합 -> 점 번호 배치 (counting sort)
+        int cellCount = this.cells * this.cells;
+        int[] cellOfPoint = new int[xs.length];
+        cellPointers = new int[cellCount + 1];
+        for (int i = 0; i < xs.length; i++) {
+            cellOfPoint[i] = isFinite(i) ? cellIndex(column(xs[i]), row(ys[i])) : -1;
+            if (cellOfPoint[i] >= 0) {
+                cellPointers[cellOfPoint[i] + 1]++;
+            }
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellPointers[c + 1] += cellPointers[c];
+        }
+        pointIndexes = new int[cellPointers[cellCount]];
+        int[] next = Arrays.copyOf(cellPointers, cellCount);
+        for (int i = 0; i < xs.length; i++) {
+            if (cellOfPoint[i] >= 0) {
+                pointIndexes[next[cellOfPoint[i]]++] = i;
+            }
+        }
+    }
+
+    private boolean isFinite(int i) {
+        return Double.isFinite(xs[i]) && Double.isFinite(ys[i]);
+    }
+
+    private int column(double x) {
+        return Math.min(cells - 1, Math.max(0, (int) ((x - minX) / cellWidth)));
+    }
+
+    private int row(double y) {
+        return Math.min(cells - 1, Math.max(0, (int) ((y - minY) / cellHeight)));
+    }
+
+    private int cellIndex(int column, int row) {
+        return row * cells + column;
+    }
+
+    /**
+     * [x0, x1] x [y0, y1] 영역 안의 점 번호마다 visitor 를 호출합니다.
+     *
+     * @param x0 x 하한
+     * @param x1 x 상한
+     * @param y0 y 하한
+     * @param y1 y 상한
+     * @param visitor 점 번호를 받을 함수
+     */
+    public void visit(double x0, double x1, double y0, double y1, IntConsumer visitor) {
+        if (x1 < minX || x0 > maxX || y1 < minY || y0 > maxY || pointIndexes.length == 0) {
+            return;
+        }
+        int column0 = column(x0), column1 = column(x1);
+        int row0 = row(y0), row1 = row(y1);
+        for (int row = row0; row <= row1; row++) {
+            for (int column = column0; column <= column1; column++) {
+                int cell = cellIndex(column, row);
+                // 칸 전체가 영역 안이면 좌표 비교 생략
+                boolean inside = minX + column * cellWidth >= x0 && minX + (column + 1) * cellWidth <= x1
+                        && minY + row * cellHeight >= y0 && minY + (row + 1) * cellHeight <= y1;
+                for (int p = cellPointers[cell]; p < cellPointers[cell + 1]; p++) {
+                    int i = pointIndexes[p];
+                    if (inside || (xs[i] >= x0 && xs[i] <= x1 && ys[i] >= y0 && ys[i] <= y1)) {
+                        visitor.accept(i);
+                    }
+                }
+            }
+        }
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+}
@@ -0,0 +1,171 @@
+package myutil;
+
+import java.util.Arrays;
+
+/**
+ * result_status.csv 의 내용을 컬럼 단위 primitive 배열로 저장하는 저장소.
+ * 행(row) 번호는 파일에 나온 순서이며, 문제 번호 -> 행 번호는 RowIndex 로 찾습니다.
+ * 행을 추가할 때마다 소요 시간의 누적 통계와 optimal 개수를 함께 갱신하므로 전체 합계/비율 조회는 O(1) 입니다.
+ * 소요 시간의 분위수는 분위수 스케치로 근사합니다.
+ */
+public class StatusStore {
+    private int[] problemIds = new int[0];
+    private boolean[] optimal = new boolean[0];
+    private double[] timeTaken = new double[0];
+    private int[] variableCounts = new int[0];
+    private final RowIndex rowIndex;
+    private int size;
+    private final RunningStats timeStats;
+    private final QuantileSketch timeSketch;
+    private int optimalCount;
+
+    public StatusStore() {
+        this(new RowIndex(), new RunningStats(), new QuantileSketch());
+    }
+
+    private StatusStore(RowIndex rowIndex, RunningStats timeStats, QuantileSketch timeSketch) {
+        this.rowIndex = rowIndex;
+        this.timeStats = timeStats;
+        this.timeSketch = timeSketch;
+    }
+
+    /**
+     * 이미 만들어진 컬럼 배열로 저장소를 구성합니다. (바이너리 스냅샷에서 사용)
+     */
+    StatusStore(int[] problemIds, boolean[] optimal, double[] timeTaken, int[] variableCounts) {
+        this();
+        this.problemIds = problemIds;
+        this.optimal = optimal;
+        this.timeTaken = timeTaken;
+        this.variableCounts = variableCounts;
+        this.size = problemIds.length;
+        for (int row = 0; row < size; row++) {
+            rowIndex.put(problemIds[row], row);
+            timeStats.add(timeTaken[row]);
+            timeSketch.add(timeTaken[row]);
+            if (optimal[row]) {
+                optimalCount++;
+            }
+        }
+    }
+
+    /**
+     * 컬럼 배열을 공유하는 복사본을 만듭니다. 복사본에 추가한 행은 원본의 마지막 행 뒤 위치에만 쓰이므로
+     * 원본을 읽는 스레드에는 보이지 않습니다. (문제 번호 색인과 누적 통계는 복사)
+     * 복사본을 만든 뒤에는 원본에 행을 추가하면 안 됩니다.
+     *
+     * @return 추가용 복사본
+     */
+    StatusStore copyForAppend() {
+        StatusStore copy = new StatusStore(rowIndex.copy(), timeStats.copy(), timeSketch.copy());
+        copy.problemIds = problemIds;
+        copy.optimal = optimal;
+        copy.timeTaken = timeTaken;
+        copy.variableCounts = variableCounts;
+        copy.size = size;
+        copy.optimalCount = optimalCount;
+        return copy;
+    }
+
+    /**
+     * 문제 하나의 풀이 결과를 추가합니다.
+     *
+     * @param problemId 문제 번호 (중복 불가)
+     * @param optimality optimal 여부
+     * @param time 문제 푸는데 소요된 시간 (초 단위)
+     * @param variableCount 문제의 변수 개수
+     */
+    public void add(int problemId, boolean optimality, double time, int variableCount) {
+        if (rowIndex.get(problemId) >= 0) {
+            throw new IllegalArgumentException("이미 등록된 문제 번호입니다: " + problemId);
+        }
+        if (size == problemIds.length) {
+            int newLength = Math.max(16, size * 2);
+            problemIds = Arrays.copyOf(problemIds, newLength);
+            optimal = Arrays.copyOf(optimal, newLength);
+            timeTaken = Arrays.copyOf(timeTaken, newLength);
+            variableCounts = Arrays.copyOf(variableCounts, newLength);
+        }
+        problemIds[size] = problemId;
+        optimal[size] = optimality;
+        timeTaken[size] = time;
+        variableCounts[size] = variableCount;
+        rowIndex.put(problemId, size);
+        size++;
+        timeStats.add(time);
+        timeSketch.add(time);
+        if (optimality) {
+            optimalCount++;
+        }
+    }
+
+    /**
+     * 다른 저장소의 행들을 순서대로 뒤에 이어 붙입니다.
+     *
+     * @param other 이어 붙일 저장소
+     */
+    public void addAll(StatusStore other) {
+        for (int row = 0; row < other.size; row++) {
+            add(other.problemIds[row], other.optimal[row], other.timeTaken[row], other.variableCounts[row]);
+        }
+    }
+
+    /**
+     * 문제 번호에 해당하는 행 번호를 반환합니다.
+     *
+     * @param problemId 문제 번호
+     * @return 행 번호, 없는 문제이면 -1
+     */
+    public int getRow(int problemId) {
+        return rowIndex.get(problemId);
+    }
+
+    public int getProblemId(int row) {
+        return problemIds[row];
+    }
+
+    public boolean isOptimal(int row) {
+        return optimal[row];
+    }
+
+    public double getTimeTaken(int row) {
+        return timeTaken[row];
+    }
+
+    public int getVariableCount(int row) {
+        return variableCounts[row];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 힙 메모리 사용량 추정 (바이트, 배열 크기 기준)
+     */
+    public long getHeapBytes() {
+        return 4L * problemIds.length + optimal.length + 8L * timeTaken.length + 4L * variableCounts.length
+                + rowIndex.getHeapBytes();
+    }
+
+    /**
+     * @return 모든 행의 소요 시간 누적 통계 (개수, 합, 최소/최대, 평균, 분산)
+     */
+    public RunningStats getTimeStats() {
+        return timeStats;
+    }
+
+    /**
+     * @return optimal 하게 풀린 문제 개수
+     */
+    public int getOptimalCount() {
+        return optimalCount;
+    }
+
+    /**
+     * @return 모든 행의 소요 시간 분위수 스케치
+     */
+    public QuantileSketch getTimeSketch() {
+        return timeSketch;
+    }
+}
@@ -0,0 +1,137 @@
+package myutil;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * SVG 문서로 그리는 ChartCanvas. 화면(display) 없이 동작합니다.
+ * 이미지(밀도 이미지 등)는 PNG 로 인코딩해 문서 안에 넣습니다.
+ */
+public class SvgCanvas implements ChartCanvas {
+    private static final Font FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+
+    private final int width;
+    private final int height;
+    private final StringBuilder body = new StringBuilder();
+    private final FontMetrics metrics;
+    private Color color = Color.BLACK;
+    private int clipCount;
+    private boolean clipped;
+
+    public SvgCanvas(int width, int height) {
+        this.width = width;
+        this.height = height;
+        // 글자 폭 계산용 (화면 없이도 BufferedImage 로 FontMetrics 를 얻을 수 있음)
+        Graphics2D g2d = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        this.metrics = g2d.getFontMetrics(FONT);
+        g2d.dispose();
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.color = color;
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        body.append("<line x1=\"").append(x1).append("\" y1=\"").append(y1)
+                .append("\" x2=\"").append(x2).append("\" y2=\"").append(y2)
+                .append("\"").append(paint("stroke")).append("/>\n");
+    }
+
+    @Override
+    public void drawRect(int x, int y, int width, int height) {
+        // Graphics2D.drawRect 처럼 선의 중심이 픽셀 가운데 오도록 0.5 이동
+        body.append("<rect x=\"").append(x + 0.5).append("\" y=\"").append(y + 0.5)
+                .append("\" width=\"").append(width).append("\" height=\"").append(height)
+                .append("\" fill=\"none\"").append(paint("stroke")).append("/>\n");
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        body.append("<rect x=\"").append(x).append("\" y=\"").append(y)
+                .append("\" width=\"").append(width).append("\" height=\"").append(height)
+                .append("\"").append(paint("fill")).append("/>\n");
+    }
+
+    @Override
+    public void drawString(String text, int x, int y) {
+        body.append("<text x=\"").append(x).append("\" y=\"").append(y).append("\"")
+                .append(paint("fill")).append(">").append(escape(text)).append("</text>\n");
+    }
+
+    @Override
+    public int stringWidth(String text) {
+        return metrics.stringWidth(text);
+    }
+
+    @Override
+    public void drawImage(BufferedImage image, int x, int y) {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", png);
+        } catch (IOException e) { // 메모리에 쓰므로 실제로는 발생하지 않음
+            throw new UncheckedIOException(e);
+        }
+        body.append("<image x=\"").append(x).append("\" y=\"").append(y)
+                .append("\" width=\"").append(image.getWidth()).append("\" height=\"").append(image.getHeight())
+                .append("\" href=\"data:image/png;base64,")
+                .append(Base64.getEncoder().encodeToString(png.toByteArray())).append("\"/>\n");
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        resetClip();
+        String id = "clip" + clipCount++;
+        body.append("<clipPath id=\"").append(id).append("\"><rect x=\"").append(x).append("\" y=\"").append(y)
+                .append("\" width=\"").append(width).append("\" height=\"").append(height).append("\"/></clipPath>\n");
+        body.append("<g clip-path=\"url(#").append(id).append(")\">\n");
+        clipped = true;
+    }
+
+    @Override
+    public void resetClip() {
+        if (clipped) {
+            body.append("</g>\n");
+            clipped = false;
+        }
+    }
+
+    /**
+     * @return 지금까지 그린 내용의 SVG 문서 (배경은 흰색)
+     */
+    public String toSvg() {
+        resetClip();
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+                + "\" font-family=\"sans-serif\" font-size=\"" + FONT.getSize() + "\">\n"
+                + "<rect width=\"100%\" height=\"100%\" fill=\"white\"/>\n"
+                + body
+                + "</svg>\n";
+    }
+
+    // 현재 색을 stroke 또는 fill 속성으로
+    private String paint(String attribute) {
+        String paint = String.format(" %s=\"#%06x\"", attribute, color.getRGB() & 0xFFFFFF);
+        if (color.getAlpha() < 255) {
+            paint += String.format(Locale.ROOT, " %s-opacity=\"%.3f\"", attribute, color.getAlpha() / 255.0);
+        }
+        return paint;
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,242 @@
+package myutil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 문제(포트폴리오)마다 0 보다 큰 가중치를 큰 순서로 정렬해 둔 색인. (주요 보유 자산)
+ * WeightStore 의 행 row 의 보유 자산이 variables/weights 의 [rowPointers[row], rowPointers[row + 1]) 구간에
+ * 가중치 내림차순(같은 가중치는 변수 번호 오름차순)으로 들어 있으므로, k 번째로 큰 가중치와 상위 k 개 보유 자산을
+ * 정렬 없이 바로(O(1), O(k)) 읽습니다. 같은 가중치도 각각 하나로 셉니다.
+ * 행 번호는 WeightStore 의 행 번호와 같고, 구성한 뒤에 추가된 행은 append 로 뒤에 이어 붙입니다.
+ * ofRow 로 만든 색인은 행 하나만 담으며, 그 행 번호로만 읽을 수 있습니다. (LAZY 저장소에서 모든 행을 읽지 않으려고 사용)
+ */
+public class TopHoldings {
+    private static final int BUILD_BLOCK = 1024; // 병렬로 구성할 때 한 블록의 행 개수
+
+    private int firstRow; // 담고 있는 행 = [firstRow, firstRow + rowCount)
+    private int rowCount;
+    private int[] rowPointers = new int[1];
+    private int[] variables = new int[0];
+    private double[] weights = new double[0];
+
+    /**
+     * WeightStore 의 모든 행을 블록으로 나눠 정렬하여 구성합니다.
+     *
+     * @param weightStore 가중치 저장소
+     * @param parallel true 이면 블록들을 ForkJoin 공용 풀에서 병렬로 정렬
+     */
+    public TopHoldings(WeightStore weightStore, boolean parallel) {
+        List<Block> blocks = ParallelScan.reduce(weightStore.size(), BUILD_BLOCK, (from, to) -> {
+            List<Block> single = new ArrayList<>();
+            single.add(new Block(weightStore, from, to));
+            return single;
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        }, new ArrayList<>(), parallel);
+
+        int total = 0;
+        for (Block block : blocks) {
+            total += block.size;
+        }
+        rowPointers = new int[weightStore.size() + 1];
+        variables = new int[total];
+        weights = new double[total];
+        for (Block block : blocks) { // 블록 순서 = 행 순서
+            block.copyTo(this);
+        }
+    }
+
+    private TopHoldings() {
+    }
+
+    /**
+     * 행 하나만 읽어 정렬한 색인을 만듭니다.
+     *
+     * @param weightStore 가중치 저장소
+     * @param row 행 번호
+     * @return row 만 담은 색인 (getHoldingCount 등은 row 로 호출)
+     */
+    public static TopHoldings ofRow(WeightStore weightStore, int row) {
+        TopHoldings holdings = new TopHoldings();
+        holdings.firstRow = row;
+        new Block(weightStore, row, row + 1).copyTo(holdings);
+        return holdings;
+    }
+
+    /**
+     * 배열을 공유하는 복사본을 만듭니다. 복사본에 append 한 행은 원본의 마지막 행 뒤 위치에만 쓰이므로
+     * 원본을 읽는 스레드에는 보이지 않습니다. 복사본을 만든 뒤에는 원본에 행을 추가하면 안 됩니다.
+     *
+     * @return 추가용 복사본
+     */
+    TopHoldings copyForAppend() {
+        TopHoldings copy = new TopHoldings();
+        copy.firstRow = firstRow;
+        copy.rowCount = rowCount;
+        copy.rowPointers = rowPointers;
+        copy.variables = variables;
+        copy.weights = weights;
+        return copy;
+    }
+
+    /**
+     * WeightStore 의 fromRow 이후 행들을 추가합니다. (refresh 로 늘어난 행)
+     *
+     * @param weightStore 가중치 저장소
+     * @param fromRow 추가할 첫 행 번호 (지금까지의 행 개수와 같아야 함)
+     */
+    public void append(WeightStore weightStore, int fromRow) {
+        if (fromRow != firstRow + rowCount) {
+            throw new IllegalArgumentException("이어 붙일 행 번호가 맞지 않습니다: " + fromRow + " (현재 " + (firstRow + rowCount) + ")");
+        }
+        if (weightStore.size() > fromRow) {
+            new Block(weightStore, fromRow, weightStore.size()).copyTo(this);
+        }
+    }
+
+    /**
+     * @return 행(문제) 개수
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * @return 힙 메모리 사용량 추정 (바이트, 배열 크기 기준)
+     */
+    public long getHeapBytes() {
+        return 4L * rowPointers.length + 4L * variables.length + 8L * weights.length;
+    }
+
+    /**
+     * @param row WeightStore 행 번호
+     * @return 0 보다 큰 가중치 개수
+     */
+    public int getHoldingCount(int row) {
+        return rowPointers[row - firstRow + 1] - rowPointers[row - firstRow];
+    }
+
+    /**
+     * @param row WeightStore 행 번호
+     * @param rank 0 ~ getHoldingCount(row)-1 (0 이 가장 큰 가중치)
+     * @return rank 번째로 큰 가중치의 변수 번호
+     */
+    public int getVariable(int row, int rank) {
+        return variables[rowPointers[row - firstRow] + rank];
+    }
+
+    /**
+     * @param row WeightStore 행 번호
+     * @param rank 0 ~ getHoldingCount(row)-1 (0 이 가장 큰 가중치)
+     * @return rank 번째로 큰 가중치
+     */
+    public double getWeight(int row, int rank) {
+        return weights[rowPointers[row - firstRow] + rank];
+    }
+
+    // 행 [from, to) 의 0 보다 큰 가중치를 행마다 내림차순으로 정렬해 둔 조각
+    private static class Block {
+        private final int[] rowSizes;
+        private int[] variables = new int[64];
+        private double[] weights = new double[64];
+        private int size;
+
+        Block(WeightStore weightStore, int from, int to) {
+            rowSizes = new int[to - from];
+            int[] variableBuffer = new int[64];
+            double[] weightBuffer = new double[64];
+            for (int row = from; row < to; row++) {
+                WeightRow weightRow = weightStore.readRow(row);
+                int start = size;
+                for (int i = 0; i < weightRow.size(); i++) {
+                    double weight = weightRow.getValue(i);
+                    if (weight > 0) {
+                        if (size == weights.length) {
+                            variables = Arrays.copyOf(variables, size * 2);
+                            weights = Arrays.copyOf(weights, size * 2);
+                        }
+                        variables[size] = weightRow.getColumn(i);
+                        weights[size] = weight;
+                        size++;
+                    }
+                }
+                int count = size - start;
+                if (variableBuffer.length < count) {
+                    variableBuffer = new int[count];
+                    weightBuffer = new double[count];
+                }
+                // 행 안은 변수 번호 오름차순이므로 안정 정렬하면 같은 가중치는 변수 번호 순서로 남음
+                sortDescending(variables, weights, start, size, variableBuffer, weightBuffer);
+                rowSizes[row - from] = count;
+            }
+        }
+
+        // 조각의 행들을 holdings 뒤에 이어 붙임 (배열이 모자라면 늘림)
+        void copyTo(TopHoldings holdings) {
+            int offset = holdings.rowPointers[holdings.rowCount];
+            if (holdings.rowPointers.length < holdings.rowCount + rowSizes.length + 1) {
+                holdings.rowPointers = Arrays.copyOf(holdings.rowPointers,
+                        Math.max(holdings.rowCount + rowSizes.length + 1, holdings.rowPointers.length * 2));
+            }
+            if (holdings.variables.length < offset + size) {
+                int capacity = Math.max(offset + size, holdings.variables.length * 2);
+                holdings.variables = Arrays.copyOf(holdings.variables, capacity);
+                holdings.weights = Arrays.copyOf(holdings.weights, capacity);
+            }
+            System.arraycopy(variables, 0, holdings.variables, offset, size);
+            System.arraycopy(weights, 0, holdings.weights, offset, size);
+            for (int rowSize : rowSizes) {
+                offset += rowSize;
+                holdings.rowPointers[++holdings.rowCount] = offset;
+            }
+        }
+    }
+
+    // [from, to) 구간을 가중치 내림차순으로 안정 정렬 (병합 정렬, buffer 는 구간 길이 이상)
+    private static void sortDescending(int[] variables, double[] weights, int from, int to,
+                                       int[] variableBuffer, double[] weightBuffer) {
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+        if (n <= 16) { // 짧은 구간은 삽입 정렬
+            for (int i = from + 1; i < to; i++) {
+                int variable = variables[i];
+                double weight = weights[i];
+                int j = i - 1;
+                while (j >= from && weights[j] < weight) {
+                    variables[j + 1] = variables[j];
+                    weights[j + 1] = weights[j];
+                    j--;
+                }
+                variables[j + 1] = variable;
+                weights[j + 1] = weight;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sortDescending(variables, weights, from, middle, variableBuffer, weightBuffer);
+        sortDescending(variables, weights, middle, to, variableBuffer, weightBuffer);
+        if (weights[middle - 1] >= weights[middle]) {
+            return; // 이미 순서대로
+        }
+        System.arraycopy(variables, from, variableBuffer, 0, n);
+        System.arraycopy(weights, from, weightBuffer, 0, n);
+        int left = 0;
+        int leftEnd = middle - from;
+        int right = leftEnd;
+        for (int i = from; i < to; i++) {
+            // 같으면 왼쪽을 먼저 (안정 정렬)
+            if (right >= n || (left < leftEnd && weightBuffer[left] >= weightBuffer[right])) {
+                variables[i] = variableBuffer[left];
+                weights[i] = weightBuffer[left++];
+            } else {
+                variables[i] = variableBuffer[right];
+                weights[i] = weightBuffer[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package myutil;
+
+import java.util.Arrays;
+
+/**
+ * 값이 하나씩 들어오는 (문제 번호, 값) 쌍에서 값이 가장 큰(또는 작은) K 개를 고르는 선택기.
+ * 크기가 K 로 제한된 primitive 이진 힙에 "지금까지의 K 개" 를 유지하므로, 전체를 정렬하지 않고
+ * N 개를 한 번 훑는 데 O(N log K) 시간과 O(K) 메모리만 씁니다.
+ * 값이 같으면 먼저 들어온 쌍이 앞섭니다. includeTies 이면 K 번째와 값이 같은 쌍도 모두 결과에 포함합니다.
+ * NaN 값은 무시합니다.
+ */
+public class TopKSelector {
+    private final int k;
+    private final boolean largest;
+    private final boolean includeTies;
+
+    // 힙: 루트(0)가 K 개 중 가장 뒤처지는 쌍
+    private final double[] heapValues;
+    private final int[] heapIds;
+    private final long[] heapOrders; // 들어온 순서 (값이 같을 때 먼저 들어온 쪽이 앞섬)
+    private int heapSize;
+
+    // K 번째와 값이 같아 힙에 들어가지 못한 쌍들 (includeTies 일 때만 사용, 값은 모두 힙 루트와 같음)
+    private int[] tieIds = new int[0];
+    private long[] tieOrders = new long[0];
+    private int tieCount;
+
+    private long offered;
+
+    /**
+     * @param k 고를 개수
+     * @param largest true 이면 값이 큰 쪽, false 이면 값이 작은 쪽을 고름
+     * @param includeTies true 이면 K 번째와 값이 같은 쌍도 모두 포함 (결과가 K 개보다 많을 수 있음)
+     */
+    public TopKSelector(int k, boolean largest, boolean includeTies) {
+        this.k = Math.max(0, k);
+        this.largest = largest;
+        this.includeTies = includeTies;
+        this.heapValues = new double[this.k];
+        this.heapIds = new int[this.k];
+        this.heapOrders = new long[this.k];
+    }
+
+    /**
+     * 쌍 하나를 넣습니다. 로딩이나 refresh 중 행이 들어오는 대로 호출할 수 있습니다.
+     *
+     * @param problemId 문제 번호
+     * @param value 비교할 값
+     */
+    public void offer(int problemId, double value) {
+        if (k == 0 || Double.isNaN(value)) {
+            return;
+        }
+        long order = offered++;
+        if (heapSize < k) {
+            heapValues[heapSize] = value;
+            heapIds[heapSize] = problemId;
+            heapOrders[heapSize] = order;
+            siftUp(heapSize++);
+            return;
+        }
+
+        double rootValue = heapValues[0];
+        int compare = compareValues(value, rootValue);
+        if (compare < 0) {
+            return; // K 번째보다 뒤처짐
+        }
+        if (compare == 0) {
+            if (includeTies) {
+                addTie(problemId, order); // 나중에 들어왔으므로 루트보다 뒤
+            }
+            return;
+        }
+
+        // 루트를 밀어내고 새 쌍으로 교체
+        int evictedId = heapIds[0];
+        long evictedOrder = heapOrders[0];
+        heapValues[0] = value;
+        heapIds[0] = problemId;
+        heapOrders[0] = order;
+        siftDown(0);
+        if (includeTies) {
+            if (compareValues(rootValue, heapValues[0]) == 0) {
+                addTie(evictedId, evictedOrder); // 밀려난 쌍이 여전히 K 번째와 같은 값
+            } else {
+                tieCount = 0; // K 번째 값이 올라가 기존 동점은 모두 탈락
+            }
+        }
+    }
+
+    /**
+     * @return 지금까지 고른 문제 번호 (앞설수록 앞, 동점은 들어온 순서)
+     */
+    public int[] result() {
+        // 힙을 복사해 뒤처지는 쌍부터 꺼낸 뒤 뒤집음
+        double[] values = Arrays.copyOf(heapValues, heapSize);
+        int[] ids = Arrays.copyOf(heapIds, heapSize);
+        long[] orders = Arrays.copyOf(heapOrders, heapSize);
+        int[] result = new int[heapSize + tieCount];
+        for (int size = heapSize; size > 0; size--) {
+            result[size - 1] = ids[0];
+            values[0] = values[size - 1];
+            ids[0] = ids[size - 1];
+            orders[0] = orders[size - 1];
+            siftDown(values, ids, orders, size - 1, 0);
+        }
+
+        // 동점은 들어온 순서대로 뒤에 붙임
+        long[] ties = new long[tieCount];
+        for (int i = 0; i < tieCount; i++) {
+            ties[i] = tieOrders[i] << 32 | (tieIds[i] & 0xffffffffL);
+        }
+        Arrays.sort(ties);
+        for (int i = 0; i < tieCount; i++) {
+            result[heapSize + i] = (int) ties[i];
+        }
+        return result;
+    }
+
+    /**
+     * 고른 쌍을 모두 비웁니다. (데이터를 처음부터 다시 읽은 경우)
+     */
+    public void clear() {
+        heapSize = 0;
+        tieCount = 0;
+        offered = 0;
+    }
+
+    /**
+     * @return 지금까지 넣은 쌍 개수 (NaN 제외)
+     */
+    public long getOfferedCount() {
+        return offered;
+    }
+
+    private void addTie(int problemId, long order) {
+        if (tieCount == tieIds.length) {
+            int newLength = Math.max(8, tieCount * 2);
+            tieIds = Arrays.copyOf(tieIds, newLength);
+            tieOrders = Arrays.copyOf(tieOrders, newLength);
+        }
+        tieIds[tieCount] = problemId;
+        tieOrders[tieCount] = order;
+        tieCount++;
+    }
+
+    // 값이 앞서면 양수 (largest 이면 큰 값, 아니면 작은 값이 앞섬)
+    private int compareValues(double a, double b) {
+        return largest ? Double.compare(a, b) : Double.compare(b, a);
+    }
+
+    // i 가 j 보다 뒤처지면 true (값이 같으면 나중에 들어온 쪽이 뒤처짐)
+    private boolean worse(double[] values, long[] orders, int i, int j) {
+        int compare = compareValues(values[i], values[j]);
+        return compare < 0 || (compare == 0 && orders[i] > orders[j]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(heapValues, heapOrders, i, parent)) {
+                break;
+            }
+            swap(heapValues, heapIds, heapOrders, i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        siftDown(heapValues, heapIds, heapOrders, heapSize, i);
+    }
+
+    private void siftDown(double[] values, int[] ids, long[] orders, int size, int i) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && worse(values, orders, child + 1, child)) {
+                child++;
+            }
+            if (!worse(values, orders, child, i)) {
+                return;
+            }
+            swap(values, ids, orders, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(double[] values, int[] ids, long[] orders, int i, int j) {
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        long order = orders[i];
+        orders[i] = orders[j];
+        orders[j] = order;
+    }
+}
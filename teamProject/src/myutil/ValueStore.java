@@ -0,0 +1,168 @@
+package myutil;
+
+import java.util.Arrays;
+
+/**
+ * result_value.csv 의 (risk, return) 값을 컬럼 단위 primitive 배열로 저장하는 저장소.
+ * 행(row) 번호는 파일에 나온 순서이며, 문제 번호 -> 행 번호는 RowIndex 로 찾습니다.
+ * 행을 추가할 때마다 risk, return 의 누적 통계와 분위수 스케치를 함께 갱신합니다.
+ */
+public class ValueStore {
+    private int[] problemIds = new int[0];
+    private double[] risks = new double[0];
+    private double[] returns = new double[0];
+    private final RowIndex rowIndex;
+    private int size;
+    private final RunningStats riskStats;
+    private final RunningStats returnStats;
+    private final QuantileSketch riskSketch;
+    private final QuantileSketch returnSketch;
+
+    public ValueStore() {
+        this(new RowIndex(), new RunningStats(), new RunningStats(), new QuantileSketch(), new QuantileSketch());
+    }
+
+    private ValueStore(RowIndex rowIndex, RunningStats riskStats, RunningStats returnStats,
+                       QuantileSketch riskSketch, QuantileSketch returnSketch) {
+        this.rowIndex = rowIndex;
+        this.riskStats = riskStats;
+        this.returnStats = returnStats;
+        this.riskSketch = riskSketch;
+        this.returnSketch = returnSketch;
+    }
+
+    /**
+     * 이미 만들어진 컬럼 배열로 저장소를 구성합니다. (바이너리 스냅샷에서 사용)
+     */
+    ValueStore(int[] problemIds, double[] risks, double[] returns) {
+        this();
+        this.problemIds = problemIds;
+        this.risks = risks;
+        this.returns = returns;
+        this.size = problemIds.length;
+        for (int row = 0; row < size; row++) {
+            rowIndex.put(problemIds[row], row);
+            riskStats.add(risks[row]);
+            returnStats.add(returns[row]);
+            riskSketch.add(risks[row]);
+            returnSketch.add(returns[row]);
+        }
+    }
+
+    /**
+     * 컬럼 배열을 공유하는 복사본을 만듭니다. 복사본에 추가한 행은 원본의 마지막 행 뒤 위치에만 쓰이므로
+     * 원본을 읽는 스레드에는 보이지 않습니다. (문제 번호 색인과 누적 통계는 복사)
+     * 복사본을 만든 뒤에는 원본에 행을 추가하면 안 됩니다.
+     *
+     * @return 추가용 복사본
+     */
+    ValueStore copyForAppend() {
+        ValueStore copy = new ValueStore(rowIndex.copy(), riskStats.copy(), returnStats.copy(),
+                riskSketch.copy(), returnSketch.copy());
+        copy.problemIds = problemIds;
+        copy.risks = risks;
+        copy.returns = returns;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * 문제 하나의 위험, 수익률 값을 추가합니다.
+     *
+     * @param problemId 문제 번호 (중복 불가)
+     * @param risk 위험 값
+     * @param ret 수익률 값
+     */
+    public void add(int problemId, double risk, double ret) {
+        if (rowIndex.get(problemId) >= 0) {
+            throw new IllegalArgumentException("이미 등록된 문제 번호입니다: " + problemId);
+        }
+        if (size == problemIds.length) {
+            int newLength = Math.max(16, size * 2);
+            problemIds = Arrays.copyOf(problemIds, newLength);
+            risks = Arrays.copyOf(risks, newLength);
+            returns = Arrays.copyOf(returns, newLength);
+        }
+        problemIds[size] = problemId;
+        risks[size] = risk;
+        returns[size] = ret;
+        rowIndex.put(problemId, size);
+        size++;
+        riskStats.add(risk);
+        returnStats.add(ret);
+        riskSketch.add(risk);
+        returnSketch.add(ret);
+    }
+
+    /**
+     * 다른 저장소의 행들을 순서대로 뒤에 이어 붙입니다.
+     *
+     * @param other 이어 붙일 저장소
+     */
+    public void addAll(ValueStore other) {
+        for (int row = 0; row < other.size; row++) {
+            add(other.problemIds[row], other.risks[row], other.returns[row]);
+        }
+    }
+
+    /**
+     * 문제 번호에 해당하는 행 번호를 반환합니다.
+     *
+     * @param problemId 문제 번호
+     * @return 행 번호, 없는 문제이면 -1
+     */
+    public int getRow(int problemId) {
+        return rowIndex.get(problemId);
+    }
+
+    public int getProblemId(int row) {
+        return problemIds[row];
+    }
+
+    public double getRisk(int row) {
+        return risks[row];
+    }
+
+    public double getReturn(int row) {
+        return returns[row];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 힙 메모리 사용량 추정 (바이트, 배열 크기 기준)
+     */
+    public long getHeapBytes() {
+        return 4L * problemIds.length + 8L * risks.length + 8L * returns.length + rowIndex.getHeapBytes();
+    }
+
+    /**
+     * @return 모든 행의 risk 누적 통계
+     */
+    public RunningStats getRiskStats() {
+        return riskStats;
+    }
+
+    /**
+     * @return 모든 행의 return 누적 통계
+     */
+    public RunningStats getReturnStats() {
+        return returnStats;
+    }
+
+    /**
+     * @return 모든 행의 risk 분위수 스케치
+     */
+    public QuantileSketch getRiskSketch() {
+        return riskSketch;
+    }
+
+    /**
+     * @return 모든 행의 return 분위수 스케치
+     */
+    public QuantileSketch getReturnSketch() {
+        return returnSketch;
+    }
+}
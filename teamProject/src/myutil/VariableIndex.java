@@ -0,0 +1,199 @@
+package myutil;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * 변수 번호 -> 그 변수를 사용하는 문제 번호 목록의 역색인(inverted index).
+ * 가중치 행렬을 열 방향으로 뒤집은 형태(CSC)로, 변수 v 를 사용하는 문제 번호들이
+ * problemIds 의 [variablePointers[v], variablePointers[v + 1]) 구간에 오름차순으로 들어 있습니다.
+ * WeightStore 와 마찬가지로 힙 배열을 감싼 버퍼 또는 바이너리 스냅샷을 map 한 버퍼를 사용합니다.
+ * 구성한 뒤에 추가된 행(append)은 변수별 배열(tail)에 이어 붙이므로, 변수 v 의 문제 번호는
+ * CSC 구간 다음에 tail 이 오는 순서로 getProblemId(v, i) 로 읽습니다.
+ */
+public class VariableIndex {
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private IntBuffer variablePointers; // 변수 v 의 시작 위치 = variablePointers[v], 끝 위치 = variablePointers[v + 1]
+    private IntBuffer problemIds;
+    private int[][] tails;       // 구성 이후 추가된 문제 번호 (변수별, 오름차순)
+    private int[] tailCounts;
+    private int maxProblemId = UNKNOWN; // 지금까지 들어온 가장 큰 문제 번호
+
+    /**
+     * WeightStore 의 행들을 한 번 순회하여 역색인을 구성합니다. (0 이 아닌 가중치 개수에 비례하는 시간)
+     *
+     * @param weightStore 가중치 저장소
+     */
+    public VariableIndex(WeightStore weightStore) {
+        build(weightStore);
+    }
+
+    /**
+     * 이미 만들어진 역색인 버퍼로 구성합니다. (바이너리 스냅샷에서 사용)
+     *
+     * @param variablePointers 변수별 시작 위치 (길이 변수 개수 + 1)
+     * @param problemIds 변수별로 모은 문제 번호
+     */
+    VariableIndex(IntBuffer variablePointers, IntBuffer problemIds) {
+        this.variablePointers = variablePointers;
+        this.problemIds = problemIds;
+        int variableCount = variablePointers.capacity() - 1;
+        this.tails = new int[variableCount][];
+        this.tailCounts = new int[variableCount];
+    }
+
+    // WeightStore 전체로 CSC 구간을 다시 만들고 tail 을 비움
+    private void build(WeightStore weightStore) {
+        int variableCount = weightStore.getVariableCount();
+        int[][] lists = new int[variableCount][];
+        int[] counts = new int[variableCount];
+
+        // 1) 행 순서대로 변수별 문제 번호 모으기
+        boolean sorted = true;
+        maxProblemId = -1;
+        for (int row = 0; row < weightStore.size(); row++) {
+            WeightRow weightRow = weightStore.readRow(row);
+            int problemId = weightRow.getProblemId();
+            sorted &= problemId > maxProblemId;
+            maxProblemId = Math.max(maxProblemId, problemId);
+            for (int i = 0; i < weightRow.size(); i++) {
+                int v = weightRow.getColumn(i);
+                if (lists[v] == null) {
+                    lists[v] = new int[8];
+                } else if (counts[v] == lists[v].length) {
+                    lists[v] = Arrays.copyOf(lists[v], counts[v] * 2);
+                }
+                lists[v][counts[v]++] = problemId;
+            }
+        }
+        // 2) 누적합으로 시작 위치를 계산하고 하나의 배열로 합치기
+        int[] variablePointers = new int[variableCount + 1];
+        for (int v = 0; v < variableCount; v++) {
+            variablePointers[v + 1] = variablePointers[v] + counts[v];
+        }
+        int[] problemIds = new int[variablePointers[variableCount]];
+        for (int v = 0; v < variableCount; v++) {
+            if (counts[v] > 0) {
+                System.arraycopy(lists[v], 0, problemIds, variablePointers[v], counts[v]);
+            }
+            lists[v] = null;
+        }
+        // 행이 문제 번호 순서로 들어오지 않았다면 변수별 구간을 정렬
+        if (!sorted) {
+            for (int v = 0; v < variableCount; v++) {
+                Arrays.sort(problemIds, variablePointers[v], variablePointers[v + 1]);
+            }
+        }
+        this.variablePointers = IntBuffer.wrap(variablePointers);
+        this.problemIds = IntBuffer.wrap(problemIds);
+        this.tails = new int[variableCount][];
+        this.tailCounts = new int[variableCount];
+    }
+
+    /**
+     * CSC 구간과 변수별 tail 배열을 공유하는 복사본을 만듭니다. 복사본에 append 한 문제 번호는 tail 의 기존 개수
+     * 뒤에만 쓰이므로 원본을 읽는 스레드에는 보이지 않습니다. 복사본을 만든 뒤에는 원본에 행을 추가하면 안 됩니다.
+     *
+     * @return 추가용 복사본
+     */
+    VariableIndex copyForAppend() {
+        VariableIndex copy = new VariableIndex(variablePointers, problemIds);
+        copy.tails = tails.clone();
+        copy.tailCounts = tailCounts.clone();
+        copy.maxProblemId = maxProblemId;
+        return copy;
+    }
+
+    /**
+     * WeightStore 에 새로 추가된 행들을 역색인에 반영합니다. (추가된 0 이 아닌 가중치 개수에 비례하는 시간)
+     * 추가된 문제 번호가 이미 있는 번호보다 작으면 오름차순을 지키기 위해 전체를 다시 구성합니다.
+     *
+     * @param weightStore 행이 추가된 가중치 저장소
+     * @param fromRow 새로 추가된 첫 행 번호
+     */
+    public void append(WeightStore weightStore, int fromRow) {
+        if (maxProblemId == UNKNOWN) { // 스냅샷에서 연 경우 처음 추가할 때 계산
+            maxProblemId = -1;
+            for (int row = 0; row < fromRow; row++) {
+                maxProblemId = Math.max(maxProblemId, weightStore.getProblemId(row));
+            }
+        }
+        for (int row = fromRow; row < weightStore.size(); row++) {
+            if (weightStore.getProblemId(row) <= maxProblemId) {
+                build(weightStore);
+                return;
+            }
+            maxProblemId = weightStore.getProblemId(row);
+        }
+        for (int row = fromRow; row < weightStore.size(); row++) {
+            WeightRow weightRow = weightStore.readRow(row);
+            for (int i = 0; i < weightRow.size(); i++) {
+                int v = weightRow.getColumn(i);
+                if (tails[v] == null) {
+                    tails[v] = new int[8];
+                } else if (tailCounts[v] == tails[v].length) {
+                    tails[v] = Arrays.copyOf(tails[v], tailCounts[v] * 2);
+                }
+                tails[v][tailCounts[v]++] = weightRow.getProblemId();
+            }
+        }
+    }
+
+    /**
+     * @param variableIndex 변수 번호 (0-based index)
+     * @return 변수를 사용하는 문제 개수
+     */
+    public int getProblemCount(int variableIndex) {
+        return variablePointers.get(variableIndex + 1) - variablePointers.get(variableIndex) + tailCounts[variableIndex];
+    }
+
+    /**
+     * @param variableIndex 변수 번호 (0-based index)
+     * @param i 0 ~ getProblemCount(variableIndex)-1 사이의 순번
+     * @return 변수를 사용하는 i 번째 문제 번호 (오름차순)
+     */
+    public int getProblemId(int variableIndex, int i) {
+        int start = variablePointers.get(variableIndex);
+        int baseCount = variablePointers.get(variableIndex + 1) - start;
+        return i < baseCount ? problemIds.get(start + i) : tails[variableIndex][i - baseCount];
+    }
+
+    /**
+     * @param variableIndex 변수 번호 (0-based index)
+     * @return 변수를 사용하는 문제 번호 배열 (오름차순, 복사본)
+     */
+    public int[] getProblemIds(int variableIndex) {
+        int start = variablePointers.get(variableIndex);
+        int baseCount = variablePointers.get(variableIndex + 1) - start;
+        int[] result = new int[baseCount + tailCounts[variableIndex]];
+        problemIds.get(start, result, 0, baseCount);
+        if (tailCounts[variableIndex] > 0) {
+            System.arraycopy(tails[variableIndex], 0, result, baseCount, tailCounts[variableIndex]);
+        }
+        return result;
+    }
+
+    public int getVariableCount() {
+        return variablePointers.capacity() - 1;
+    }
+
+    /**
+     * @return 힙 메모리 사용량 추정 (바이트, 배열 크기 기준, 스냅샷을 map 한 버퍼는 힙 밖이므로 제외)
+     */
+    public long getHeapBytes() {
+        long bytes = 4L * tailCounts.length;
+        if (variablePointers.hasArray()) {
+            bytes += 4L * variablePointers.capacity();
+        }
+        if (problemIds.hasArray()) {
+            bytes += 4L * problemIds.capacity();
+        }
+        for (int[] tail : tails) {
+            if (tail != null) {
+                bytes += 4L * tail.length;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,74 @@
+package myutil;
+
+import java.nio.DoubleBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * 한 문제의 0 이 아닌 가중치들 (변수 번호 오름차순).
+ * columns/values 버퍼의 [start, end) 구간을 가리키는 뷰이므로 복사 없이 만들어집니다.
+ */
+public final class WeightRow {
+    private final int problemId;
+    private final ShortBuffer columns;
+    private final DoubleBuffer values;
+    private final int start;
+    private final int end;
+
+    WeightRow(int problemId, ShortBuffer columns, DoubleBuffer values, int start, int end) {
+        this.problemId = problemId;
+        this.columns = columns;
+        this.values = values;
+        this.start = start;
+        this.end = end;
+    }
+
+    public int getProblemId() {
+        return problemId;
+    }
+
+    /**
+     * @return 0 이 아닌 가중치 개수
+     */
+    public int size() {
+        return end - start;
+    }
+
+    /**
+     * @param i 0 ~ size()-1
+     * @return i 번째 0 이 아닌 가중치의 변수 번호
+     */
+    public int getColumn(int i) {
+        return columns.get(start + i);
+    }
+
+    /**
+     * @param i 0 ~ size()-1
+     * @return i 번째 0 이 아닌 가중치 값
+     */
+    public double getValue(int i) {
+        return values.get(start + i);
+    }
+
+    /**
+     * 변수 번호로 가중치를 찾습니다. 행 안에서 이진 탐색합니다.
+     *
+     * @param variableIndex 변수 번호 (0-based index)
+     * @return 가중치 값 (저장되지 않은 -1/0 위치는 0)
+     */
+    public double getWeight(int variableIndex) {
+        int low = start;
+        int high = end - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int column = columns.get(mid);
+            if (column < variableIndex) {
+                low = mid + 1;
+            } else if (column > variableIndex) {
+                high = mid - 1;
+            } else {
+                return values.get(mid);
+            }
+        }
+        return 0.0;
+    }
+}
@@ -0,0 +1,55 @@
+package myutil;
+
+/**
+ * 문제별 가중치 행에 접근하는 저장소.
+ * 행(row) 번호는 0 ~ size()-1 이며, 각 행은 0 이 아닌 가중치만 담은 WeightRow 로 읽습니다.
+ *
+ * CsrWeightStore: 모든 행을 CSR 형식으로 메모리(또는 map 한 스냅샷)에 올려 둠
+ * LazyWeightStore: 행 위치만 기억해 두고 처음 접근할 때 CSV 파일에서 읽음
+ */
+public interface WeightStore {
+
+    /**
+     * 문제 번호에 해당하는 행 번호를 반환합니다.
+     *
+     * @param problemId 문제 번호
+     * @return 행 번호, 가중치가 없는 문제이면 -1
+     */
+    int getRow(int problemId);
+
+    /**
+     * 행 번호에 해당하는 문제 번호를 반환합니다.
+     *
+     * @param row 행 번호 (0 ~ size()-1)
+     * @return 문제 번호
+     */
+    int getProblemId(int row);
+
+    /**
+     * 한 행의 0 이 아닌 가중치들을 읽습니다.
+     *
+     * @param row 행 번호 (0 ~ size()-1)
+     * @return 가중치 행
+     */
+    WeightRow readRow(int row);
+
+    /**
+     * 특정 행의 변수 가중치를 반환합니다.
+     *
+     * @param row 행 번호 (0 ~ size()-1)
+     * @param variableIndex 변수 번호 (0-based index)
+     * @return 가중치 값 (저장되지 않은 -1/0 위치는 0)
+     */
+    default double getWeight(int row, int variableIndex) {
+        return readRow(row).getWeight(variableIndex);
+    }
+
+    int size();
+
+    /**
+     * @return 힙 메모리 사용량 추정 (바이트, 배열 크기 기준, 파일을 map 한 버퍼는 힙 밖이므로 제외)
+     */
+    long getHeapBytes();
+
+    int getVariableCount();
+}
@@ -0,0 +1,84 @@
+package service;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 화면 없이 Return/Risk 히스토그램과 효율적 투자선 그림을 파일로 저장하는 배치 실행기. (야간 결과 보고서용)
+ * 데이터는 한 번만 불러오고, 그림들은 여러 스레드에서 동시에 그립니다.
+ *
+ * 사용법: ChartBatchRunner [출력 폴더] [형식...]
+ *   출력 폴더 기본값: charts, 형식: png, svg (기본값: png)
+ * 예) java -cp ... service.ChartBatchRunner report/charts png svg
+ */
+public class ChartBatchRunner {
+    public static void main(String[] args) throws InterruptedException {
+        System.setProperty("java.awt.headless", "true"); // AWT 를 쓰기 전에 설정해야 함
+
+        File outputDir = new File(args.length > 0 ? args[0] : "charts");
+        List<String> formats = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            String format = args[i].toLowerCase();
+            if (!format.equals("png") && !format.equals("svg")) {
+                System.err.println("지원하지 않는 형식입니다: " + args[i] + " (png, svg 만 가능)");
+                System.exit(2);
+            }
+            formats.add(format);
+        }
+        if (formats.isEmpty()) {
+            formats.add("png");
+        }
+
+        long start = System.nanoTime();
+        MyService service = new MyService();
+        List<double[]> histogramReturn = service.generateHistogram(MyService.Metric.RETURN, 20);
+        List<double[]> histogramRisk = service.generateHistogram(MyService.Metric.RISK, 20);
+        System.out.printf("데이터 불러오기 완료 (%.1f초)%n", (System.nanoTime() - start) / 1e9);
+
+        // 그림 하나 = 작업 하나
+        List<Callable<File>> jobs = new ArrayList<>();
+        for (String format : formats) {
+            File returnFile = new File(outputDir, "histogram_return." + format);
+            File riskFile = new File(outputDir, "histogram_risk." + format);
+            File frontierFile = new File(outputDir, "efficient_frontier." + format);
+            jobs.add(() -> {
+                service.exportHistogram(histogramReturn, returnFile);
+                return returnFile;
+            });
+            jobs.add(() -> {
+                service.exportHistogram(histogramRisk, riskFile);
+                return riskFile;
+            });
+            jobs.add(() -> {
+                service.exportEfficientFrontier(frontierFile);
+                return frontierFile;
+            });
+        }
+
+        int threads = Math.min(jobs.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int failed = 0;
+        try {
+            for (Future<File> result : executor.invokeAll(jobs)) {
+                try {
+                    System.out.println("저장 완료: " + result.get().getPath());
+                } catch (ExecutionException e) {
+                    failed++;
+                    System.err.println("그림 파일 쓰기 중 오류 발생: " + e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        System.out.printf("그림 %d개 저장, 실패 %d개 (%.1f초)%n", jobs.size() - failed, failed,
+                (System.nanoTime() - start) / 1e9);
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
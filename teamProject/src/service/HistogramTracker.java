@@ -0,0 +1,48 @@
+package service;
+
+import myutil.FixedHistogram;
+import myutil.Maps;
+
+import java.util.List;
+
+/**
+ * 지표 값의 히스토그램을 계속 갱신하는 집계. MyService.trackHistogram 으로 만듭니다.
+ * 구간은 만들 때의 최소/최대로 고정되므로 범위 밖의 새 값은 getUnderflow/getOverflow 로 셉니다.
+ * 파일을 처음부터 다시 읽은 경우에도 구간은 그대로 두고 개수만 다시 셉니다.
+ *
+ * 사용 예) try (HistogramTracker histogram = service.trackHistogram(Metric.RETURN, 20)) { ... histogram.result() ... }
+ */
+public class HistogramTracker extends MetricTracker {
+    private final FixedHistogram histogram;
+
+    HistogramTracker(Maps maps, MyService.Metric metric, FixedHistogram shape) {
+        super(maps, metric);
+        this.histogram = shape.emptyCopy();
+    }
+
+    @Override
+    protected void add(int problemId, double value) {
+        histogram.add(value);
+    }
+
+    @Override
+    protected void reset() {
+        histogram.clear();
+    }
+
+    /**
+     * @return 지금까지의 히스토그램 (복사본이므로 이후 갱신과 무관하고 고쳐도 됨)
+     */
+    public synchronized FixedHistogram result() {
+        FixedHistogram copy = histogram.emptyCopy();
+        copy.merge(histogram);
+        return copy;
+    }
+
+    /**
+     * @return 지금까지의 구간별 데이터 배열 (generateHistogram 과 같은 형식)
+     */
+    public synchronized List<double[]> toList() {
+        return histogram.toList();
+    }
+}
@@ -0,0 +1,90 @@
+package service;
+
+import myutil.Dataset;
+import myutil.Maps;
+
+/**
+ * 지표(MyService.Metric) 값을 행 순서대로 세어 두고, 이후 refresh 로 추가되는 행도 계속 반영하는 집계의 공통 부분.
+ * 세어 둔 행 개수를 기억해 두고, 알림을 받을 때마다 게시된 버전 하나를 잡아 그 뒤의 행만 더합니다.
+ * 리스너를 먼저 등록한 뒤 처음 집계를 하므로 그 사이에 추가된 행도 빠지지 않고, 이미 센 행은 다시 세지 않습니다.
+ * 집계와 조회는 이 객체의 잠금으로 보호하므로 refresh 스레드와 조회 스레드가 함께 써도 됩니다.
+ * 더 쓰지 않으면 close 로 리스너 등록을 해제해야 합니다.
+ */
+public abstract class MetricTracker implements AutoCloseable {
+    private final Maps maps;
+    protected final MyService.Metric metric;
+    private final Maps.ChangeListener listener;
+    private int countedRows; // 지금까지 센 지표 대상 행 개수 (TIME 은 Status 행, 나머지는 Value 행)
+    private boolean closed;
+
+    MetricTracker(Maps maps, MyService.Metric metric) {
+        this.maps = maps;
+        this.metric = metric;
+        this.listener = new Maps.ChangeListener() {
+            @Override
+            public void rowsAppended(int weightFromRow, int statusFromRow, int valueFromRow) {
+                catchUp();
+            }
+
+            @Override
+            public void reloaded() {
+                synchronized (MetricTracker.this) {
+                    reset();
+                    countedRows = 0;
+                    catchUp();
+                }
+            }
+        };
+    }
+
+    // 하위 클래스 생성자가 끝난 뒤 호출 (리스너 등록 -> 처음 집계)
+    final void start() {
+        maps.addChangeListener(listener);
+        catchUp();
+    }
+
+    // 게시된 버전에서 아직 세지 않은 행들을 더함
+    private synchronized void catchUp() {
+        if (closed) {
+            return;
+        }
+        try (Dataset data = maps.acquire()) {
+            int rows = MyService.rowCount(data, metric);
+            for (int row = countedRows; row < rows; row++) {
+                add(MyService.metricProblemId(data, metric, row), MyService.metricValue(data, metric, row));
+            }
+            countedRows = Math.max(countedRows, rows);
+        }
+    }
+
+    /**
+     * 행 하나의 지표 값을 집계에 더합니다. (잠금을 잡은 상태로 호출됨)
+     *
+     * @param problemId 문제 번호
+     * @param value 지표 값 (수익률/위험이 없으면 NaN)
+     */
+    protected abstract void add(int problemId, double value);
+
+    /**
+     * 집계를 비웁니다. 파일을 처음부터 다시 읽은 경우 호출됩니다. (잠금을 잡은 상태로 호출됨)
+     */
+    protected abstract void reset();
+
+    /**
+     * @return 지금까지 센 행 개수
+     */
+    public synchronized int getCountedRows() {
+        return countedRows;
+    }
+
+    /**
+     * 리스너 등록을 해제합니다. 이후에는 새 행을 반영하지 않고 마지막 집계 결과만 반환합니다.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            maps.removeChangeListener(listener);
+        }
+    }
+}
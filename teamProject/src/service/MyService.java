@@ -1,20 +1,188 @@
 package service;
 
+import myutil.AssetExposure;
+import myutil.BinarySnapshot;
+import myutil.ChartExporter;
+import myutil.Dataset;
+import myutil.EfficientFrontier;
+import myutil.FixedHistogram;
 import myutil.HistogramPanel;
 import myutil.Maps;
-import myutil.Maps.StatusNode; // StatusNode 클래스 직접 사용
+import myutil.Metrics;
+import myutil.ParallelScan;
+import myutil.QuantileSketch;
+import myutil.ResultCache;
+import myutil.RunningStats;
 import myutil.ScatterPlotSimple;
+import myutil.SortedIndex;
+import myutil.StatusStore;
+import myutil.TopHoldings;
+import myutil.TopKSelector;
+import myutil.ValueStore;
+import myutil.VariableIndex;
+import myutil.WeightRow;
+import myutil.WeightStore;
 
 import javax.swing.*;
+import java.awt.GraphicsEnvironment;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Supplier;
 
 public class MyService {
 
+    private static final String WEIGHT_FILE = "result_weight_v2.csv";
+    private static final String STATUS_FILE = "result_status.csv";
+    private static final String VALUE_FILE = "result_value.csv";
+
+    private static final int HISTOGRAM_CHUNK = 1 << 16; // 히스토그램을 병렬로 셀 때 한 조각의 행 개수
+
+    private static final int VARIABLE_SCAN_BLOCK = 1024; // 변수별 평균을 병렬로 셀 때 한 블록의 행 개수
+
     private Maps maps; // Maps 객체를 필드로 선언
 
+    // 정렬 결과, 히스토그램 등 다시 만들기 비싼 조회 결과 (데이터 버전이 바뀌면 비움, -Dservice.cacheEntries=0 이면 끔)
+    private final ResultCache resultCache = new ResultCache(
+            Integer.getInteger("service.cacheEntries", ResultCache.DEFAULT_MAX_ENTRIES));
+    private volatile boolean cacheEnabled = true;
+
+    // 분석 쿼리를 ForkJoin 공용 풀에서 병렬로 실행할지 (-Dservice.parallel=false 이면 순차, 결과는 같음)
+    private volatile boolean parallel = Boolean.parseBoolean(System.getProperty("service.parallel", "true"));
+
     public MyService() {
-        // Maps 객체 초기화
-        maps = new Maps("result_weight_v2.csv", "result_status.csv", "result_value.csv");
+        // Maps 객체 초기화 (CSV 보다 최신인 스냅샷이 있으면 스냅샷을 map)
+        if (isSnapshotUpToDate(BinarySnapshot.DEFAULT_FILE)) {
+            maps = new Maps(BinarySnapshot.DEFAULT_FILE);
+        } else {
+            maps = new Maps(WEIGHT_FILE, STATUS_FILE, VALUE_FILE);
+        }
+        Metrics.watch(maps);
+    }
+
+    public MyService(Maps maps) {
+        this.maps = maps;
+        Metrics.watch(maps);
+    }
+
+    // 스냅샷 파일이 있고 세 CSV 파일보다 나중에 만들어졌는지 확인
+    private static boolean isSnapshotUpToDate(String snapshotFile) {
+        File snapshot = new File(snapshotFile);
+        if (!snapshot.isFile()) {
+            return false;
+        }
+        for (String csvFile : new String[]{WEIGHT_FILE, STATUS_FILE, VALUE_FILE}) {
+            File csv = new File(csvFile);
+            if (csv.exists() && csv.lastModified() > snapshot.lastModified()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 조회 하나를 게시된 Dataset 버전 하나로 실행하고, 시간과 (호출 스레드의) 메모리 할당량을 Metrics 에 기록
+    private <T> T timed(String query, Function<Dataset, T> body) {
+        return measured(query, () -> {
+            try (Dataset data = maps.acquire()) {
+                return body.apply(data);
+            }
+        });
+    }
+
+    // Dataset 을 읽지 않는 조회(인자로 받은 값만 계산)의 시간과 메모리 할당량을 Metrics 에 기록
+    private static <T> T measured(String query, Supplier<T> body) {
+        long allocationMark = Metrics.allocationMark();
+        long start = System.nanoTime();
+        try {
+            return body.get();
+        } finally {
+            Metrics.recordQuery(query, System.nanoTime() - start, allocationMark);
+        }
+    }
+
+    // 여러 값을 함께 읽는 조회를 게시된 Dataset 버전 하나로 실행 (도중에 refresh 가 일어나도 같은 버전만 봄)
+    private <T> T read(Function<Dataset, T> body) {
+        try (Dataset data = maps.acquire()) {
+            return body.apply(data);
+        }
+    }
+
+    // 같은 버전에서 같은 조회 이름과 인자로 다시 호출하면 계산하지 않고 캐시된 결과를 반환
+    private <T> T cached(Dataset data, Supplier<T> body, Object... key) {
+        if (!cacheEnabled) {
+            return body.get();
+        }
+        return resultCache.get(data.getVersion(), Arrays.asList(key), body);
+    }
+
+    /**
+     * 로딩 단계별 시간, 조회별 시간 분포/할당량, 구조별 힙 사용량을 보여 주는 통계 문자열을 반환합니다.
+     * 같은 내용을 JMX (teamproject:type=Metrics) 로도 볼 수 있습니다.
+     *
+     * @return 통계 보고서
+     */
+    public String getStatsReport() {
+        return Metrics.get().getReport() + String.format("[결과 캐시] 항목 %d / %d, 적중 %d, 계산 %d%s%n",
+                resultCache.size(), resultCache.getMaxEntries(), resultCache.getHitCount(), resultCache.getMissCount(),
+                cacheEnabled ? "" : " (꺼짐)");
+    }
+
+    /**
+     * 조회 결과 캐시의 사용 여부를 정합니다. 끄면 보관한 결과도 버립니다. (벤치마크 등에서 매번 계산할 때 사용)
+     *
+     * @param enabled true 이면 같은 버전의 같은 조회는 캐시된 결과를 반환
+     */
+    public void setCacheEnabled(boolean enabled) {
+        this.cacheEnabled = enabled;
+        if (!enabled) {
+            resultCache.clear();
+        }
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    /**
+     * 분석 쿼리의 병렬 실행 여부를 정합니다.
+     * 블록 크기와 합치는 순서가 고정되어 있으므로 병렬/순차 모두 같은 결과(부동소수점 합 포함)를 반환합니다.
+     *
+     * @param parallel true 이면 병렬 실행
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * 게시된 버전에서 색인을 쓰는 조회가 색인을 새로 구성하지 않고 바로 답할 수 있는지 반환합니다.
+     * (QueryServer 가 색인을 처음 구성할 조회를 무거운 작업으로 제한할 때 사용)
+     *
+     * @param index 색인 종류
+     * @return 이미 구성되었으면 true
+     */
+    public boolean isIndexReady(Dataset.Index index) {
+        return read(data -> data.isIndexReady(index));
+    }
+
+    /**
+     * 실행 중인 solver 가 결과 CSV 파일에 새로 이어 쓴 문제들을 읽어 반영합니다.
+     *
+     * @return 새로 추가된 문제 개수
+     */
+    public int refresh() {
+        return maps.refresh();
     }
 
     /**
@@ -23,46 +191,150 @@ public class MyService {
      * @return 총 걸린 시간 (초 단위)
      */
     public double getTotalTime() {
-        double totalTime = 0.0;
+        // statusStore 가 행을 추가할 때마다 누적한 합계
+        return maps.getStatusStore().getTimeStats().getSum();
+    }
 
-        // statusMap에서 데이터를 가져와 합산
-        for (Map.Entry<Integer, StatusNode> entry : maps.getStatusMap().entrySet()) {
-            totalTime += entry.getValue().getTimeTaken();
-        }
+    /**
+     * @return 문제 풀이 소요 시간의 누적 통계 (개수, 합, 최소/최대, 평균, 분산)
+     */
+    public RunningStats getTimeStats() {
+        return maps.getStatusStore().getTimeStats();
+    }
+
+    /**
+     * @return 포트폴리오 위험(risk)의 누적 통계
+     */
+    public RunningStats getRiskStats() {
+        return maps.getValueStore().getRiskStats();
+    }
 
-        return totalTime;
+    /**
+     * @return 포트폴리오 수익률(return)의 누적 통계
+     */
+    public RunningStats getReturnStats() {
+        return maps.getValueStore().getReturnStats();
     }
 
     /**
      * 특정 변수를 포함한 문제들의 평균 소요 시간을 계산합니다.
+     * 가중치가 -1(사용하지 않음) 또는 0 인 문제는 해당 변수를 포함하지 않은 것으로 봅니다.
      *
      * @param variableIndex 포함 여부를 확인할 변수 번호 (0-based index)
      * @return 평균 소요 시간 (초 단위)
      */
     public double getAverageTimeForVariable(int variableIndex) {
-        double totalTime = 0.0;
-        int count = 0;
+        return timed("getAverageTimeForVariable", data -> {
+            VariableIndex index = data.getVariableIndex();
+            StatusStore statusStore = data.getStatusStore();
 
-        // statusMap 순회
-        for (Map.Entry<Integer, StatusNode> entry : maps.getStatusMap().entrySet()) {
-            int problemId = entry.getKey();
-            StatusNode statusNode = entry.getValue();
-
-            // 특정 변수를 포함하는지 확인
-            Double[] weights = maps.getWeightMap().get(problemId);
-            if (weights != null && variableIndex >= 0 && variableIndex < weights.length) {
-                if (weights[variableIndex] != null && weights[variableIndex] != 0) {
-                    totalTime += statusNode.getTimeTaken();
-                    count++;
+            if (variableIndex < 0 || variableIndex >= index.getVariableCount()) {
+                return 0.0; // 범위를 벗어난 변수 번호
+            }
+
+            // 역색인에서 해당 변수를 포함한 문제들만 순회 (상태가 없는 문제는 NaN 으로 제외)
+            double[] sumAndCount = ParallelScan.sumAndCount(index.getProblemCount(variableIndex), i -> {
+                int row = statusStore.getRow(index.getProblemId(variableIndex, i));
+                return row >= 0 ? statusStore.getTimeTaken(row) : Double.NaN;
+            }, parallel);
+
+            // 평균 계산
+            if (sumAndCount[1] == 0) {
+                return 0.0; // 조건에 맞는 문제가 없을 때
+            }
+            return sumAndCount[0] / sumAndCount[1];
+        });
+    }
+
+    /**
+     * 모든 변수에 대해 그 변수를 포함한 문제들의 평균 소요 시간을 한 번의 순회로 계산합니다.
+     * 병렬 모드에서는 행 블록마다 변수별 부분 합을 따로 구한 뒤 정해진 순서로 합치므로 결과는 순차 실행과 같습니다.
+     * 결과는 데이터가 바뀔 때까지 캐시하고, 호출마다 복사본을 반환합니다.
+     *
+     * @return 변수 번호별 평균 소요 시간 배열 (초 단위, 포함한 문제가 없는 변수는 0)
+     */
+    public double[] getAverageTimeForAllVariables() {
+        return timed("getAverageTimeForAllVariables",
+                data -> cached(data, () -> averageTimeForAllVariables(data), "averageTimeForAllVariables").clone());
+    }
+
+    private double[] averageTimeForAllVariables(Dataset data) {
+        WeightStore weightStore = data.getWeightStore();
+        StatusStore statusStore = data.getStatusStore();
+        int variableCount = weightStore.getVariableCount();
+
+        VariableTimeSums total = ParallelScan.reduce(weightStore.size(), VARIABLE_SCAN_BLOCK, (from, to) -> {
+            VariableTimeSums sums = new VariableTimeSums(variableCount);
+            // 문제(행)마다 소요 시간을 한 번 찾고, 그 문제가 포함한 변수들에 더함
+            for (int row = from; row < to; row++) {
+                int statusRow = statusStore.getRow(weightStore.getProblemId(row));
+                if (statusRow < 0) {
+                    continue;
+                }
+                double timeTaken = statusStore.getTimeTaken(statusRow);
+                WeightRow weightRow = weightStore.readRow(row);
+                for (int i = 0; i < weightRow.size(); i++) {
+                    sums.add(weightRow.getColumn(i), timeTaken);
                 }
             }
+            return sums;
+        }, VariableTimeSums::merge, new VariableTimeSums(variableCount), parallel);
+
+        double[] averages = new double[variableCount];
+        for (int v = 0; v < variableCount; v++) {
+            averages[v] = total.counts[v] == 0 ? 0.0 : (total.sums[v] + total.compensations[v]) / total.counts[v];
+        }
+        return averages;
+    }
+
+    // 변수별 소요 시간 합 (Neumaier 보정 포함) 과 개수
+    private static class VariableTimeSums {
+        final double[] sums;
+        final double[] compensations;
+        final int[] counts;
+
+        VariableTimeSums(int variableCount) {
+            sums = new double[variableCount];
+            compensations = new double[variableCount];
+            counts = new int[variableCount];
         }
 
-        // 평균 계산
-        if (count == 0) {
-            return 0.0; // 조건에 맞는 문제가 없을 때
+        void add(int variable, double time) {
+            double sum = sums[variable];
+            double t = sum + time;
+            compensations[variable] += Math.abs(sum) >= Math.abs(time) ? (sum - t) + time : (time - t) + sum;
+            sums[variable] = t;
+            counts[variable]++;
         }
-        return totalTime / count;
+
+        VariableTimeSums merge(VariableTimeSums other) {
+            for (int v = 0; v < sums.length; v++) {
+                sums[v] += other.sums[v];
+                compensations[v] += other.compensations[v];
+                counts[v] += other.counts[v];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * optimal 하게 풀린 포트폴리오들에 걸친 자산(변수)별 가중치 집계를 반환합니다.
+     *
+     * @return 자산별 가중치 합/평균/최대/사용 횟수/수익률 노출
+     */
+    public AssetExposure getAssetExposure() {
+        return getAssetExposure(true);
+    }
+
+    /**
+     * 포트폴리오들에 걸친 자산(변수)별 가중치 집계를 반환합니다.
+     * 가중치 행을 블록으로 나눠 병렬로 한 번 훑어 모든 자산을 함께 집계하고, 결과는 데이터가 바뀔 때까지 캐시합니다.
+     *
+     * @param optimalOnly true 이면 optimal 하게 풀린 포트폴리오만, false 이면 가중치가 있는 모든 포트폴리오
+     * @return 자산별 가중치 합/평균/최대/사용 횟수/수익률 노출 (바뀌지 않는 객체이므로 여러 호출자가 함께 씀)
+     */
+    public AssetExposure getAssetExposure(boolean optimalOnly) {
+        return read(data -> cached(data, () -> AssetExposure.collect(data, optimalOnly, parallel), "assetExposure", optimalOnly));
     }
 
     /**
@@ -78,28 +350,72 @@ public class MyService {
 
     /**
      * 특정 시간 범위 내에 풀린 문제 번호를 반환합니다.
+     * 소요 시간 정렬 색인에서 이진 탐색 두 번으로 구간을 찾으므로 전체를 훑지 않습니다.
+     * 결과가 많을 수 있으면 countProblemsSolvedWithinTime 이나 페이지 단위 조회를 사용하세요.
      *
      * @param upperBound 최대 시간 (초 단위)
      * @param lowerBound 최소 시간 (초 단위, 기본값: 0.0)
-     * @return 특정 시간 범위 내에 풀린 문제들의 번호 리스트
+     * @return 특정 시간 범위 내에 풀린 문제들의 번호 리스트 (소요 시간 오름차순, 캐시되므로 고칠 수 없음)
      */
     public List<Integer> getProblemsSolvedWithinTime(double upperBound, double lowerBound) {
+        return getProblemsSolvedWithinTime(upperBound, lowerBound, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 특정 시간 범위 내에 풀린 문제 번호 중 한 페이지만 반환합니다.
+     *
+     * @param upperBound 최대 시간 (초 단위)
+     * @param lowerBound 최소 시간 (초 단위)
+     * @param offset 건너뛸 개수 (0 이상)
+     * @param limit 최대 개수
+     * @return 소요 시간 오름차순으로 offset 번째부터 limit 개의 문제 번호 (캐시되므로 고칠 수 없음)
+     */
+    public List<Integer> getProblemsSolvedWithinTime(double upperBound, double lowerBound, int offset, int limit) {
+        return timed("getProblemsSolvedWithinTime", data -> cached(data, () -> {
+            int[] range = timeRankRange(data.getTimeIndex(), upperBound, lowerBound);
+            int from = (int) Math.min(range[1], (long) range[0] + Math.max(0, offset));
+            int to = (int) Math.min(range[1], (long) from + Math.max(0, limit));
+            return Collections.unmodifiableList(toList(data.getTimeIndex().getProblemIds(from, to)));
+        }, "problemsSolvedWithinTime", upperBound, lowerBound, offset, limit));
+    }
+
+    /**
+     * 특정 시간 범위 내에 풀린 문제 개수를 반환합니다. (O(log N))
+     *
+     * @param upperBound 최대 시간 (초 단위)
+     * @param lowerBound 최소 시간 (초 단위)
+     * @return 문제 개수
+     */
+    public int countProblemsSolvedWithinTime(double upperBound, double lowerBound) {
+        return timed("countProblemsSolvedWithinTime", data -> {
+            int[] range = timeRankRange(data.getTimeIndex(), upperBound, lowerBound);
+            return range[1] - range[0];
+        });
+    }
+
+    /**
+     * 특정 시간 범위 내에 풀린 문제 번호를 리스트를 만들지 않고 하나씩 돌려주는 반복자를 반환합니다.
+     *
+     * @param upperBound 최대 시간 (초 단위)
+     * @param lowerBound 최소 시간 (초 단위)
+     * @return 문제 번호 반복자 (소요 시간 오름차순)
+     */
+    public PrimitiveIterator.OfInt iterateProblemsSolvedWithinTime(double upperBound, double lowerBound) {
+        return timed("iterateProblemsSolvedWithinTime", data -> {
+            SortedIndex timeIndex = data.getTimeIndex(); // 색인은 버전마다 따로이므로 반복 중 refresh 되어도 그대로
+            int[] range = timeRankRange(timeIndex, upperBound, lowerBound);
+            return timeIndex.iterator(range[0], range[1]);
+        });
+    }
+
+    // 소요 시간이 [lowerBound, upperBound] 인 순위 구간 {from, to}
+    private static int[] timeRankRange(SortedIndex timeIndex, double upperBound, double lowerBound) {
         // lowerBound 기본값 처리
         if (lowerBound < 0) {
             lowerBound = 0.0; // 음수 값 방지
         }
-
-        List<Integer> result = new ArrayList<>();
-
-        // statusMap에서 문제 번호와 상태를 가져와 필터링
-        for (Map.Entry<Integer, StatusNode> entry : maps.getStatusMap().entrySet()) {
-            double timeTaken = entry.getValue().getTimeTaken();
-            if (timeTaken >= lowerBound && timeTaken <= upperBound) {
-                result.add(entry.getKey());
-            }
-        }
-
-        return result;
+        int from = timeIndex.lowerBound(lowerBound);
+        return new int[]{from, Math.max(from, timeIndex.upperBound(upperBound))};
     }
 
     /**
@@ -109,35 +425,34 @@ public class MyService {
      * @return 수익률 값 (Double) 또는 null (문제가 없는 경우)
      */
     public Double getProfitByProblemId(int problemId) {
-        // valueMap에서 문제 번호에 해당하는 값을 가져옴
-        Double[] values = maps.getValueMap().get(problemId);
+        return timed("getProfitByProblemId", data -> {
+            // valueStore 에서 문제 번호에 해당하는 행을 가져옴
+            ValueStore valueStore = data.getValueStore();
+            int row = valueStore.getRow(problemId);
 
-        if (values == null || values.length < 2) {
-            return null; // 값이 없거나 수익률 데이터가 없는 경우
-        }
+            if (row < 0) {
+                return null; // 값이 없거나 수익률 데이터가 없는 경우
+            }
 
-        return values[1]; // 두 번째 값이 수익률
+            return valueStore.getReturn(row);
+        });
     }
 
     /**
      *최적화가 완료된 문제의 비율(%)을 계산하여 반환합니다.
      *
-     * @return 최적화된 문제의 비율(%) (소수점 포함)
+     * @return 최적화된 문제의 비율(%) (소수점 포함), 문제가 없으면 0
      */
     public float getProblemSolvedPercentage() {
-    	
-    	float solved = 0;
-    	float count = 0;
-    	float result;
-    	for (Map.Entry<Integer, StatusNode> entry : maps.getStatusMap().entrySet()) {
-    		
-    		if (entry.getValue().isOptimality()) {
-    			solved ++;
-    		}
-    		count++;
-    	}
-    	result = (solved / count) * 100;
-    	return result;
+        return timed("getProblemSolvedPercentage", data -> {
+            StatusStore statusStore = data.getStatusStore(); // 개수와 optimal 개수를 같은 버전에서
+            float solved = statusStore.getOptimalCount();
+            float count = statusStore.size();
+            if (count == 0) {
+                return 0f; // 0 / 0 = NaN 방지
+            }
+            return (solved / count) * 100;
+        });
     }
 
     /**
@@ -145,150 +460,310 @@ public class MyService {
      */
     public void drawEfficientFrontier() {
     	
-    	double[] xData = new double[maps.getValueMap().size()];
-        double[] yData = new double[maps.getValueMap().size()];
-
-        int index = 0;
-        for (Map.Entry<Integer, Double[]> entry : maps.getValueMap().entrySet()) {
-            xData[index] = -entry.getValue()[0]; // risk
-            yData[index] = entry.getValue()[1]; // return
-            index++;
+    	double[][] points;
+        EfficientFrontier frontier;
+        try (Dataset data = maps.acquire()) { // 점과 투자선을 같은 버전에서
+            points = riskReturnPoints(data);
+            frontier = data.getEfficientFrontier();
         }
-    	
-    	ScatterPlotSimple.drawScatterPlot(xData, yData, "Sample Scatter Plot");
+    	ScatterPlotSimple.drawScatterPlot(points[0], points[1], frontier.getXs(), frontier.getYs(), "Sample Scatter Plot");
     }
 
     /**
-     * valueMap에서 정렬된 수익률 리스트를 반환합니다.
+     * Efficient Frontier 그림을 창을 띄우지 않고 파일로 저장합니다. (화면이 없는 서버에서도 사용 가능)
      *
-     * @return 정렬된 수익률 리스트
+     * @param file 저장할 파일 (.png 또는 .svg)
+     * @throws IOException 파일을 쓰지 못한 경우
      */
-    public List<Double> getSortedProfits() {
-        TreeMap<Double, Integer> profitFrequency = new TreeMap<>(); // 수익률 -> 빈도수
-
-        // valueMap에서 수익률 데이터를 TreeMap에 추가
-        for (Map.Entry<Integer, Double[]> entry : maps.getValueMap().entrySet()) {
-            Double[] values = entry.getValue();
-            if (values != null && values.length >= 2) {
-                double profit = values[1]; // 수익률
-                profitFrequency.put(profit, profitFrequency.getOrDefault(profit, 0) + 1);
-            }
+    public void exportEfficientFrontier(File file) throws IOException {
+        double[][] points;
+        EfficientFrontier frontier;
+        try (Dataset data = maps.acquire()) {
+            points = riskReturnPoints(data);
+            frontier = data.getEfficientFrontier();
         }
+        ChartExporter.exportScatterPlot(points[0], points[1], frontier.getXs(), frontier.getYs(),
+                "Sample Scatter Plot", 1000, 1000, file);
+    }
 
-        // TreeMap에서 정렬된 수익률 데이터를 리스트로 변환
-        List<Double> profits = new ArrayList<>();
-        for (Map.Entry<Double, Integer> entry : profitFrequency.entrySet()) {
-            double profit = entry.getKey();
-            int frequency = entry.getValue();
-            for (int i = 0; i < frequency; i++) {
-                profits.add(profit);
-            }
+    // 그림용 점 좌표 {x = risk, y = return}
+    private static double[][] riskReturnPoints(Dataset data) {
+        ValueStore valueStore = data.getValueStore();
+        double[] xData = new double[valueStore.size()];
+        double[] yData = new double[valueStore.size()];
+
+        for (int row = 0; row < valueStore.size(); row++) {
+            xData[row] = -valueStore.getRisk(row); // risk
+            yData[row] = valueStore.getReturn(row); // return
         }
+        return new double[][]{xData, yData};
+    }
 
-        return profits;
+    /**
+     * 효율적 투자선에 속하는 문제 번호를 반환합니다. (Swing 없이 사용 가능)
+     *
+     * @param upperHullOnly true 이면 투자선 중 위쪽 볼록 껍질에 속하는 점만 반환
+     * @return 문제 번호 리스트 (위험 오름차순)
+     */
+    public List<Integer> getEfficientFrontierProblems(boolean upperHullOnly) {
+        return timed("getEfficientFrontierProblems", data -> {
+            EfficientFrontier frontier = data.getEfficientFrontier();
+            if (!upperHullOnly) {
+                return toList(frontier.getProblemIds());
+            }
+            List<Integer> result = new ArrayList<>();
+            for (int i : frontier.upperHull()) {
+                result.add(frontier.getProblemId(i));
+            }
+            return result;
+        });
     }
 
     /**
-     * valueMap에서 정렬된 위험 리스트를 반환합니다.
+     * valueStore 에서 정렬된 수익률 리스트를 반환합니다.
      *
-     * @return 정렬된 위험 리스트
+     * @return 정렬된 수익률 리스트 (캐시되므로 고칠 수 없음)
+     */
+    public List<Double> getSortedProfits() {
+        return read(data -> cached(data, () -> sortedKeys(data.getReturnIndex()), "sortedProfits"));
+    }
+
+    /**
+     * valueStore 에서 정렬된 위험 리스트를 반환합니다.
+     *
+     * @return 정렬된 위험 리스트 (캐시되므로 고칠 수 없음)
      */
     public List<Double> getSortedRisks() {
-        TreeMap<Double, Integer> riskFrequency = new TreeMap<>(); // 수익률 -> 빈도수
-
-        // valueMap에서 위험 데이터를 TreeMap에 추가
-        for (Map.Entry<Integer, Double[]> entry : maps.getValueMap().entrySet()) {
-            Double[] values = entry.getValue();
-            if (values != null && values.length >= 2) {
-                double risk = values[0]; // 위험
-                riskFrequency.put(risk, riskFrequency.getOrDefault(risk, 0) + 1);
-            }
-        }
+        return read(data -> cached(data, () -> sortedKeys(data.getRiskIndex()), "sortedRisks"));
+    }
 
-        // TreeMap에서 정렬된 위험 데이터를 리스트로 변환
-        List<Double> risks = new ArrayList<>();
-        for (Map.Entry<Double, Integer> entry : riskFrequency.entrySet()) {
-            double profit = entry.getKey();
-            int frequency = entry.getValue();
-            for (int i = 0; i < frequency; i++) {
-                risks.add(profit);
-            }
+    // 정렬 색인의 key 를 오름차순 리스트로
+    private static List<Double> sortedKeys(SortedIndex index) {
+        List<Double> keys = new ArrayList<>(index.size());
+        for (int rank = 0; rank < index.size(); rank++) {
+            keys.add(index.getKey(rank));
         }
-
-        return risks;
+        return Collections.unmodifiableList(keys);
     }
 
     /**
-     * valueMap에서 수익률 값을 기준으로 정렬된 TreeMap을 반환합니다. (내림차순)
+     * valueStore 에서 수익률 값을 기준으로 정렬된 TreeMap을 반환합니다. (내림차순)
      * 동일한 수익률 값을 가진 문제 번호들은 Integer[]에 저장됩니다.
+     * getTopNProblemsBySortedTreeMap 에 넘기면 수익률이 가장 높은 문제부터 반환합니다.
+     * 상위 K 개만 필요하면 getTopKProblemsByHighestReturn 을 사용하세요.
      *
-     * @return 수익률 값을 기준으로 정렬된 TreeMap (key = 수익률, value = 문제 번호 배열)
+     * @return 수익률 값을 기준으로 정렬된 TreeMap (key = 수익률, value = 문제 번호 배열, 캐시된 객체이므로 고치지 말 것)
      */
     public TreeMap<Double, Integer[]> getTreeMapSortedByProfitGroupedByProblemId() {
-        TreeMap<Double, List<Integer>> tempTreeMap = new TreeMap<>(Collections.reverseOrder()); // 임시 TreeMap (List로 관리)
-
-        // valueMap 데이터를 순회하며 수익률 기준으로 TreeMap에 데이터 추가
-        for (Map.Entry<Integer, Double[]> entry : maps.getValueMap().entrySet()) {
-            Double[] values = entry.getValue();
-            if (values != null && values.length >= 2) {
-                double profit = values[1]; // 수익률 값
-                int problemId = entry.getKey(); // 문제 번호
-
-                // 동일한 수익률에 대해 문제 번호를 List에 추가
-                tempTreeMap.putIfAbsent(profit, new ArrayList<>());
-                tempTreeMap.get(profit).add(problemId);
+        return read(data -> cached(data, () -> groupByKey(data.getReturnIndex(), new TreeMap<>(Collections.reverseOrder())),
+                "profitTreeMap"));
+    }
+
+    /**
+     * valueStore 에서 위험 값을 기준으로 정렬된 TreeMap을 반환합니다. (오름차순)
+     * 동일한 위험 값을 가진 문제 번호들은 Integer[]에 저장됩니다.
+     * 하위 K 개만 필요하면 getTopKProblemsByLowestRisk 를 사용하세요.
+     *
+     * @return 위험 값을 기준으로 정렬된 TreeMap (key = 위험, value = 문제 번호 배열, 캐시된 객체이므로 고치지 말 것)
+     */
+    public TreeMap<Double, Integer[]> getTreeMapSortedByRiskGroupedByProblemId() {
+        return read(data -> cached(data, () -> groupByKey(data.getRiskIndex(), new TreeMap<>()), "riskTreeMap"));
+    }
+
+    // 정렬 색인에서 같은 key 의 연속 구간을 묶어 TreeMap 에 추가
+    private static TreeMap<Double, Integer[]> groupByKey(SortedIndex index, TreeMap<Double, Integer[]> sortedTreeMap) {
+        for (int start = 0; start < index.size(); ) {
+            int end = index.upperBound(index.getKey(start));
+            Integer[] problemIds = new Integer[end - start];
+            for (int rank = start; rank < end; rank++) {
+                problemIds[rank - start] = index.getProblemId(rank);
             }
+            sortedTreeMap.put(index.getKey(start), problemIds);
+            start = end;
         }
+        return sortedTreeMap;
+    }
 
-        // List<Integer>를 Integer[]로 변환하여 최종 TreeMap 생성
-        TreeMap<Double, Integer[]> sortedTreeMap = new TreeMap<>();
-        for (Map.Entry<Double, List<Integer>> entry : tempTreeMap.entrySet()) {
-            Double profit = entry.getKey();
-            List<Integer> problemIds = entry.getValue();
-            sortedTreeMap.put(profit, problemIds.toArray(new Integer[0]));
-        }
+    /**
+     * 수익률이 가장 높은 K 개의 문제 번호를 반환합니다. (정렬 색인의 끝 구간, O(K))
+     * K 번째와 수익률이 같은 문제들도 모두 포함합니다.
+     *
+     * @param k 가져올 문제 개수
+     * @return 문제 번호 리스트 (수익률 내림차순, 캐시되므로 고칠 수 없음)
+     */
+    public List<Integer> getTopKProblemsByHighestReturn(int k) {
+        return timed("getTopKProblemsByHighestReturn", data -> cached(data,
+                () -> Collections.unmodifiableList(toList(data.getReturnIndex().highest(k))), "highestReturn", k));
+    }
 
-        return sortedTreeMap;
+    /**
+     * 위험이 가장 낮은 K 개의 문제 번호를 반환합니다. (정렬 색인의 앞 구간, O(K))
+     * K 번째와 위험이 같은 문제들도 모두 포함합니다.
+     *
+     * @param k 가져올 문제 개수
+     * @return 문제 번호 리스트 (위험 오름차순, 캐시되므로 고칠 수 없음)
+     */
+    public List<Integer> getTopKProblemsByLowestRisk(int k) {
+        return timed("getTopKProblemsByLowestRisk", data -> cached(data,
+                () -> Collections.unmodifiableList(toList(data.getRiskIndex().lowest(k))), "lowestRisk", k));
     }
 
     /**
-     * valueMap에서 위험 값을 기준으로 정렬된 TreeMap을 반환합니다. (오름차순)
-     * 동일한 위험 값을 가진 문제 번호들은 Integer[]에 저장됩니다.
+     * 수익률이 [lowerBound, upperBound] 범위에 있는 문제 번호를 반환합니다. (이진 탐색)
      *
-     * @return 위험 값을 기준으로 정렬된 TreeMap (key = 위험, value = 문제 번호 배열)
+     * @param lowerBound 하한 (inclusive)
+     * @param upperBound 상한 (inclusive)
+     * @return 문제 번호 리스트 (수익률 오름차순)
      */
-    public TreeMap<Double, Integer[]> getTreeMapSortedByRiskGroupedByProblemId() {
-        TreeMap<Double, List<Integer>> tempTreeMap = new TreeMap<>(); // 임시 TreeMap (List로 관리)
-
-        // valueMap 데이터를 순회하며 위험 기준으로 TreeMap에 데이터 추가
-        for (Map.Entry<Integer, Double[]> entry : maps.getValueMap().entrySet()) {
-            Double[] values = entry.getValue();
-            if (values != null && values.length >= 2) {
-                double risk = values[0]; // 위험 값
-                int problemId = entry.getKey(); // 문제 번호
-
-                // 동일한 위험에 대해 문제 번호를 List에 추가
-                tempTreeMap.putIfAbsent(risk, new ArrayList<>());
-                tempTreeMap.get(risk).add(problemId);
+    public List<Integer> getProblemsByReturnRange(double lowerBound, double upperBound) {
+        return timed("getProblemsByReturnRange", data -> toList(data.getReturnIndex().getProblemIdsInRange(lowerBound, upperBound)));
+    }
+
+    /**
+     * 위험이 [lowerBound, upperBound] 범위에 있는 문제 번호를 반환합니다. (이진 탐색)
+     *
+     * @param lowerBound 하한 (inclusive)
+     * @param upperBound 상한 (inclusive)
+     * @return 문제 번호 리스트 (위험 오름차순)
+     */
+    public List<Integer> getProblemsByRiskRange(double lowerBound, double upperBound) {
+        return timed("getProblemsByRiskRange", data -> toList(data.getRiskIndex().getProblemIdsInRange(lowerBound, upperBound)));
+    }
+
+    /**
+     * 특정 문제의 수익률 순위를 반환합니다.
+     *
+     * @param problemId 문제 번호
+     * @return 1 부터 시작하는 순위 (수익률이 더 높은 문제 개수 + 1), 값이 없는 문제이면 -1
+     */
+    public int getReturnRank(int problemId) {
+        return read(data -> {
+            ValueStore valueStore = data.getValueStore();
+            int row = valueStore.getRow(problemId);
+            if (row < 0) {
+                return -1;
+            }
+            SortedIndex index = data.getReturnIndex();
+            return index.size() - index.upperBound(valueStore.getReturn(row)) + 1;
+        });
+    }
+
+    /**
+     * 여러 조건을 함께 만족하는 문제를 찾는 조회를 시작합니다.
+     * 예) query().optimal(true).returnBetween(0.05, Double.POSITIVE_INFINITY).timeBetween(0, 10).count()
+     *
+     * @return 조건이 없는 (모든 문제를 만족하는) 조회
+     */
+    public ProblemQuery query() {
+        return new ProblemQuery(maps);
+    }
+
+    /**
+     * 상위 K 개를 고를 때 비교할 포트폴리오 지표.
+     * RETURN_RISK_RATIO 는 수익률 / |위험| 입니다. (위험 값은 음수로 저장되므로 효율적 투자선과 같이 크기로 비교)
+     */
+    public enum Metric {
+        RETURN, RISK, TIME, RETURN_RISK_RATIO
+    }
+
+    /**
+     * 지표 값이 가장 큰(또는 작은) K 개의 문제 번호를 전체 정렬 없이 한 번의 순회로 구합니다. (O(N log K))
+     * TIME 은 모든 문제, 나머지는 수익률/위험 값이 있는(optimal) 문제가 대상입니다.
+     *
+     * @param metric 비교할 지표
+     * @param k 가져올 문제 개수
+     * @param largest true 이면 값이 큰 순서, false 이면 값이 작은 순서
+     * @param includeTies true 이면 K 번째와 값이 같은 문제도 모두 포함, false 이면 정확히 K 개 (동점은 파일 순서)
+     * @return 문제 번호 리스트 (앞서는 순서, 캐시되므로 고칠 수 없음)
+     */
+    public List<Integer> getTopK(Metric metric, int k, boolean largest, boolean includeTies) {
+        return timed("getTopK", data -> cached(data, () -> {
+            TopKSelector selector = new TopKSelector(k, largest, includeTies);
+            offerRows(data, selector, metric);
+            return Collections.unmodifiableList(toList(selector.result()));
+        }, "topK", metric, k, largest, includeTies));
+    }
+
+    /**
+     * 사용자가 정한 지표로 상위 K 개의 문제 번호를 구합니다. 모든 문제(Status 행)가 대상입니다.
+     *
+     * @param metric 문제 번호 -> 지표 값 (NaN 을 반환하면 제외)
+     * @param k 가져올 문제 개수
+     * @param largest true 이면 값이 큰 순서, false 이면 값이 작은 순서
+     * @param includeTies true 이면 K 번째와 값이 같은 문제도 모두 포함
+     * @return 문제 번호 리스트 (앞서는 순서)
+     */
+    public List<Integer> getTopK(IntToDoubleFunction metric, int k, boolean largest, boolean includeTies) {
+        return timed("getTopK", data -> {
+            TopKSelector selector = new TopKSelector(k, largest, includeTies);
+            StatusStore statusStore = data.getStatusStore();
+            for (int row = 0; row < statusStore.size(); row++) {
+                int problemId = statusStore.getProblemId(row);
+                selector.offer(problemId, metric.applyAsDouble(problemId));
             }
+            return toList(selector.result());
+        });
+    }
+
+    /**
+     * 지금까지 읽은 행으로 상위 K 개를 고르고, 이후 refresh 로 추가되는 행도 계속 반영하는 집계를 반환합니다.
+     * 결과는 result() 로 언제든 확인할 수 있고, 더 쓰지 않으면 close 로 갱신을 멈춰야 합니다.
+     *
+     * @param metric 비교할 지표
+     * @param k 가져올 문제 개수
+     * @param largest true 이면 값이 큰 순서, false 이면 값이 작은 순서
+     * @param includeTies true 이면 K 번째와 값이 같은 문제도 모두 포함
+     * @return 계속 갱신되는 상위 K 개 집계
+     */
+    public TopKTracker trackTopK(Metric metric, int k, boolean largest, boolean includeTies) {
+        TopKTracker tracker = new TopKTracker(maps, metric, k, largest, includeTies);
+        tracker.start();
+        return tracker;
+    }
+
+    // 지표 대상 행들을 지표 값과 함께 선택기에 넣음
+    private static void offerRows(Dataset data, TopKSelector selector, Metric metric) {
+        for (int row = 0; row < rowCount(data, metric); row++) {
+            selector.offer(metricProblemId(data, metric, row), metricValue(data, metric, row));
         }
+    }
 
-        // List<Integer>를 Integer[]로 변환하여 최종 TreeMap 생성
-        TreeMap<Double, Integer[]> sortedTreeMap = new TreeMap<>();
-        for (Map.Entry<Double, List<Integer>> entry : tempTreeMap.entrySet()) {
-            Double risk = entry.getKey();
-            List<Integer> problemIds = entry.getValue();
-            sortedTreeMap.put(risk, problemIds.toArray(new Integer[0]));
+    // 지표의 대상 행 개수 (TIME 은 Status 행, 나머지는 Value 행)
+    static int rowCount(Dataset data, Metric metric) {
+        return metric == Metric.TIME ? data.getStatusStore().size() : data.getValueStore().size();
+    }
+
+    static int metricProblemId(Dataset data, Metric metric, int row) {
+        return metric == Metric.TIME ? data.getStatusStore().getProblemId(row) : data.getValueStore().getProblemId(row);
+    }
+
+    static double metricValue(Dataset data, Metric metric, int row) {
+        if (metric == Metric.TIME) {
+            return data.getStatusStore().getTimeTaken(row);
+        }
+        ValueStore valueStore = data.getValueStore();
+        if (metric == Metric.RETURN) {
+            return valueStore.getReturn(row);
+        } else if (metric == Metric.RISK) {
+            return valueStore.getRisk(row);
         }
+        return valueStore.getReturn(row) / Math.abs(valueStore.getRisk(row));
+    }
 
-        return sortedTreeMap;
+    private static List<Integer> toList(int[] problemIds) {
+        List<Integer> result = new ArrayList<>(problemIds.length);
+        for (int problemId : problemIds) {
+            result.add(problemId);
+        }
+        return result;
     }
 
     /**
-     * 위험 값이 가장 낮은 (수익률이 가장 높은) 상위 문제 번호를 가져옵니다.
-     * 중복 위험 값이 포함된 경우에도 상위 문제 번호들을 모두 반환합니다.
+     * TreeMap 의 순서대로 앞에서부터 상위 문제 번호를 가져옵니다.
+     * 위험 TreeMap 이면 위험 값이 가장 낮은 문제부터, 수익률 TreeMap 이면 수익률이 가장 높은 문제부터입니다.
+     * 중복 값이 포함된 경우에도 상위 문제 번호들을 모두 반환합니다.
      *
-     * @param SortedMap 값을 기준으로 정렬된 TreeMap (key = 위험, value = 문제 번호 배열) (위험: 내림차순, 수익: 오름차순)
+     * @param SortedMap 값을 기준으로 정렬된 TreeMap (key = 위험 또는 수익률, value = 문제 번호 배열) (위험: 오름차순, 수익률: 내림차순)
      * @param topN 가져올 상위 문제 개수
      * @return 상위 문제 번호 리스트
      */
@@ -316,17 +791,32 @@ public class MyService {
     /**
      * 수익률이 가장 높은 topN개의 문제 번호를 반환합니다.
      * 동일한 수익률 값이 포함된 경우에도 모든 문제 번호를 반환합니다.
+     * 순회 방향은 TreeMap 의 비교자로 정합니다. (비교자가 없거나 자연 순서이면 오름차순, Collections.reverseOrder() 이면 내림차순)
      *
-     * @param profitMap 수익률 값을 기준으로 정렬된 TreeMap (key = 수익률, value = 문제 번호 배열)
+     * @param profitMap 수익률 값을 기준으로 정렬된 TreeMap (key = 수익률, value = 문제 번호 배열,
+     *                  getTreeMapSortedByProfitGroupedByProblemId 의 내림차순 또는 자연 순서의 오름차순)
      * @param topN 가져올 상위 문제 개수
      * @return 상위 문제 번호 리스트
+     * @throws IllegalArgumentException 그 밖의 비교자로 정렬된 TreeMap 인 경우
      */
     public List<Integer> getTopNProblemsByHighestProfit(TreeMap<Double, Integer[]> profitMap, int topN) {
         List<Integer> result = new ArrayList<>();
         int count = 0;
+        if (profitMap.isEmpty()) {
+            return result;
+        }
 
         // 수익률이 높은 순서로 순회 (내림차순)
-        for (Map.Entry<Double, Integer[]> entry : profitMap.descendingMap().entrySet()) {
+        NavigableMap<Double, Integer[]> highestFirst;
+        Comparator<? super Double> order = profitMap.comparator();
+        if (order == null || order.equals(Comparator.naturalOrder())) {
+            highestFirst = profitMap.descendingMap();
+        } else if (order.equals(Collections.reverseOrder())) {
+            highestFirst = profitMap;
+        } else {
+            throw new IllegalArgumentException("수익률 TreeMap 은 오름차순 또는 Collections.reverseOrder() 내림차순이어야 합니다.");
+        }
+        for (Map.Entry<Double, Integer[]> entry : highestFirst.entrySet()) {
             Integer[] problemIds = entry.getValue();
 
             // 문제 번호를 결과 리스트에 추가
@@ -389,30 +879,192 @@ public class MyService {
      * @return 분위별 데이터 배열 (각 분위의 lowerBound, upperBound, count를 포함)
      */
     public List<double[]> generateHistogram(List<Double> sortedList, int quantile) {
-        List<double[]> histogram = new ArrayList<>();
+        return measured("generateHistogram", () -> {
+            // 리스트의 최소값과 최대값
+            double minProfit = sortedList.get(0);
+            double maxProfit = sortedList.get(sortedList.size() - 1);
+
+            // 각 데이터가 속한 분위의 개수 증가
+            FixedHistogram histogram = new FixedHistogram(minProfit, maxProfit, quantile);
+            for (double profit : sortedList) {
+                histogram.add(profit);
+            }
+
+            return histogram.toList();
+        });
+    }
 
-        // 리스트의 최소값과 최대값
-        double minProfit = sortedList.get(0);
-        double maxProfit = sortedList.get(sortedList.size() - 1);
+    /**
+     * 지표 값의 범위를 같은 폭의 구간으로 나누고 각 구간에 속하는 문제 개수를 셉니다.
+     * 정렬된 리스트 없이 저장된 값 배열을 직접 읽으며, 최소/최대는 누적 통계를 사용하므로 값은 한 번만 훑습니다.
+     * 결과는 generateHistogram(getSortedProfits(), quantile) 등과 같습니다.
+     *
+     * @param metric 지표
+     * @param quantile 구간 개수 (예: 10, 20 등)
+     * @return 구간별 데이터 배열 (각 구간의 lowerBound, upperBound, count를 포함)
+     */
+    public List<double[]> generateHistogram(Metric metric, int quantile) {
+        return buildHistogram(metric, quantile).toList();
+    }
+
+    /**
+     * generateHistogram(metric, bins) 과 같은 히스토그램을 FixedHistogram 으로 반환합니다.
+     * 값이 많으면 HISTOGRAM_CHUNK 행씩 나눠 (병렬 실행이면 병렬로) 센 뒤 합칩니다. (개수는 정수이므로 결과는 항상 같음)
+     * 같은 버전에서 만든 히스토그램은 캐시하고, 호출마다 복사본을 반환합니다.
+     *
+     * @param metric 지표
+     * @param bins 구간 개수
+     * @return 히스토그램 (복사본이므로 고쳐도 됨)
+     */
+    public FixedHistogram buildHistogram(Metric metric, int bins) {
+        return timed("buildHistogram", data -> {
+            FixedHistogram cachedHistogram = cached(data, () -> countHistogram(data, metric, bins, parallel), "histogram", metric, bins);
+            FixedHistogram histogram = cachedHistogram.emptyCopy();
+            histogram.merge(cachedHistogram);
+            return histogram;
+        });
+    }
+
+    private static FixedHistogram countHistogram(Dataset data, Metric metric, int bins, boolean parallel) {
+        double[] range = metricRange(data, metric);
+        FixedHistogram shape = new FixedHistogram(range[0], range[1], bins);
+        return ParallelScan.reduce(rowCount(data, metric), HISTOGRAM_CHUNK, (from, to) -> {
+            FixedHistogram part = shape.emptyCopy();
+            addRows(data, part, metric, from, to);
+            return part;
+        }, (left, right) -> {
+            left.merge(right);
+            return left;
+        }, shape, parallel);
+    }
+
+    /**
+     * 지금까지 읽은 값으로 히스토그램을 만들고, 이후 refresh 로 추가되는 행도 계속 세는 집계를 반환합니다.
+     * 구간은 만들 때의 최소/최대로 고정되므로 범위 밖의 새 값은 getUnderflow/getOverflow 로 셉니다.
+     * 결과는 result() 로 언제든 확인할 수 있고, 더 쓰지 않으면 close 로 갱신을 멈춰야 합니다.
+     *
+     * @param metric 지표
+     * @param bins 구간 개수
+     * @return 계속 갱신되는 히스토그램 집계
+     */
+    public HistogramTracker trackHistogram(Metric metric, int bins) {
+        double[] range = read(data -> metricRange(data, metric));
+        HistogramTracker tracker = new HistogramTracker(maps, metric, new FixedHistogram(range[0], range[1], bins));
+        tracker.start();
+        return tracker;
+    }
+
+    // [fromRow, toRow) 행의 지표 값을 히스토그램에 셈
+    private static void addRows(Dataset data, FixedHistogram histogram, Metric metric, int fromRow, int toRow) {
+        for (int row = fromRow; row < toRow; row++) {
+            histogram.add(metricValue(data, metric, row));
+        }
+    }
 
-        // 각 분위의 범위 크기
-        double range = (maxProfit - minProfit) / quantile;
+    // 지표 값의 {최소, 최대} (값이 없으면 {0, 0})
+    private static double[] metricRange(Dataset data, Metric metric) {
+        RunningStats stats;
+        if (metric == Metric.TIME) {
+            stats = data.getStatusStore().getTimeStats();
+        } else if (metric == Metric.RETURN) {
+            stats = data.getValueStore().getReturnStats();
+        } else if (metric == Metric.RISK) {
+            stats = data.getValueStore().getRiskStats();
+        } else { // 비율은 누적 통계가 없으므로 한 번 훑음
+            stats = new RunningStats();
+            for (int row = 0; row < rowCount(data, metric); row++) {
+                double value = metricValue(data, metric, row);
+                if (!Double.isNaN(value)) {
+                    stats.add(value);
+                }
+            }
+        }
+        if (stats.getCount() == 0) {
+            return new double[]{0, 0};
+        }
+        return new double[]{stats.getMin(), stats.getMax()};
+    }
+
+    /**
+     * 지표의 분위수 스케치를 반환합니다. RETURN, RISK, TIME 은 로딩/refresh 중 함께 갱신된 스케치이며,
+     * RETURN_RISK_RATIO 는 처음 호출할 때 한 번 훑어 만들고 데이터가 바뀔 때까지 캐시합니다.
+     *
+     * @param metric 지표
+     * @return 분위수 스케치 (함께 쓰는 객체이므로 고치지 말 것)
+     */
+    public QuantileSketch getQuantileSketch(Metric metric) {
+        return quantileSketch(maps.getDataset(), metric);
+    }
 
-        // 분위별 데이터 초기화
-        for (int i = 0; i < quantile; i++) {
-            double lowerBound = minProfit + i * range;
-            double upperBound = (i == quantile - 1) ? maxProfit : lowerBound + range;
-            histogram.add(new double[]{lowerBound, upperBound, 0});
+    private QuantileSketch quantileSketch(Dataset data, Metric metric) {
+        if (metric == Metric.TIME) {
+            return data.getStatusStore().getTimeSketch();
+        } else if (metric == Metric.RETURN) {
+            return data.getValueStore().getReturnSketch();
+        } else if (metric == Metric.RISK) {
+            return data.getValueStore().getRiskSketch();
         }
+        return cached(data, () -> {
+            QuantileSketch sketch = new QuantileSketch();
+            for (int row = 0; row < rowCount(data, metric); row++) {
+                sketch.add(metricValue(data, metric, row));
+            }
+            return sketch;
+        }, "quantileSketch", metric);
+    }
 
-        // 각 데이터가 속한 분위의 개수 증가
-        for (double profit : sortedList) {
-            int index = (int) ((profit - minProfit) / range);
-            if (index >= quantile) index = quantile - 1; // 마지막 범위 처리
-            histogram.get(index)[2]++;
+    /**
+     * 지표의 분위수를 정렬 없이 스케치로 근사합니다. (순위 오차 약 1%)
+     *
+     * @param metric 지표
+     * @param fractions 분위들 (0 ~ 1, 예: 0.5, 0.9, 0.99)
+     * @return 분위별 값
+     */
+    public double[] getQuantiles(Metric metric, double... fractions) {
+        return timed("getQuantiles", data -> quantileSketch(data, metric).getQuantiles(fractions));
+    }
+
+    /**
+     * RETURN, RISK, TIME 의 분위수 스케치를 파일로 저장합니다.
+     * 여러 solver 조각에서 저장한 파일을 loadQuantileSketches 로 읽어 merge 하면 전체의 분위수를 구할 수 있습니다.
+     *
+     * @param file 저장할 파일
+     * @throws IOException 파일을 쓰지 못한 경우
+     */
+    public void saveQuantileSketches(File file) throws IOException {
+        Metric[] metrics = {Metric.RETURN, Metric.RISK, Metric.TIME};
+        Dataset data = maps.getDataset(); // 세 스케치를 같은 버전에서
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(metrics.length);
+            for (Metric metric : metrics) {
+                out.writeUTF(metric.name());
+                quantileSketch(data, metric).write(out);
+            }
         }
+    }
 
-        return histogram;
+    /**
+     * saveQuantileSketches 로 저장한 스케치들을 읽습니다.
+     *
+     * @param file 읽을 파일
+     * @return 지표별 분위수 스케치
+     * @throws IOException 파일을 읽지 못했거나 형식이 다른 경우
+     */
+    public static Map<Metric, QuantileSketch> loadQuantileSketches(File file) throws IOException {
+        Map<Metric, QuantileSketch> sketches = new EnumMap<>(Metric.class);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Metric metric;
+                try {
+                    metric = Metric.valueOf(in.readUTF());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("알 수 없는 지표입니다: " + e.getMessage());
+                }
+                sketches.put(metric, QuantileSketch.read(in));
+            }
+        }
+        return sketches;
     }
 
     /**
@@ -431,39 +1083,81 @@ public class MyService {
         frame.setVisible(true);
     }
 
+    /**
+     * 히스토그램을 창을 띄우지 않고 파일로 저장합니다. (화면이 없는 서버에서도 사용 가능)
+     *
+     * @param histogram generateHistogram 의 결과
+     * @param file 저장할 파일 (.png 또는 .svg)
+     * @throws IOException 파일을 쓰지 못한 경우
+     */
+    public void exportHistogram(List<double[]> histogram, File file) throws IOException {
+        ChartExporter.exportHistogram(histogram, 800, 600, file);
+    }
+
     /**
      * 주어진 문제 ID에 대해 k번째로 큰 가중치를 반환합니다.
      *
-     * 이 메서드는 특정 문제 ID에 해당하는 가중치 배열에서 k번째로 큰 값을 찾습니다.
-     * 가중치 배열은 null 값이나 음수 값을 제외하고, 내림차순으로 정렬하여 상위 k번째 값을 반환합니다.
+     * 이 메서드는 특정 문제 ID에 해당하는 가중치 중 0 보다 큰 값들을 내림차순으로 세었을 때 k번째 값을 반환합니다.
+     * 같은 가중치도 각각 하나로 셉니다. 문제별로 미리 정렬해 둔 보유 자산 색인(TopHoldings)에서 바로 읽습니다.
+     * LAZY 로더이면 색인을 만들지 않고 그 문제의 행만 읽어 정렬합니다.
      *
      * @param problemId 문제 번호
      * @param k 상위 k번째 값을 찾기 위한 정수 (1 이상이어야 함)
      * @return k번째로 큰 가중치 값 (Double), 유효한 값이 없는 경우 null 반환
      */
     public Double FindTopKWeights(int problemId, int k) {
-        Double[] weights = maps.getWeightMap().get(problemId);
+        return timed("FindTopKWeights", data -> {
+            int row = data.getWeightStore().getRow(problemId);
 
-        if (weights == null || weights.length == 0 || k <= 0) {
-            return null; // 유효하지 않은 경우
-        }
+            if (row < 0 || k <= 0) {
+                return null; // 유효하지 않은 경우
+            }
 
-        TreeMap<Double, Integer> weightMap = new TreeMap<>(Collections.reverseOrder());
-        for (Double weight : weights) {
-            if (weight != null && weight >0) {
-                weightMap.put(weight, weightMap.getOrDefault(weight, 0) + 1);
+            TopHoldings holdings = data.getTopHoldings(row, parallel);
+            if (k > holdings.getHoldingCount(row)) {
+                return null; // k번째로 큰 값이 없는 경우
             }
-        }
+            return holdings.getWeight(row, k - 1);
+        });
+    }
 
-        int count = 0;
-        for (Map.Entry<Double, Integer> entry : weightMap.entrySet()) {
-            count += entry.getValue();
-            if (count >= k) {
-                return entry.getKey();
+    /**
+     * 문제(포트폴리오)의 가중치가 큰 상위 K개 보유 자산을 반환합니다.
+     *
+     * @param problemId 문제 번호
+     * @param k 가져올 자산 개수
+     * @return 변수 번호 -> 가중치 (가중치 내림차순, 같은 가중치는 변수 번호 순), 문제가 없으면 빈 맵
+     */
+    public LinkedHashMap<Integer, Double> getTopHoldings(int problemId, int k) {
+        return timed("getTopHoldings", data -> {
+            LinkedHashMap<Integer, Double> topHoldings = new LinkedHashMap<>();
+            int row = data.getWeightStore().getRow(problemId);
+            if (row < 0 || k <= 0) {
+                return topHoldings;
             }
-        }
+            TopHoldings holdings = data.getTopHoldings(row, parallel);
+            int count = Math.min(k, holdings.getHoldingCount(row));
+            for (int rank = 0; rank < count; rank++) {
+                topHoldings.put(holdings.getVariable(row, rank), holdings.getWeight(row, rank));
+            }
+            return topHoldings;
+        });
+    }
 
-        return null; // k번째로 큰 값이 없는 경우
+    /**
+     * 여러 문제의 상위 K개 보유 자산을 한 번에 반환합니다.
+     * 예) getTopHoldings(getTopKProblemsByHighestReturn(10), 5) : 수익률 상위 10개 포트폴리오의 주요 자산 5개씩
+     *
+     * @param problemIds 문제 번호 리스트
+     * @param k 문제마다 가져올 자산 개수
+     * @return 문제 번호 -> (변수 번호 -> 가중치), problemIds 순서 (가중치가 없는 문제는 빈 맵)
+     */
+    public LinkedHashMap<Integer, LinkedHashMap<Integer, Double>> getTopHoldings(List<Integer> problemIds, int k) {
+        LinkedHashMap<Integer, LinkedHashMap<Integer, Double>> topHoldings = new LinkedHashMap<>();
+        for (int problemId : problemIds) {
+            topHoldings.put(problemId, getTopHoldings(problemId, k));
+        }
+        return topHoldings;
     }
 
 
@@ -472,14 +1166,8 @@ public class MyService {
         int variableIndex = 10;
         int problemId = 5;
         double maxTime = 0.01d;
-        // sort 수익률
-        List<Double> sortedprofits = service.getSortedProfits();
-
-        // sort 위험
-        List<Double> sortedrisks = service.getSortedRisks();
-
         //수익률 히스토그램
-        List<double[]> histogram_return = service.generateHistogram(sortedprofits, 20);
+        List<double[]> histogram_return = service.generateHistogram(Metric.RETURN, 20);
         System.out.printf("%d분위별 데이터:%n", 20);
         for (int i = 0; i < histogram_return.size(); i++) {
             double[] data = histogram_return.get(i);
@@ -487,15 +1175,31 @@ public class MyService {
         }
 
         //위험 히스토그램
-        List<double[]> histogram_risk = service.generateHistogram(sortedrisks, 20);
+        List<double[]> histogram_risk = service.generateHistogram(Metric.RISK, 20);
         System.out.printf("%d분위별 데이터:%n", 20);
         for (int i = 0; i < histogram_risk.size(); i++) {
             double[] data = histogram_risk.get(i);
             System.out.printf("분위 %d: %.6f ~ %.6f (개수: %d)%n", i + 1, data[0], data[1], (int) data[2]);
         }
 
-        service.showHistogram(histogram_return);
-        service.showHistogram(histogram_risk);
+        //분위수 (스케치 근사)
+        for (Metric metric : new Metric[]{Metric.RETURN, Metric.RISK, Metric.TIME}) {
+            double[] quantiles = service.getQuantiles(metric, 0.5, 0.9, 0.99);
+            System.out.printf("%s 분위수: p50 %.6f, p90 %.6f, p99 %.6f%n", metric, quantiles[0], quantiles[1], quantiles[2]);
+        }
+
+        boolean headless = GraphicsEnvironment.isHeadless(); // 화면이 없으면 창 대신 파일로 저장
+        if (headless) {
+            try {
+                service.exportHistogram(histogram_return, new File("histogram_return.png"));
+                service.exportHistogram(histogram_risk, new File("histogram_risk.png"));
+            } catch (IOException e) {
+                System.err.println("그림 파일 쓰기 중 오류 발생: " + e.getMessage());
+            }
+        } else {
+            service.showHistogram(histogram_return);
+            service.showHistogram(histogram_risk);
+        }
 
         System.out.printf("총 걸린 시간: %.6f초%n", service.getTotalTime());
         System.out.printf("변수 %d를 포함한 문제들의 평균 소요 시간: %.6f초%n",variableIndex,service.getAverageTimeForVariable(variableIndex));
@@ -504,6 +1208,14 @@ public class MyService {
         System.out.printf("전체 문제 중 풀린 문제의 비율: %.6f(%%)%n", service.getProblemSolvedPercentage());
         System.out.printf("문제 번호 %d에서 %d번째로 큰 가중치: %.10f%n", problemId, 3, service.FindTopKWeights(problemId, 3));
 
-        service.drawEfficientFrontier();
+        if (headless) {
+            try {
+                service.exportEfficientFrontier(new File("efficient_frontier.png"));
+            } catch (IOException e) {
+                System.err.println("그림 파일 쓰기 중 오류 발생: " + e.getMessage());
+            }
+        } else {
+            service.drawEfficientFrontier();
+        }
     }
 }
\ No newline at end of file
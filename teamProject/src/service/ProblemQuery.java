@@ -0,0 +1,249 @@
+package service;
+
+import myutil.Dataset;
+import myutil.Maps;
+import myutil.RunningStats;
+import myutil.SortedIndex;
+import myutil.StatusStore;
+import myutil.TopKSelector;
+import myutil.ValueStore;
+import myutil.VariableIndex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 여러 조건(optimal 여부, 소요 시간, 변수 개수, 위험, 수익률, 변수 사용 여부)을 함께 만족하는 문제를 찾는 조회.
+ * 조건마다 Status 행 번호 위의 비트맵(BitSet)을 만들고 AND 로 교집합을 구합니다.
+ * 범위 조건은 정렬 색인에서 이진 탐색으로 찾은 구간만, 변수 조건은 역색인의 목록만 비트로 표시하므로
+ * 전체 행을 조건마다 다시 훑지 않습니다. 집계(count/average/topK)는 결과 비트맵의 행만 봅니다.
+ * 조건의 범위는 모두 양 끝을 포함합니다. 위험(risk) 은 저장된 값(음수) 그대로 비교합니다.
+ * 결과는 처음 계산할 때 게시된 Dataset 버전 하나로 구하고, 조건이 바뀔 때까지 그 버전 기준으로 답합니다.
+ *
+ * 사용 예) service.query().optimal(true).returnBetween(0.05, Double.POSITIVE_INFINITY).usesVariable(10).count()
+ */
+public class ProblemQuery {
+    private final Maps maps;
+    private final List<Function<Dataset, BitSet>> conditions = new ArrayList<>();
+    private BitSet result; // 조건이 바뀌면 null
+    private Dataset data; // result 를 구한 버전 (행 번호 -> 문제 번호, 지표 값)
+
+    ProblemQuery(Maps maps) {
+        this.maps = maps;
+    }
+
+    /**
+     * @param optimal true 이면 optimal 하게 풀린 문제만, false 이면 그렇지 않은 문제만
+     */
+    public ProblemQuery optimal(boolean optimal) {
+        return where(data -> {
+            StatusStore statusStore = data.getStatusStore();
+            BitSet bits = new BitSet(statusStore.size());
+            for (int row = 0; row < statusStore.size(); row++) {
+                if (statusStore.isOptimal(row) == optimal) {
+                    bits.set(row);
+                }
+            }
+            return bits;
+        });
+    }
+
+    /**
+     * @param lowerBound 최소 소요 시간 (초 단위)
+     * @param upperBound 최대 소요 시간 (초 단위)
+     */
+    public ProblemQuery timeBetween(double lowerBound, double upperBound) {
+        return where(data -> rangeBits(data, data.getTimeIndex(), lowerBound, upperBound));
+    }
+
+    /**
+     * @param lowerBound 최소 수익률
+     * @param upperBound 최대 수익률
+     */
+    public ProblemQuery returnBetween(double lowerBound, double upperBound) {
+        return where(data -> rangeBits(data, data.getReturnIndex(), lowerBound, upperBound));
+    }
+
+    /**
+     * @param lowerBound 최소 위험 (저장된 값 기준)
+     * @param upperBound 최대 위험 (저장된 값 기준)
+     */
+    public ProblemQuery riskBetween(double lowerBound, double upperBound) {
+        return where(data -> rangeBits(data, data.getRiskIndex(), lowerBound, upperBound));
+    }
+
+    /**
+     * @param lowerBound 최소 변수 개수
+     * @param upperBound 최대 변수 개수
+     */
+    public ProblemQuery variableCountBetween(int lowerBound, int upperBound) {
+        return where(data -> {
+            StatusStore statusStore = data.getStatusStore();
+            BitSet bits = new BitSet(statusStore.size());
+            for (int row = 0; row < statusStore.size(); row++) {
+                int variableCount = statusStore.getVariableCount(row);
+                if (variableCount >= lowerBound && variableCount <= upperBound) {
+                    bits.set(row);
+                }
+            }
+            return bits;
+        });
+    }
+
+    /**
+     * @param variableIndex 가중치가 0 보다 큰 변수 번호 (0-based index)
+     */
+    public ProblemQuery usesVariable(int variableIndex) {
+        return where(data -> {
+            VariableIndex index = data.getVariableIndex();
+            StatusStore statusStore = data.getStatusStore();
+            BitSet bits = new BitSet(statusStore.size());
+            if (variableIndex < 0 || variableIndex >= index.getVariableCount()) {
+                return bits; // 범위를 벗어난 변수 번호
+            }
+            for (int i = 0; i < index.getProblemCount(variableIndex); i++) {
+                setRow(bits, statusStore, index.getProblemId(variableIndex, i));
+            }
+            return bits;
+        });
+    }
+
+    private ProblemQuery where(Function<Dataset, BitSet> condition) {
+        conditions.add(condition);
+        result = null;
+        return this;
+    }
+
+    // 정렬 색인에서 [lowerBound, upperBound] 구간의 문제들을 Status 행 비트로
+    private static BitSet rangeBits(Dataset data, SortedIndex index, double lowerBound, double upperBound) {
+        StatusStore statusStore = data.getStatusStore();
+        BitSet bits = new BitSet(statusStore.size());
+        int from = index.lowerBound(lowerBound);
+        int to = index.upperBound(upperBound);
+        for (int rank = from; rank < to; rank++) {
+            setRow(bits, statusStore, index.getProblemId(rank));
+        }
+        return bits;
+    }
+
+    private static void setRow(BitSet bits, StatusStore statusStore, int problemId) {
+        int row = statusStore.getRow(problemId);
+        if (row >= 0) {
+            bits.set(row);
+        }
+    }
+
+    /**
+     * 조건들의 교집합을 구합니다. 조건이 없으면 모든 문제입니다.
+     *
+     * @return 조건을 모두 만족하는 Status 행 번호의 비트맵 (복사본)
+     */
+    public BitSet rows() {
+        if (result == null) {
+            try (Dataset snapshot = maps.acquire()) {
+                BitSet bits = new BitSet();
+                bits.set(0, snapshot.getStatusStore().size());
+                for (Function<Dataset, BitSet> condition : conditions) {
+                    if (bits.isEmpty()) {
+                        break; // 이미 결과가 없음
+                    }
+                    bits.and(condition.apply(snapshot));
+                }
+                data = snapshot; // 이후에는 Status/Value 저장소(힙)만 읽으므로 참조를 놓아도 됨
+                result = bits;
+            }
+        }
+        return (BitSet) result.clone();
+    }
+
+    /**
+     * @return 조건을 만족하는 문제 개수
+     */
+    public int count() {
+        rows();
+        return result.cardinality();
+    }
+
+    /**
+     * @return 조건을 만족하는 문제 번호 (파일 순서)
+     */
+    public List<Integer> problemIds() {
+        rows();
+        StatusStore statusStore = data.getStatusStore();
+        List<Integer> problemIds = new ArrayList<>(result.cardinality());
+        for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+            problemIds.add(statusStore.getProblemId(row));
+        }
+        return problemIds;
+    }
+
+    /**
+     * 조건을 만족하는 문제들의 지표 누적 통계를 구합니다. 지표 값이 없는 문제(수익률/위험이 없는 문제)는 제외합니다.
+     *
+     * @param metric 지표
+     * @return 개수, 합, 최소/최대, 평균, 분산
+     */
+    public RunningStats stats(MyService.Metric metric) {
+        rows();
+        RunningStats stats = new RunningStats();
+        for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+            double value = metricValue(metric, row);
+            if (!Double.isNaN(value)) {
+                stats.add(value);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * @param metric 지표
+     * @return 조건을 만족하는 문제들의 지표 평균, 해당하는 문제가 없으면 0
+     */
+    public double average(MyService.Metric metric) {
+        RunningStats stats = stats(metric);
+        return stats.getCount() == 0 ? 0.0 : stats.getMean();
+    }
+
+    /**
+     * 조건을 만족하는 문제 중 지표 값이 가장 큰(또는 작은) K 개를 구합니다.
+     *
+     * @param metric 지표
+     * @param k 가져올 문제 개수
+     * @param largest true 이면 값이 큰 순서, false 이면 값이 작은 순서
+     * @return 문제 번호 리스트 (앞서는 순서, 동점은 파일 순서)
+     */
+    public List<Integer> topK(MyService.Metric metric, int k, boolean largest) {
+        rows();
+        StatusStore statusStore = data.getStatusStore();
+        TopKSelector selector = new TopKSelector(k, largest, false);
+        for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+            selector.offer(statusStore.getProblemId(row), metricValue(metric, row));
+        }
+        List<Integer> problemIds = new ArrayList<>();
+        for (int problemId : selector.result()) {
+            problemIds.add(problemId);
+        }
+        return problemIds;
+    }
+
+    // Status 행의 지표 값 (수익률/위험이 없으면 NaN)
+    private double metricValue(MyService.Metric metric, int statusRow) {
+        StatusStore statusStore = data.getStatusStore();
+        if (metric == MyService.Metric.TIME) {
+            return statusStore.getTimeTaken(statusRow);
+        }
+        ValueStore valueStore = data.getValueStore();
+        int valueRow = valueStore.getRow(statusStore.getProblemId(statusRow));
+        if (valueRow < 0) {
+            return Double.NaN;
+        }
+        if (metric == MyService.Metric.RETURN) {
+            return valueStore.getReturn(valueRow);
+        } else if (metric == MyService.Metric.RISK) {
+            return valueStore.getRisk(valueRow);
+        }
+        return valueStore.getReturn(valueRow) / Math.abs(valueStore.getRisk(valueRow));
+    }
+}
@@ -0,0 +1,443 @@
+package service;
+
+import myutil.AssetExposure;
+import myutil.Dataset;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 데이터를 한 번만 불러와 여러 로컬 클라이언트의 MyService 조회를 받아 주는 서버.
+ * 분석가마다 JVM 을 따로 띄워 큰 가중치 파일을 다시 읽지 않도록, 불러온 Maps 하나를 모든 연결이 함께 씁니다.
+ *
+ * 프로토콜: 한 줄에 명령 하나 ("명령 인자..." , 대소문자 무시), 응답도 한 줄의 JSON 입니다.
+ *   성공: {"ok":true,"result":...}, 실패: {"ok":false,"error":"..."} (혼잡하여 거절하면 "busy":true 가 붙음)
+ *   예) TOP_RETURN 10 -> {"ok":true,"result":[812,77,...]}
+ * 연결 하나를 가상 스레드 하나가 처리하므로 연결이 많아도 OS 스레드를 차지하지 않습니다.
+ * 전체 행을 훑는 조회나 REFRESH 같은 무거운 작업(HEAVY 표시)은 Semaphore 로 동시 실행 개수를 제한하고, 자리가 나지 않으면 기다리다가
+ * busy 로 거절합니다. 색인을 쓰는 조회도 그 색인이 아직 없으면(불러온 직후 등) 색인을 구성하게 되므로 HEAVY 로 제한합니다. REFRESH 는 새 버전을 다 만든 뒤 한 번에 바꿔 끼우므로, 실행 중인 조회는 기다리지 않고
+ * 이전 버전을 끝까지 읽습니다.
+ * 외부에서 접속하지 못하도록 루프백 주소(127.0.0.1)에만 엽니다.
+ *
+ * 사용법: QueryServer [포트] [무거운 작업 동시 실행 수]
+ *   기본값: 7070, 프로세서 개수
+ *   -Dserver.admissionWait=무거운 작업이 자리를 기다리는 최대 시간 ms (기본 2000)
+ * 예) java -Xmx8g -p ... -m teamproject/service.QueryServer 7070 4
+ *     클라이언트: nc 127.0.0.1 7070 (HELP 로 명령 목록 확인)
+ */
+public class QueryServer implements Closeable {
+    public static final int DEFAULT_PORT = 7070;
+
+    private static final long ADMISSION_WAIT_MILLIS = Long.getLong("server.admissionWait", 2000);
+    private static final int IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000; // 이 시간 동안 명령이 없으면 연결을 닫음
+    private static final int MAX_ITEMS = 100_000; // K, 구간 개수 등의 상한 (응답 크기 제한)
+
+    /**
+     * 명령 하나의 처리. 인자는 명령 이름을 뺀 나머지 토큰입니다.
+     */
+    interface Handler {
+        Object run(String[] args);
+    }
+
+    // 명령의 실행 방식
+    enum Mode {
+        LIGHT, // 색인 조회 등 가벼운 조회 (제한 없음)
+        HEAVY  // 전체 행을 훑거나 파일을 읽는 무거운 작업 (동시 실행 개수 제한)
+    }
+
+    // 명령 하나
+    private static class Command {
+        final String usage;
+        final Mode mode;
+        final Dataset.Index index; // 쓰는 색인 (없으면 null, 아직 구성되지 않았으면 HEAVY 로 실행)
+        final Handler handler;
+
+        Command(String usage, Mode mode, Dataset.Index index, Handler handler) {
+            this.usage = usage;
+            this.mode = mode;
+            this.index = index;
+            this.handler = handler;
+        }
+    }
+
+    private final MyService service;
+    private final int port;
+    private final Semaphore heavyPermits;
+    private final long admissionWaitMillis;
+    private final Map<String, Command> commands = new LinkedHashMap<>();
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private ServerSocket serverSocket;
+
+    /**
+     * @param service 조회할 서비스 (이미 데이터를 불러온 것)
+     * @param port 열 포트 (0 이면 빈 포트 아무거나)
+     * @param maxConcurrentHeavy 무거운 작업을 동시에 실행할 최대 개수 (1 이상)
+     */
+    public QueryServer(MyService service, int port, int maxConcurrentHeavy) {
+        this(service, port, maxConcurrentHeavy, ADMISSION_WAIT_MILLIS);
+    }
+
+    /**
+     * @param service 조회할 서비스 (이미 데이터를 불러온 것)
+     * @param port 열 포트 (0 이면 빈 포트 아무거나)
+     * @param maxConcurrentHeavy 무거운 작업을 동시에 실행할 최대 개수 (1 이상)
+     * @param admissionWaitMillis 무거운 작업이 자리를 기다리는 최대 시간 (ms)
+     */
+    public QueryServer(MyService service, int port, int maxConcurrentHeavy, long admissionWaitMillis) {
+        if (maxConcurrentHeavy < 1) {
+            throw new IllegalArgumentException("무거운 작업 동시 실행 수는 1 이상이어야 합니다: " + maxConcurrentHeavy);
+        }
+        this.service = service;
+        this.port = port;
+        this.heavyPermits = new Semaphore(maxConcurrentHeavy, true);
+        this.admissionWaitMillis = admissionWaitMillis;
+        registerCommands();
+    }
+
+    // 명령 등록 (테스트에서도 사용)
+    void register(String name, String usage, Mode mode, Handler handler) {
+        commands.put(name, new Command(usage, mode, null, handler));
+    }
+
+    // 색인 index 를 쓰는 가벼운 조회 등록 (색인이 아직 없으면 HEAVY 로 실행)
+    private void register(String name, String usage, Dataset.Index index, Handler handler) {
+        commands.put(name, new Command(usage, Mode.LIGHT, index, handler));
+    }
+
+    private void registerCommands() {
+        register("PING", "PING", Mode.LIGHT, args -> "pong");
+        register("HELP", "HELP", Mode.LIGHT, args -> {
+            List<String> usages = new ArrayList<>();
+            for (Command command : commands.values()) {
+                if (command.mode == Mode.HEAVY) {
+                    usages.add(command.usage + "  (HEAVY)");
+                } else if (command.index != null) {
+                    usages.add(command.usage + "  (" + command.index + " 색인이 없으면 HEAVY)");
+                } else {
+                    usages.add(command.usage);
+                }
+            }
+            return usages;
+        });
+        register("STATS", "STATS", Mode.LIGHT, args -> service.getStatsReport());
+        register("TOTAL_TIME", "TOTAL_TIME", Mode.LIGHT, args -> service.getTotalTime());
+        register("SOLVED_PERCENT", "SOLVED_PERCENT", Mode.LIGHT, args -> service.getProblemSolvedPercentage());
+        register("AVG_TIME", "AVG_TIME <변수>", Dataset.Index.VARIABLE,
+                args -> service.getAverageTimeForVariable(intArg(args, 0)));
+        register("AVG_TIME_ALL", "AVG_TIME_ALL", Mode.HEAVY, args -> service.getAverageTimeForAllVariables());
+        register("WITHIN", "WITHIN <최대 시간> [최소 시간] [offset] [limit]", Dataset.Index.TIME, args -> service.getProblemsSolvedWithinTime(
+                doubleArg(args, 0), args.length > 1 ? doubleArg(args, 1) : 0.0,
+                args.length > 2 ? intArg(args, 2) : 0, args.length > 3 ? intArg(args, 3) : MAX_ITEMS));
+        register("COUNT_WITHIN", "COUNT_WITHIN <최대 시간> [최소 시간]", Dataset.Index.TIME, args -> service.countProblemsSolvedWithinTime(
+                doubleArg(args, 0), args.length > 1 ? doubleArg(args, 1) : 0.0));
+        register("PROFIT", "PROFIT <문제 번호>", Mode.LIGHT, args -> service.getProfitByProblemId(intArg(args, 0)));
+        register("RETURN_RANK", "RETURN_RANK <문제 번호>", Dataset.Index.RETURN, args -> service.getReturnRank(intArg(args, 0)));
+        register("TOP_RETURN", "TOP_RETURN <K>", Dataset.Index.RETURN,
+                args -> service.getTopKProblemsByHighestReturn(countArg(args, 0)));
+        register("TOP_SAFE", "TOP_SAFE <K>", Dataset.Index.RISK, args -> service.getTopKProblemsByLowestRisk(countArg(args, 0)));
+        register("RETURN_RANGE", "RETURN_RANGE <최소> <최대>", Dataset.Index.RETURN,
+                args -> limit(service.getProblemsByReturnRange(doubleArg(args, 0), doubleArg(args, 1))));
+        register("RISK_RANGE", "RISK_RANGE <최소> <최대>", Dataset.Index.RISK,
+                args -> limit(service.getProblemsByRiskRange(doubleArg(args, 0), doubleArg(args, 1))));
+        register("TOP", "TOP <RETURN|RISK|TIME|RETURN_RISK_RATIO> <K> [ASC|DESC]", Mode.HEAVY, args -> service.getTopK(
+                metricArg(args, 0), countArg(args, 1), args.length < 3 || !args[2].equalsIgnoreCase("ASC"), false));
+        register("HISTOGRAM", "HISTOGRAM <지표> <구간 개수>", Mode.HEAVY,
+                args -> service.generateHistogram(metricArg(args, 0), countArg(args, 1)));
+        register("QUANTILES", "QUANTILES <지표> <분위> [분위...]", Mode.HEAVY, args -> {
+            double[] fractions = new double[Math.max(0, args.length - 1)];
+            for (int i = 0; i < fractions.length; i++) {
+                fractions[i] = doubleArg(args, i + 1);
+            }
+            return service.getQuantiles(metricArg(args, 0), fractions);
+        });
+        register("KTH_WEIGHT", "KTH_WEIGHT <문제 번호> <k>", Dataset.Index.HOLDINGS,
+                args -> service.FindTopKWeights(intArg(args, 0), intArg(args, 1)));
+        register("HOLDINGS", "HOLDINGS <문제 번호> <K>", Dataset.Index.HOLDINGS,
+                args -> service.getTopHoldings(intArg(args, 0), countArg(args, 1)));
+        register("EXPOSURE", "EXPOSURE <변수> [ALL]", Mode.HEAVY, args -> {
+            int variable = intArg(args, 0);
+            AssetExposure exposure = service.getAssetExposure(args.length < 2 || !args[1].equalsIgnoreCase("ALL"));
+            if (variable < 0 || variable >= exposure.getVariableCount()) {
+                throw new IllegalArgumentException("변수 번호가 범위를 벗어났습니다: " + variable);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("portfolios", exposure.getPortfolioCount());
+            result.put("sum", exposure.getSum(variable));
+            result.put("mean", exposure.getMean(variable));
+            result.put("max", exposure.getMax(variable));
+            result.put("usage", exposure.getUsageCount(variable));
+            result.put("share", exposure.getShare(variable));
+            result.put("returnExposure", exposure.getReturnExposure(variable));
+            result.put("weightedReturn", exposure.getWeightedReturn(variable));
+            return result;
+        });
+        register("FRONTIER", "FRONTIER [HULL]", Dataset.Index.FRONTIER,
+                args -> service.getEfficientFrontierProblems(args.length > 0 && args[0].equalsIgnoreCase("HULL")));
+        register("REFRESH", "REFRESH", Mode.HEAVY, args -> service.refresh()); // Maps 가 refresh 끼리만 순서대로 실행
+    }
+
+    /**
+     * 포트를 열고 연결을 받기 시작합니다. 연결을 받는 스레드는 데몬이 아니므로 close() 전까지 JVM 이 끝나지 않습니다.
+     *
+     * @throws IOException 포트를 열지 못한 경우
+     */
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("이미 시작한 서버입니다.");
+        }
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        ServerSocket listening = serverSocket;
+        Thread.ofPlatform().name("query-server-accept").start(() -> acceptLoop(listening));
+    }
+
+    /**
+     * @return 실제로 연 포트 (시작하기 전이면 -1)
+     */
+    public synchronized int getPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    /**
+     * 새 연결을 더 받지 않고, 처리 중인 연결을 닫습니다.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        connections.shutdownNow(); // 연결을 처리하는 가상 스레드를 깨워 소켓을 닫게 함
+    }
+
+    private void acceptLoop(ServerSocket listening) {
+        while (!listening.isClosed()) {
+            try {
+                Socket socket = listening.accept();
+                connections.submit(() -> serve(socket));
+            } catch (SocketException e) {
+                return; // close() 로 닫힘
+            } catch (IOException e) {
+                System.err.println("연결 받기 중 오류 발생: " + e.getMessage());
+            }
+        }
+    }
+
+    // 연결 하나: 한 줄 읽고 한 줄 응답을 연결이 끊길 때까지 반복
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+                out.write(handle(line));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (SocketTimeoutException e) {
+            // 오래 쉬는 연결은 닫음
+        } catch (IOException e) {
+            if (!connections.isShutdown()) {
+                System.err.println("클라이언트 응답 중 오류 발생: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 명령 한 줄을 실행하고 응답 JSON 을 반환합니다. (소켓 없이 같은 JVM 안에서 호출해도 됨)
+     *
+     * @param line 명령 줄 (예: "TOP_RETURN 10")
+     * @return 응답 JSON 한 줄 (줄바꿈 없음)
+     */
+    public String handle(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        Command command = commands.get(tokens[0].toUpperCase(Locale.ROOT));
+        if (command == null) {
+            return error("알 수 없는 명령입니다: " + tokens[0] + " (HELP 로 목록 확인)", false);
+        }
+        String[] args = new String[tokens.length - 1];
+        System.arraycopy(tokens, 1, args, 0, args.length);
+
+        boolean admitted = false;
+        if (command.mode == Mode.HEAVY || (command.index != null && !service.isIndexReady(command.index))) {
+            try {
+                admitted = heavyPermits.tryAcquire(admissionWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!admitted) {
+                return error("무거운 작업이 많아 거절했습니다. 잠시 뒤 다시 시도하세요.", true);
+            }
+        }
+        try {
+            Object result = command.handler.run(args);
+            StringBuilder json = new StringBuilder("{\"ok\":true,\"result\":");
+            appendJson(json, result);
+            return json.append('}').toString();
+        } catch (IllegalArgumentException e) { // NumberFormatException, 인자 부족 포함
+            return error("잘못된 인자입니다 (" + e.getMessage() + "). 사용법: " + command.usage, false);
+        } catch (RuntimeException e) {
+            return error("조회 중 오류 발생: " + e, false);
+        } finally {
+            if (admitted) {
+                heavyPermits.release();
+            }
+        }
+    }
+
+    // index 번째 인자 (없으면 IllegalArgumentException)
+    private static String arg(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("인자가 부족합니다");
+        }
+        return args[index];
+    }
+
+    private static int intArg(String[] args, int index) {
+        return Integer.parseInt(arg(args, index));
+    }
+
+    private static double doubleArg(String[] args, int index) {
+        return Double.parseDouble(arg(args, index));
+    }
+
+    // K, 구간 개수처럼 1 ~ MAX_ITEMS 인 인자
+    private static int countArg(String[] args, int index) {
+        int count = intArg(args, index);
+        if (count < 1 || count > MAX_ITEMS) {
+            throw new IllegalArgumentException("1 ~ " + MAX_ITEMS + " 이어야 합니다: " + count);
+        }
+        return count;
+    }
+
+    private static MyService.Metric metricArg(String[] args, int index) {
+        return MyService.Metric.valueOf(arg(args, index).toUpperCase(Locale.ROOT));
+    }
+
+    // 결과가 너무 많으면 앞의 MAX_ITEMS 개만
+    private static List<Integer> limit(List<Integer> problemIds) {
+        return problemIds.size() > MAX_ITEMS ? problemIds.subList(0, MAX_ITEMS) : problemIds;
+    }
+
+    private static String error(String message, boolean busy) {
+        StringBuilder json = new StringBuilder("{\"ok\":false,");
+        if (busy) {
+            json.append("\"busy\":true,");
+        }
+        json.append("\"error\":");
+        appendJson(json, message);
+        return json.append('}').toString();
+    }
+
+    // 조회 결과를 JSON 으로 씀 (NaN, 무한대는 null)
+    private static void appendJson(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            json.append(Double.isFinite(number) ? String.valueOf(number) : "null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof double[] numbers) {
+            json.append('[');
+            for (int i = 0; i < numbers.length; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                appendJson(json, numbers[i]);
+            }
+            json.append(']');
+        } else if (value instanceof Map<?, ?> map) {
+            json.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                appendJson(json, String.valueOf(entry.getKey()));
+                json.append(':');
+                appendJson(json, entry.getValue());
+            }
+            json.append('}');
+        } else if (value instanceof Iterable<?> items) {
+            json.append('[');
+            boolean first = true;
+            for (Object item : items) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                appendJson(json, item);
+            }
+            json.append(']');
+        } else {
+            String text = value.toString();
+            json.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '"' -> json.append("\\\"");
+                    case '\\' -> json.append("\\\\");
+                    case '\n' -> json.append("\\n");
+                    case '\r' -> json.append("\\r");
+                    case '\t' -> json.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            json.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            json.append(c);
+                        }
+                    }
+                }
+            }
+            json.append('"');
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxHeavy = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        MyService service = new MyService();
+        System.out.printf("데이터 불러오기 완료 (%.1f초)%n", (System.nanoTime() - start) / 1e9);
+
+        QueryServer server = new QueryServer(service, port, maxHeavy);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                System.err.println("서버 종료 중 오류 발생: " + e.getMessage());
+            }
+        }));
+        System.out.printf("서버 시작: 127.0.0.1:%d (무거운 작업 동시 %d개)%n", server.getPort(), maxHeavy);
+    }
+}
@@ -1,15 +1,30 @@
 package service;
+import myutil.AssetExposure;
+import myutil.TopKSelector;
+
 import java.util.*;
 
 public class ServiceRunner {
+    private static final int PAGE_SIZE = 100; // 목록을 한 번에 출력할 개수
+    // 메뉴를 보여 줄 때 이 시간(초)이 지났으면 solver 가 이어 쓴 결과를 반영 (-Dservice.refreshInterval, 0 이하이면 94번으로만)
+    private static final long REFRESH_INTERVAL_NANOS = Long.getLong("service.refreshInterval", 60) * 1_000_000_000L;
+
     public static void main(String[] args) {
     	System.out.println("\n========= 데이터 불러오는 중 =========");
         Scanner scanner = new Scanner(System.in);
         MyService service = new MyService();
         System.out.println("\n========= 불러오기 완료 =========");
         int K;
+        long lastRefresh = System.nanoTime();
 
         while (true) {
+            if (REFRESH_INTERVAL_NANOS > 0 && System.nanoTime() - lastRefresh >= REFRESH_INTERVAL_NANOS) {
+                int added = service.refresh(); // solver 가 이어 쓴 결과 반영
+                lastRefresh = System.nanoTime();
+                if (added > 0) {
+                    System.out.println("\n새로 추가된 문제 " + added + "개를 불러왔습니다.");
+                }
+            }
             System.out.println("\n========= 서비스 메뉴 =========");
             System.out.println("\n-------- 문제 풀이 관련 --------");
             System.out.println("11. 특정 변수를 포함한 문제의 평균 문제풀이 소요시간 확인하기");
@@ -23,8 +38,15 @@ public class ServiceRunner {
             System.out.println("24. Return 히스토그램 그리기");
             System.out.println("25. Risk 히스토그램 그리기");
             System.out.println("26. 효율적 투자선 그리기");
+            System.out.println("27. 지표별 상위 K개 포트폴리오 보기");
+            System.out.println("28. 지표별 분위수(p50/p90/p99) 확인하기");
+            System.out.println("29. 여러 조건으로 문제 검색하기");
+            System.out.println("30. optimal 포트폴리오의 자산별 비중(노출도) 보기");
             System.out.println("\n-------- 기타 --------");
             System.out.println("91. 특정 문제의 상위 K번째 가중치 확인하기");
+            System.out.println("92. 수익률 상위 N개 포트폴리오의 주요 보유 자산 K개 보기");
+            System.out.println("93. 로딩/조회 통계(stats) 보기");
+            System.out.println("94. 결과 파일 다시 읽기 (새로 추가된 문제 반영)");
             
             System.out.println("0. 종료");
             System.out.print("선택: ");
@@ -39,7 +61,20 @@ public class ServiceRunner {
                 case 12:
                     System.out.print("시간 제한 입력(초): ");
                     double time = scanner.nextDouble();
-                    System.out.println("풀린 문제: " + service.getProblemsSolvedWithinTime(time));
+                    int solvedCount = service.countProblemsSolvedWithinTime(time, 0.0);
+                    System.out.println("풀린 문제 수: " + solvedCount);
+                    // 결과가 많을 수 있으므로 페이지 단위로 출력
+                    for (int offset = 0; offset < solvedCount; offset += PAGE_SIZE) {
+                        System.out.printf("풀린 문제 (%d-%d): %s%n", offset + 1, Math.min(solvedCount, offset + PAGE_SIZE),
+                                service.getProblemsSolvedWithinTime(time, 0.0, offset, PAGE_SIZE));
+                        if (offset + PAGE_SIZE >= solvedCount) {
+                            break;
+                        }
+                        System.out.print("다음 페이지 보기(1: 계속, 0: 그만): ");
+                        if (scanner.nextInt() != 1) {
+                            break;
+                        }
+                    }
                     break;
                 case 13:
                     System.out.printf("풀린 문제 비율: %.2f%%%n", service.getProblemSolvedPercentage());
@@ -55,28 +90,123 @@ public class ServiceRunner {
                 case 22:
                     System.out.print("K 입력: ");
                     K = scanner.nextInt();
-                    TreeMap<Double, Integer[]> lowestRisk = service.getTreeMapSortedByProfitGroupedByProblemId();
-                    List<Integer> topNRisk = service.getTopNProblemsBySortedTreeMap(lowestRisk, K);
-                    System.out.println("높은 Return의 K개의 포트폴리오: " + topNRisk);
+                    List<Integer> topNReturn = service.getTopKProblemsByHighestReturn(K);
+                    System.out.println("높은 Return의 K개의 포트폴리오: " + topNReturn);
                     break;
                 case 23:
                     System.out.print("K 입력: ");
                     K = scanner.nextInt();
-                    TreeMap<Double, Integer[]> highestReturn = service.getTreeMapSortedByRiskGroupedByProblemId();
-                    List<Integer> topNReturn = service.getTopNProblemsBySortedTreeMap(highestReturn, K);
-                    System.out.println("낮은 Risk의 K개 포트폴리오: " + topNReturn);
+                    List<Integer> topNRisk = service.getTopKProblemsByLowestRisk(K);
+                    System.out.println("낮은 Risk의 K개 포트폴리오: " + topNRisk);
                     break;
                 case 24:
-                    List<double[]> hist1 = service.generateHistogram(service.getSortedProfits(), 20);
+                    List<double[]> hist1 = service.generateHistogram(MyService.Metric.RETURN, 20);
                     service.showHistogram(hist1);
                     break;
                 case 25:
-                    List<double[]> hist2 = service.generateHistogram(service.getSortedRisks(), 20);
+                    List<double[]> hist2 = service.generateHistogram(MyService.Metric.RISK, 20);
                     service.showHistogram(hist2);
                     break;
                 case 26:
                     service.drawEfficientFrontier();
                     break;
+                case 27:
+                    System.out.print("지표 선택(1: Return, 2: Risk, 3: 소요시간, 4: Return/Risk): ");
+                    int metricChoice = scanner.nextInt();
+                    if (metricChoice < 1 || metricChoice > 4) {
+                        System.out.println("잘못된 입력입니다.");
+                        break;
+                    }
+                    MyService.Metric metric = MyService.Metric.values()[metricChoice - 1];
+                    System.out.print("K 입력: ");
+                    K = scanner.nextInt();
+                    System.out.print("정렬 순서(1: 큰 값부터, 2: 작은 값부터): ");
+                    boolean largest = scanner.nextInt() != 2;
+                    System.out.print("K번째와 같은 값 포함(1: 포함, 2: 정확히 K개): ");
+                    boolean includeTies = scanner.nextInt() == 1;
+                    System.out.println(metric + " 기준 K개 포트폴리오: " + service.getTopK(metric, K, largest, includeTies));
+                    break;
+                case 28:
+                    System.out.print("지표 선택(1: Return, 2: Risk, 3: 소요시간, 4: Return/Risk): ");
+                    int quantileMetricChoice = scanner.nextInt();
+                    if (quantileMetricChoice < 1 || quantileMetricChoice > 4) {
+                        System.out.println("잘못된 입력입니다.");
+                        break;
+                    }
+                    MyService.Metric quantileMetric = MyService.Metric.values()[quantileMetricChoice - 1];
+                    System.out.print("추가로 볼 분위 입력(0-1, 없으면 -1): ");
+                    double fraction = scanner.nextDouble();
+                    double[] quantiles = service.getQuantiles(quantileMetric, 0.5, 0.9, 0.99);
+                    System.out.printf("%s 분위수: p50 %.6f, p90 %.6f, p99 %.6f%n", quantileMetric, quantiles[0], quantiles[1], quantiles[2]);
+                    if (fraction >= 0 && fraction <= 1) {
+                        System.out.printf("%s %.4f 분위: %.6f%n", quantileMetric, fraction, service.getQuantiles(quantileMetric, fraction)[0]);
+                    }
+                    break;
+                case 29:
+                    // 입력이 -1 인 조건은 사용하지 않음
+                    ProblemQuery query = service.query();
+                    System.out.print("optimal 여부(1: optimal, 0: optimal 아님, -1: 상관없음): ");
+                    int optimalChoice = scanner.nextInt();
+                    if (optimalChoice >= 0) {
+                        query.optimal(optimalChoice == 1);
+                    }
+                    System.out.print("최소 수익률(-1: 조건 없음): ");
+                    double minReturn = scanner.nextDouble();
+                    if (minReturn != -1) {
+                        query.returnBetween(minReturn, Double.POSITIVE_INFINITY);
+                    }
+                    System.out.print("최대 위험 크기(양수, -1: 조건 없음): ");
+                    double maxRisk = scanner.nextDouble();
+                    if (maxRisk != -1) {
+                        query.riskBetween(-maxRisk, 0.0); // 위험은 음수로 저장됨
+                    }
+                    System.out.print("최대 소요 시간(초, -1: 조건 없음): ");
+                    double maxTime = scanner.nextDouble();
+                    if (maxTime != -1) {
+                        query.timeBetween(0.0, maxTime);
+                    }
+                    System.out.print("포함해야 하는 변수 인덱스(0-2999, -1: 조건 없음): ");
+                    int variable = scanner.nextInt();
+                    if (variable != -1) {
+                        query.usesVariable(variable);
+                    }
+                    System.out.print("변수 개수 범위(최소 최대, -1 -1: 조건 없음): ");
+                    int minVariables = scanner.nextInt();
+                    int maxVariables = scanner.nextInt();
+                    if (minVariables != -1 || maxVariables != -1) {
+                        query.variableCountBetween(minVariables == -1 ? 0 : minVariables,
+                                maxVariables == -1 ? Integer.MAX_VALUE : maxVariables);
+                    }
+                    System.out.println("조건을 만족하는 문제 수: " + query.count());
+                    System.out.printf("평균 소요 시간: %.6f초, 평균 수익률: %.6f%n",
+                            query.average(MyService.Metric.TIME), query.average(MyService.Metric.RETURN));
+                    System.out.println("수익률 상위 10개: " + query.topK(MyService.Metric.RETURN, 10, true));
+                    break;
+                case 30:
+                    System.out.print("자산 번호 입력(0-2999, -1: 가중치 합 상위 K개): ");
+                    int asset = scanner.nextInt();
+                    AssetExposure exposure = service.getAssetExposure();
+                    int[] assets;
+                    if (asset == -1) {
+                        System.out.print("K값 입력: ");
+                        TopKSelector selector = new TopKSelector(scanner.nextInt(), true, false);
+                        for (int v = 0; v < exposure.getVariableCount(); v++) {
+                            selector.offer(v, exposure.getSum(v));
+                        }
+                        assets = selector.result();
+                    } else if (asset >= 0 && asset < exposure.getVariableCount()) {
+                        assets = new int[]{asset};
+                    } else {
+                        System.out.println("잘못된 입력입니다.");
+                        break;
+                    }
+                    System.out.println("optimal 포트폴리오 수: " + exposure.getPortfolioCount());
+                    for (int v : assets) {
+                        System.out.printf("자산 %d: 합 %.6f, 평균 %.6f, 최대 %.6f, 사용 %d회, 비중 %.4f%%, 수익률 노출 %.6f (가중 평균 수익률 %.6f)%n",
+                                v, exposure.getSum(v), exposure.getMean(v), exposure.getMax(v), exposure.getUsageCount(v),
+                                exposure.getShare(v) * 100, exposure.getReturnExposure(v), exposure.getWeightedReturn(v));
+                    }
+                    break;
                 case 91:
                 	System.out.print("문제 번호 입력(1-80000): ");
                     int pid = scanner.nextInt();
@@ -84,6 +214,28 @@ public class ServiceRunner {
                     int k = scanner.nextInt();
                     System.out.printf("문제 %d의 %d번째 가중치: %.10f%n", pid, k, service.FindTopKWeights(pid, k));
                     break;
+                case 92:
+                    System.out.print("포트폴리오 개수 N 입력: ");
+                    int portfolioCount = scanner.nextInt();
+                    System.out.print("보유 자산 개수 K 입력: ");
+                    int holdingCount = scanner.nextInt();
+                    Map<Integer, LinkedHashMap<Integer, Double>> holdings =
+                            service.getTopHoldings(service.getTopKProblemsByHighestReturn(portfolioCount), holdingCount);
+                    for (Map.Entry<Integer, LinkedHashMap<Integer, Double>> entry : holdings.entrySet()) {
+                        System.out.printf("문제 %d:", entry.getKey());
+                        for (Map.Entry<Integer, Double> holding : entry.getValue().entrySet()) {
+                            System.out.printf(" 변수 %d(%.6f)", holding.getKey(), holding.getValue());
+                        }
+                        System.out.println();
+                    }
+                    break;
+                case 93:
+                    System.out.print(service.getStatsReport());
+                    break;
+                case 94:
+                    System.out.println("새로 추가된 문제 " + service.refresh() + "개를 불러왔습니다.");
+                    lastRefresh = System.nanoTime();
+                    break;
                 case 0:
                     System.out.println("프로그램을 종료합니다.");
                     System.exit(0);
@@ -0,0 +1,50 @@
+package service;
+
+import myutil.Maps;
+import myutil.TopKSelector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 지표 값이 가장 큰(또는 작은) K 개를 계속 갱신하는 집계. MyService.trackTopK 로 만듭니다.
+ *
+ * 사용 예) try (TopKTracker top = service.trackTopK(Metric.RETURN, 10, true, false)) { ... top.result() ... }
+ */
+public class TopKTracker extends MetricTracker {
+    private final int k;
+    private final boolean largest;
+    private final boolean includeTies;
+    private TopKSelector selector;
+
+    TopKTracker(Maps maps, MyService.Metric metric, int k, boolean largest, boolean includeTies) {
+        super(maps, metric);
+        this.k = k;
+        this.largest = largest;
+        this.includeTies = includeTies;
+        this.selector = new TopKSelector(k, largest, includeTies);
+    }
+
+    @Override
+    protected void add(int problemId, double value) {
+        selector.offer(problemId, value);
+    }
+
+    @Override
+    protected void reset() {
+        selector = new TopKSelector(k, largest, includeTies);
+    }
+
+    /**
+     * @return 지금까지의 상위 K 개 문제 번호 (앞서는 순서, 복사본이므로 이후 갱신과 무관)
+     */
+    public synchronized List<Integer> result() {
+        int[] problemIds = selector.result();
+        List<Integer> result = new ArrayList<>(problemIds.length);
+        for (int problemId : problemIds) {
+            result.add(problemId);
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
@@ -0,0 +1,83 @@
+package myutil;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EfficientFrontierTest {
+
+    // 같은 x 에서는 y 가 큰 점으로 바뀌고, y 까지 같으면 먼저 들어온 점이 남음
+    @Test
+    void equalXKeepsHighestYAndFirstOfTies() {
+        EfficientFrontier frontier = new EfficientFrontier();
+        assertTrue(frontier.add(1, 1.0, 1.0));
+        assertFalse(frontier.add(2, 1.0, 0.5)); // 같은 x, 더 작은 y
+        assertFalse(frontier.add(3, 1.0, 1.0)); // 완전히 같은 점
+        assertTrue(frontier.add(4, 1.0, 2.0)); // 같은 x, 더 큰 y -> 1 을 대신함
+        assertArrayEquals(new int[]{4}, frontier.getProblemIds());
+        assertFalse(frontier.add(5, 2.0, 2.0)); // 위험만 더 큼
+        assertFalse(frontier.add(6, Double.NaN, 9.0));
+        assertEquals(1, frontier.size());
+    }
+
+    // 새 점 하나가 지배하는 여러 점을 한 번에 지우고 나머지 순서는 유지
+    @Test
+    void removesEveryDominatedPoint() {
+        EfficientFrontier frontier = new EfficientFrontier();
+        frontier.add(1, 1.0, 1.0);
+        frontier.add(2, 2.0, 2.0);
+        frontier.add(3, 3.0, 3.0);
+        frontier.add(4, 4.0, 4.0);
+        frontier.add(5, 5.0, 5.0);
+        assertTrue(frontier.add(6, 1.5, 3.5)); // 2, 3 을 지배
+        assertArrayEquals(new int[]{1, 6, 4, 5}, frontier.getProblemIds());
+        assertArrayEquals(new double[]{1.0, 1.5, 4.0, 5.0}, frontier.getXs());
+        assertTrue(frontier.add(7, 0.5, 10.0)); // 모두 지배
+        assertArrayEquals(new int[]{7}, frontier.getProblemIds());
+    }
+
+    // 한 번에 정렬해 만든 투자선과, 일부로 만든 뒤 나머지를 add 로 넣은 투자선이 같음 (같은 값이 많은 좌표 포함)
+    @Test
+    void incrementalAddMatchesSortAndSweep() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 200; trial++) {
+            int count = 1 + random.nextInt(60);
+            int[] problemIds = new int[count];
+            double[] xs = new double[count];
+            double[] ys = new double[count];
+            for (int i = 0; i < count; i++) {
+                problemIds[i] = i;
+                xs[i] = random.nextInt(10); // 작은 정수 범위 -> 같은 x, 같은 y 가 자주 나옴
+                ys[i] = random.nextInt(10);
+            }
+            EfficientFrontier expected = new EfficientFrontier(problemIds, xs, ys, count);
+
+            int initial = random.nextInt(count + 1);
+            EfficientFrontier actual = new EfficientFrontier(problemIds, xs, ys, initial);
+            for (int i = initial; i < count; i++) {
+                actual.add(problemIds[i], xs[i], ys[i]);
+            }
+            assertArrayEquals(expected.getXs(), actual.getXs(), "trial " + trial);
+            assertArrayEquals(expected.getYs(), actual.getYs(), "trial " + trial);
+            assertArrayEquals(expected.getProblemIds(), actual.getProblemIds(), "trial " + trial);
+            for (int i = 1; i < actual.size(); i++) { // x, y 모두 강하게 증가
+                assertTrue(actual.getX(i - 1) < actual.getX(i) && actual.getY(i - 1) < actual.getY(i));
+            }
+        }
+    }
+
+    // 복사본에 add 해도 원본은 그대로
+    @Test
+    void copyIsIndependent() {
+        EfficientFrontier frontier = new EfficientFrontier(new int[]{1, 2}, new double[]{1, 2}, new double[]{1, 2}, 2);
+        EfficientFrontier copy = frontier.copy();
+        copy.add(3, 0.0, 5.0);
+        assertArrayEquals(new int[]{1, 2}, frontier.getProblemIds());
+        assertArrayEquals(new int[]{3}, copy.getProblemIds());
+    }
+}
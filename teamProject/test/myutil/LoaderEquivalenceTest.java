@@ -0,0 +1,142 @@
+package myutil;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 같은 CSV 를 LEGACY(String.split + Double.parseDouble) 와 FAST/LAZY(ByteNumberParser) 로 읽어 모든 값을 비교합니다.
+ */
+class LoaderEquivalenceTest {
+    // 지수 표기, 음수, null(-1), 0, 앞뒤 공백 등 ByteNumberParser 가 Double.parseDouble 과 같게 읽어야 하는 값들
+    private static final String[] SPECIAL_WEIGHTS = {
+            "-1", "0", "0.0", "1", "1e-5", "2.5E-3", "-3.75e+2", "1.0E10", "-0.0", "0.30000000000000004",
+            "4.9e-324", "1.7976931348623157E308", "123456789.123456789", " 0.25 ", "-1.0", ".5", "-.125"
+    };
+
+    @TempDir
+    File dir;
+
+    private File weightFile;
+    private File statusFile;
+    private File valueFile;
+
+    // problemCount 개 문제의 CSV 를 쓰고, trailingNewline 이 false 이면 세 파일 모두 마지막 줄바꿈을 뺌
+    private void writeFiles(int problemCount, boolean trailingNewline) throws IOException {
+        SplittableRandom random = new SplittableRandom(42L);
+        StringBuilder weights = new StringBuilder("prob_num");
+        for (int v = 0; v < Maps.VARIABLE_COUNT; v++) {
+            weights.append(',').append(v);
+        }
+        weights.append('\n');
+        StringBuilder status = new StringBuilder("prob_num,status,elapsed,n_vars\n");
+        StringBuilder values = new StringBuilder("prob_num,risk,return\n");
+
+        for (int p = 0; p < problemCount; p++) {
+            int problemId = p * 3 + 1; // 문제 번호는 파일 순서와 다르게 띄엄띄엄
+            weights.append(problemId);
+            for (int v = 0; v < Maps.VARIABLE_COUNT; v++) {
+                weights.append(',');
+                int pick = random.nextInt(20);
+                if (pick < SPECIAL_WEIGHTS.length && random.nextInt(4) == 0) {
+                    weights.append(SPECIAL_WEIGHTS[pick]);
+                } else if (pick < 15) {
+                    weights.append("-1");
+                } else {
+                    weights.append(random.nextDouble() * (random.nextBoolean() ? 1 : -1e-3));
+                }
+            }
+            weights.append('\n');
+            status.append(problemId).append(',').append(p % 3 == 0 ? "infeasible" : "optimal").append(',')
+                    .append(p % 5 == 0 ? "3.2e-4" : String.valueOf(random.nextDouble())).append(',')
+                    .append(p % 7 == 0 ? "1.2E3" : String.valueOf(random.nextInt(3000))).append('\n');
+            if (p % 3 != 0) {
+                values.append(problemId).append(',')
+                        .append(p % 4 == 0 ? "-1.5E-2" : String.valueOf(-random.nextDouble())).append(',')
+                        .append(p % 6 == 0 ? "7e-3" : String.valueOf(random.nextDouble() - 0.5)).append('\n');
+            }
+        }
+        if (!trailingNewline) {
+            weights.setLength(weights.length() - 1);
+            status.setLength(status.length() - 1);
+            values.setLength(values.length() - 1);
+        }
+        weightFile = write("weight.csv", weights);
+        statusFile = write("status.csv", status);
+        valueFile = write("value.csv", values);
+    }
+
+    private File write(String name, CharSequence content) throws IOException {
+        File file = new File(dir, name);
+        Files.writeString(file.toPath(), content, StandardCharsets.US_ASCII);
+        return file;
+    }
+
+    private Maps open(Maps.Loader loader) {
+        return new Maps(weightFile.getPath(), statusFile.getPath(), valueFile.getPath(), loader);
+    }
+
+    private void assertSameAsLegacy(Maps.Loader loader) {
+        try (Maps legacy = open(Maps.Loader.LEGACY); Maps other = open(loader)) {
+            WeightStore expectedWeights = legacy.getWeightStore();
+            WeightStore actualWeights = other.getWeightStore();
+            assertEquals(expectedWeights.size(), actualWeights.size());
+            for (int row = 0; row < expectedWeights.size(); row++) {
+                int problemId = expectedWeights.getProblemId(row);
+                assertEquals(problemId, actualWeights.getProblemId(row));
+                assertEquals(row, actualWeights.getRow(problemId));
+                WeightRow expected = expectedWeights.readRow(row);
+                WeightRow actual = actualWeights.readRow(row);
+                for (int v = 0; v < Maps.VARIABLE_COUNT; v++) {
+                    assertEquals(expected.getWeight(v), actual.getWeight(v), "problem " + problemId + ", variable " + v);
+                }
+            }
+
+            StatusStore expectedStatus = legacy.getStatusStore();
+            StatusStore actualStatus = other.getStatusStore();
+            assertEquals(expectedStatus.size(), actualStatus.size());
+            for (int row = 0; row < expectedStatus.size(); row++) {
+                assertEquals(expectedStatus.getProblemId(row), actualStatus.getProblemId(row));
+                assertEquals(expectedStatus.isOptimal(row), actualStatus.isOptimal(row));
+                assertEquals(expectedStatus.getTimeTaken(row), actualStatus.getTimeTaken(row));
+                assertEquals(expectedStatus.getVariableCount(row), actualStatus.getVariableCount(row));
+            }
+
+            ValueStore expectedValues = legacy.getValueStore();
+            ValueStore actualValues = other.getValueStore();
+            assertEquals(expectedValues.size(), actualValues.size());
+            for (int row = 0; row < expectedValues.size(); row++) {
+                assertEquals(expectedValues.getProblemId(row), actualValues.getProblemId(row));
+                assertEquals(expectedValues.getRisk(row), actualValues.getRisk(row));
+                assertEquals(expectedValues.getReturn(row), actualValues.getReturn(row));
+            }
+        }
+    }
+
+    @Test
+    void fastMatchesLegacy() throws IOException {
+        writeFiles(200, true);
+        assertSameAsLegacy(Maps.Loader.FAST);
+    }
+
+    @Test
+    void lazyMatchesLegacy() throws IOException {
+        writeFiles(200, true);
+        assertSameAsLegacy(Maps.Loader.LAZY);
+    }
+
+    // 줄바꿈 없이 끝난 마지막 줄도 기존 로더처럼 읽음
+    @Test
+    void lastLineWithoutNewline() throws IOException {
+        writeFiles(50, false);
+        assertSameAsLegacy(Maps.Loader.FAST);
+        assertSameAsLegacy(Maps.Loader.LAZY);
+    }
+}
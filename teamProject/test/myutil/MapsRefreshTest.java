@@ -0,0 +1,104 @@
+package myutil;
+
+import benchmark.SyntheticDataGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class MapsRefreshTest {
+    @TempDir
+    File dir;
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(Maps.CACHE_ROWS_PROPERTY);
+    }
+
+    private Maps open(Maps.Loader loader) throws IOException {
+        SyntheticDataGenerator.generate(dir, 100, Maps.VARIABLE_COUNT, 1L);
+        return new Maps(path(SyntheticDataGenerator.WEIGHT_FILE), path(SyntheticDataGenerator.STATUS_FILE),
+                path(SyntheticDataGenerator.VALUE_FILE), loader);
+    }
+
+    private String path(String fileName) {
+        return new File(dir, fileName).getPath();
+    }
+
+    private void append(String fileName, String line) throws IOException {
+        try (Writer writer = new FileWriter(new File(dir, fileName), true)) {
+            writer.write(line);
+        }
+    }
+
+    // 가중치 파일은 그대로이고 상태 파일만 늘어난 경우: 새 버전이 이전 버전과 같은 지연 로딩 저장소를 씀
+    @Test
+    void lazyRefreshWithoutNewWeightsKeepsFileOpen() throws IOException {
+        System.setProperty(Maps.CACHE_ROWS_PROPERTY, "1"); // 매번 파일에서 다시 읽도록
+        try (Maps maps = open(Maps.Loader.LAZY)) {
+            Dataset before = maps.getDataset();
+            WeightRow expected = maps.getWeightStore().readRow(0);
+
+            append(SyntheticDataGenerator.STATUS_FILE, "100,optimal,0.01,5\n");
+            assertEquals(1, maps.refresh());
+            assertNotSame(before, maps.getDataset());
+            assertEquals(101, maps.getStatusStore().size());
+
+            maps.getWeightStore().readRow(1); // 캐시에서 0 번 행을 밀어냄
+            WeightRow actual = maps.getWeightStore().readRow(0);
+            assertEquals(expected.getProblemId(), actual.getProblemId());
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.getColumn(i), actual.getColumn(i));
+                assertEquals(expected.getValue(i), actual.getValue(i));
+            }
+        }
+    }
+
+    // 조회 중인 이전 버전은 refresh 뒤에도 자기 참조를 놓을 때까지 읽을 수 있음
+    @Test
+    void lazyPreviousVersionReadableUntilReleased() throws IOException {
+        System.setProperty(Maps.CACHE_ROWS_PROPERTY, "1");
+        try (Maps maps = open(Maps.Loader.LAZY)) {
+            Dataset pinned = maps.acquire();
+            append(SyntheticDataGenerator.STATUS_FILE, "100,optimal,0.01,5\n");
+            maps.refresh();
+            append(SyntheticDataGenerator.STATUS_FILE, "101,optimal,0.02,5\n");
+            maps.refresh();
+            try (pinned) {
+                pinned.getWeightStore().readRow(2);
+                pinned.getWeightStore().readRow(3);
+            }
+            maps.getWeightStore().readRow(2);
+        }
+    }
+
+    // 처음 읽을 때 함께 읽은 줄바꿈 없는 마지막 줄이 이어 쓰여 완성되면 완성된 값으로 다시 읽음
+    @Test
+    void lastLineCompletedAfterLoad() throws IOException {
+        for (Maps.Loader loader : new Maps.Loader[]{Maps.Loader.FAST, Maps.Loader.LAZY}) {
+            SyntheticDataGenerator.generate(dir, 100, Maps.VARIABLE_COUNT, 1L);
+            append(SyntheticDataGenerator.STATUS_FILE, "100,optimal,0.01,5");
+            try (Maps maps = new Maps(path(SyntheticDataGenerator.WEIGHT_FILE), path(SyntheticDataGenerator.STATUS_FILE),
+                    path(SyntheticDataGenerator.VALUE_FILE), loader)) {
+                StatusStore status = maps.getStatusStore();
+                assertEquals(101, status.size());
+                assertEquals(5, status.getVariableCount(status.getRow(100)));
+
+                append(SyntheticDataGenerator.STATUS_FILE, "0\n");
+                maps.refresh();
+                status = maps.getStatusStore();
+                assertEquals(101, status.size());
+                assertEquals(50, status.getVariableCount(status.getRow(100)));
+                assertEquals(0, maps.refresh());
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package myutil;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+    private static final double MAX_RANK_ERROR = 0.01;
+
+    // 스케치가 돌려준 값의 실제 순위(정렬된 전체 값에서 그 값 이하인 비율)와 요청한 분위의 차이가 1% 미만
+    private static void assertRankError(QuantileSketch sketch, double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < 100; i++) {
+            double fraction = i / 100.0;
+            double estimate = sketch.getQuantile(fraction);
+            int below = lowerBound(sorted, estimate);      // estimate 보다 작은 값 개수
+            int atOrBelow = upperBound(sorted, estimate);  // estimate 이하인 값 개수
+            // 같은 값이 여러 개이면 그 값의 순위는 [below, atOrBelow] 중 어디든 될 수 있음
+            double error = Math.max(0, Math.max((double) below / sorted.length - fraction,
+                    fraction - (double) atOrBelow / sorted.length));
+            assertTrue(error < MAX_RANK_ERROR, "p" + i + " rank error " + error);
+
+            double exact = sorted[(int) Math.ceil(fraction * sorted.length) - 1];
+            double rankError = Math.abs(sketch.getRank(exact) - (double) upperBound(sorted, exact) / sorted.length);
+            assertTrue(rankError < MAX_RANK_ERROR, "getRank(p" + i + ") error " + rankError);
+        }
+        assertEquals(sorted[0], sketch.getQuantile(0));
+        assertEquals(sorted[sorted.length - 1], sketch.getQuantile(1));
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Test
+    void randomValues() {
+        SplittableRandom random = new SplittableRandom(1L);
+        double[] values = new double[200_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble() * random.nextDouble() * 0.05; // 한쪽으로 치우친 분포 (소요 시간과 비슷)
+            sketch.add(values[i]);
+        }
+        assertEquals(values.length, sketch.getCount());
+        assertTrue(sketch.getRetainedCount() < 2_000, "retained " + sketch.getRetainedCount());
+        assertRankError(sketch, values);
+    }
+
+    @Test
+    void sortedAndDuplicateValues() {
+        double[] ascending = new double[100_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < ascending.length; i++) {
+            ascending[i] = i % 1000 < 500 ? i : 7.0; // 오름차순 + 같은 값 반복
+            sketch.add(ascending[i]);
+        }
+        assertRankError(sketch, ascending);
+    }
+
+    // 조각(shard)별로 만든 스케치를 합쳐도 전체에 대한 오차가 1% 미만
+    @Test
+    void mergedShards() {
+        SplittableRandom random = new SplittableRandom(2L);
+        double[] values = new double[150_000];
+        QuantileSketch merged = new QuantileSketch();
+        for (int shard = 0; shard < 6; shard++) {
+            QuantileSketch part = new QuantileSketch();
+            for (int i = shard * 25_000; i < (shard + 1) * 25_000; i++) {
+                values[i] = shard + random.nextGaussian();
+                part.add(values[i]);
+            }
+            merged.merge(part);
+        }
+        assertEquals(values.length, merged.getCount());
+        assertRankError(merged, values);
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        QuantileSketch sketch = new QuantileSketch(64);
+        SplittableRandom random = new SplittableRandom(3L);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add(random.nextDouble());
+        }
+        QuantileSketch copy = QuantileSketch.fromByteArray(sketch.toByteArray());
+        double[] fractions = {0.01, 0.25, 0.5, 0.75, 0.99};
+        assertArrayEquals(sketch.getQuantiles(fractions), copy.getQuantiles(fractions));
+        assertEquals(sketch.getCount(), copy.getCount());
+        assertEquals(sketch.getRetainedCount(), copy.getRetainedCount());
+    }
+
+    // 잘못된 입력은 IllegalArgumentException/NegativeArraySizeException 이 아니라 IOException
+    @Test
+    void readRejectsCorruptInput() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add(i);
+        }
+        byte[] valid = sketch.toByteArray();
+        int kOffset = 4;
+        int countOffset = 8;
+        int heightOffset = 40;
+        int firstSizeOffset = 44;
+
+        assertThrows(IOException.class, () -> QuantileSketch.fromByteArray(withInt(valid, 0, 0x12345678)));
+        assertThrows(IOException.class, () -> QuantileSketch.fromByteArray(withInt(valid, kOffset, 4)));
+        assertThrows(IOException.class, () -> QuantileSketch.fromByteArray(withInt(valid, kOffset, Integer.MAX_VALUE)));
+        assertThrows(IOException.class, () -> QuantileSketch.fromByteArray(withInt(valid, heightOffset, 0)));
+        assertThrows(IOException.class, () -> QuantileSketch.fromByteArray(withInt(valid, heightOffset, 1_000)));
+        assertThrows(IOException.class, () -> QuantileSketch.fromByteArray(withInt(valid, firstSizeOffset, -5)));
+        assertThrows(IOException.class, () -> QuantileSketch.fromByteArray(withInt(valid, firstSizeOffset, 1 << 30)));
+        byte[] wrongCount = valid.clone();
+        ByteBuffer.wrap(wrongCount).putLong(countOffset, 999);
+        assertThrows(IOException.class, () -> QuantileSketch.fromByteArray(wrongCount));
+        assertThrows(IOException.class, () -> QuantileSketch.fromByteArray(Arrays.copyOf(valid, valid.length - 3)));
+    }
+
+    private static byte[] withInt(byte[] bytes, int offset, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).putInt(offset, value);
+        return copy;
+    }
+}
@@ -0,0 +1,125 @@
+package myutil;
+
+import benchmark.SyntheticDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultCacheTest {
+    @TempDir
+    File dir;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    // 계산할 때마다 loads 를 늘리고 새 객체를 반환
+    private Object load(ResultCache cache, long version, String key) {
+        return cache.get(version, List.of(key), () -> {
+            loads.incrementAndGet();
+            return new StringBuilder(key);
+        });
+    }
+
+    // 가장 오래 쓰지 않은 결과부터 버림 (조회하면 최근 사용으로 바뀜)
+    @Test
+    void evictsLeastRecentlyUsed() {
+        ResultCache cache = new ResultCache(2);
+        Object a = load(cache, 1, "a");
+        load(cache, 1, "b");
+        assertSame(a, load(cache, 1, "a")); // a 가 최근 사용
+        load(cache, 1, "c"); // b 를 버림
+        assertEquals(2, cache.size());
+        assertEquals(3, loads.get());
+
+        assertSame(a, load(cache, 1, "a"));
+        load(cache, 1, "b"); // 다시 계산, 이번에는 c 를 버림
+        assertEquals(4, loads.get());
+        load(cache, 1, "c");
+        assertEquals(5, loads.get());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(5, cache.getMissCount());
+    }
+
+    // 새 버전으로 조회하면 이전 버전의 결과를 모두 버리고, 더 오래된 버전은 캐시를 건드리지 않음
+    @Test
+    void newerVersionInvalidatesOlderResults() {
+        ResultCache cache = new ResultCache(8);
+        Object v1 = load(cache, 1, "a");
+        load(cache, 1, "b");
+        Object v2 = load(cache, 2, "a");
+        assertTrue(v1 != v2);
+        assertEquals(1, cache.size()); // b 도 버려짐
+
+        Object old = load(cache, 1, "a"); // 오래된 버전: 계산만 함
+        assertTrue(old != v1 && old != v2);
+        assertSame(v2, load(cache, 2, "a"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void zeroCapacityAndNullResultsAreNotCached() {
+        ResultCache disabled = new ResultCache(0);
+        load(disabled, 1, "a");
+        load(disabled, 1, "a");
+        assertEquals(2, loads.get());
+        assertEquals(0, disabled.size());
+
+        ResultCache cache = new ResultCache(4);
+        AtomicInteger nullLoads = new AtomicInteger();
+        assertNull(cache.get(1, "k", () -> {
+            nullLoads.incrementAndGet();
+            return null;
+        }));
+        cache.get(1, "k", () -> {
+            nullLoads.incrementAndGet();
+            return null;
+        });
+        assertEquals(2, nullLoads.get());
+    }
+
+    // refresh 로 Dataset 버전이 바뀌면 같은 키라도 새 데이터로 다시 계산
+    @Test
+    void refreshedDatasetVersionRecomputes() throws IOException {
+        SyntheticDataGenerator.generate(dir, 100, Maps.VARIABLE_COUNT, 9L);
+        try (Maps maps = new Maps(new File(dir, SyntheticDataGenerator.WEIGHT_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.STATUS_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.VALUE_FILE).getPath(), Maps.Loader.FAST)) {
+            ResultCache cache = new ResultCache(8);
+            long before = maps.getDataset().getVersion();
+            assertEquals(100, (int) rowCount(cache, maps));
+            assertEquals(100, (int) rowCount(cache, maps));
+            assertEquals(1, loads.get());
+
+            append(SyntheticDataGenerator.STATUS_FILE, "1000,optimal,0.5,1\n");
+            maps.refresh();
+            assertTrue(maps.getDataset().getVersion() > before);
+            assertEquals(101, (int) rowCount(cache, maps));
+            assertEquals(2, loads.get());
+        }
+    }
+
+    private Integer rowCount(ResultCache cache, Maps maps) {
+        try (Dataset data = maps.acquire()) {
+            return cache.get(data.getVersion(), "statusRows", () -> {
+                loads.incrementAndGet();
+                return data.getStatusStore().size();
+            });
+        }
+    }
+
+    private void append(String fileName, String line) throws IOException {
+        try (Writer writer = new FileWriter(new File(dir, fileName), true)) {
+            writer.write(line);
+        }
+    }
+}
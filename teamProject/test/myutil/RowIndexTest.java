@@ -0,0 +1,68 @@
+package myutil;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowIndexTest {
+    @Test
+    void getReturnsRegisteredRows() {
+        RowIndex index = new RowIndex();
+        index.put(0, 5);
+        index.put(4095, 6);
+        index.put(4096, 7);
+        index.put(1_000_000, 8);
+
+        assertEquals(5, index.get(0));
+        assertEquals(6, index.get(4095));
+        assertEquals(7, index.get(4096));
+        assertEquals(8, index.get(1_000_000));
+        assertEquals(-1, index.get(1));
+        assertEquals(-1, index.get(500_000));
+        assertEquals(-1, index.get(2_000_000));
+        assertEquals(-1, index.get(-1));
+        assertThrows(IllegalArgumentException.class, () -> index.put(-1, 0));
+    }
+
+    // 드문드문한 큰 문제 번호는 문제 번호가 들어온 페이지만 만듦
+    @Test
+    void sparseIdsAllocateOnlyUsedPages() {
+        RowIndex index = new RowIndex();
+        index.put(1_000_000, 0);
+        long oneId = index.getHeapBytes();
+        index.put(1_000_001, 1);
+        assertEquals(oneId, index.getHeapBytes());
+        assertTrue(oneId < 4L * 1_000_000, "bytes: " + oneId);
+    }
+
+    // 복사본과 원본은 페이지를 공유하지만 어느 쪽에 써도 다른 쪽은 바뀌지 않음
+    @Test
+    void copyIsIndependent() {
+        RowIndex original = new RowIndex();
+        for (int problemId = 0; problemId < 10_000; problemId++) {
+            original.put(problemId, problemId);
+        }
+        RowIndex copy = original.copy();
+        copy.put(1, 100);
+        copy.put(10_000, 10_000);
+        original.put(2, 200);
+
+        assertEquals(1, original.get(1));
+        assertEquals(-1, original.get(10_000));
+        assertEquals(200, original.get(2));
+        assertEquals(100, copy.get(1));
+        assertEquals(2, copy.get(2));
+        assertEquals(10_000, copy.get(10_000));
+        for (int problemId = 3; problemId < 10_000; problemId++) {
+            assertEquals(problemId, copy.get(problemId));
+        }
+
+        RowIndex second = copy.copy();
+        second.put(3, 300);
+        assertEquals(3, copy.get(3));
+        assertEquals(3, original.get(3));
+        assertEquals(300, second.get(3));
+    }
+}
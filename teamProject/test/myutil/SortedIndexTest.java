@@ -0,0 +1,110 @@
+package myutil;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SortedIndexTest {
+
+    private static SortedIndex index(double... keys) {
+        int[] problemIds = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            problemIds[i] = i;
+        }
+        SortedIndex index = new SortedIndex();
+        index.addAll(problemIds, keys, keys.length);
+        return index;
+    }
+
+    // 범위의 양 끝은 포함, 같은 key 는 모두 포함하고 추가된 순서를 유지
+    @Test
+    void rangeEndsAreInclusive() {
+        SortedIndex index = index(3.0, 2.0, 5.0, 2.0, 1.0); // 문제 번호 = 위치
+        assertArrayEquals(new int[]{1, 3, 0}, index.getProblemIdsInRange(2.0, 3.0));
+        assertEquals(3, index.countInRange(2.0, 3.0));
+        assertArrayEquals(new int[]{1, 3}, index.getProblemIdsInRange(2.0, 2.0));
+        assertArrayEquals(new int[]{4, 1, 3, 0, 2}, index.getProblemIdsInRange(1.0, 5.0));
+        assertArrayEquals(new int[0], index.getProblemIdsInRange(3.5, 4.5)); // key 사이
+        assertArrayEquals(new int[0], index.getProblemIdsInRange(5.0, 1.0)); // 하한 > 상한
+        assertEquals(0, index.countInRange(5.0, 1.0));
+        assertEquals(0, index.countInRange(6.0, 9.0)); // 모든 key 보다 큼
+    }
+
+    // 무작위 key (같은 값 많음) 에서 범위 결과가 전체를 훑은 결과와 같음
+    @Test
+    void rangeMatchesBruteForce() {
+        Random random = new Random(7);
+        double[] keys = new double[500];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(40) / 4.0;
+        }
+        SortedIndex index = index(keys);
+        // 나눠서 추가해도 같은 순서
+        SortedIndex merged = new SortedIndex();
+        int[] problemIds = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            problemIds[i] = i;
+        }
+        merged.addAll(problemIds, keys, 200);
+        merged.addAll(Arrays.copyOfRange(problemIds, 200, 500), Arrays.copyOfRange(keys, 200, 500), 300);
+
+        for (int trial = 0; trial < 200; trial++) {
+            double low = random.nextInt(44) / 4.0 - 0.5;
+            double high = random.nextInt(44) / 4.0 - 0.5;
+            List<Integer> expected = new ArrayList<>();
+            for (double key = -1; key <= 11; key += 0.25) { // key 오름차순, 같은 key 는 문제 번호 순
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i] == key && keys[i] >= low && keys[i] <= high) {
+                        expected.add(i);
+                    }
+                }
+            }
+            int[] actual = index.getProblemIdsInRange(low, high);
+            assertEquals(expected, toList(actual), low + " ~ " + high);
+            assertEquals(expected, toList(merged.getProblemIdsInRange(low, high)));
+            assertEquals(expected.size(), index.countInRange(low, high));
+        }
+    }
+
+    // 반복자는 [from, to) 만 돌려주고, 범위를 벗어나면 만들 때 거절
+    @Test
+    void iteratorBounds() {
+        SortedIndex index = index(1.0, 2.0, 3.0);
+        PrimitiveIterator.OfInt iterator = index.iterator(1, 3);
+        assertEquals(1, iterator.nextInt());
+        assertEquals(2, iterator.nextInt());
+        assertFalse(iterator.hasNext());
+        assertFalse(index.iterator(3, 3).hasNext());
+        assertThrows(IndexOutOfBoundsException.class, () -> index.iterator(0, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.iterator(2, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.iterator(-1, 1));
+    }
+
+    // K 번째와 같은 key 는 모두 포함
+    @Test
+    void lowestAndHighestIncludeTies() {
+        SortedIndex index = index(3.0, 2.0, 5.0, 2.0, 1.0);
+        assertArrayEquals(new int[]{4, 1, 3}, index.lowest(2));
+        assertArrayEquals(new int[]{2, 0}, index.highest(2));
+        assertArrayEquals(new int[]{2, 0, 1, 3}, index.highest(3));
+        assertArrayEquals(new int[0], index.lowest(0));
+        assertEquals(5, index.highest(100).length);
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>();
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,57 @@
+package myutil;
+
+import benchmark.SyntheticDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopHoldingsTest {
+    @TempDir
+    File dir;
+
+    private Maps open(Maps.Loader loader) {
+        return new Maps(new File(dir, SyntheticDataGenerator.WEIGHT_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.STATUS_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.VALUE_FILE).getPath(), loader);
+    }
+
+    // LAZY 에서 한 행만 정렬한 결과가 전체 색인(FAST)과 같고, 조회한 행만 읽음
+    @Test
+    void lazyRowMatchesFullIndexWithoutReadingAllRows() throws IOException {
+        SyntheticDataGenerator.generate(dir, 300, Maps.VARIABLE_COUNT, 7L);
+        try (Maps fast = open(Maps.Loader.FAST); Maps lazy = open(Maps.Loader.LAZY)) {
+            Dataset full = fast.getDataset();
+            Dataset lazyData = lazy.getDataset();
+            TopHoldings index = full.getTopHoldings(false);
+            for (int row = 0; row < 300; row += 37) {
+                TopHoldings single = lazyData.getTopHoldings(row, true);
+                assertEquals(index.getHoldingCount(row), single.getHoldingCount(row));
+                for (int rank = 0; rank < index.getHoldingCount(row); rank++) {
+                    assertEquals(index.getVariable(row, rank), single.getVariable(row, rank));
+                    assertEquals(index.getWeight(row, rank), single.getWeight(row, rank));
+                }
+            }
+            assertTrue(((LazyWeightStore) lazyData.getWeightStore()).getCachedRowCount() <= 9);
+        }
+    }
+
+    // 같은 가중치는 변수 번호 순서, 0 이하 가중치는 제외
+    @Test
+    void sortsDescendingAndKeepsTiesInVariableOrder() {
+        CsrWeightStore store = new CsrWeightStore(10);
+        double[] weights = {-1, 0.2, 0, 0.5, 0.2, -1, 0.1, 0, 0, 0.5};
+        store.add(4, weights);
+        TopHoldings holdings = new TopHoldings(store, false);
+        int[] expectedVariables = {3, 9, 1, 4, 6};
+        assertEquals(expectedVariables.length, holdings.getHoldingCount(0));
+        for (int rank = 0; rank < expectedVariables.length; rank++) {
+            assertEquals(expectedVariables[rank], holdings.getVariable(0, rank));
+            assertEquals(weights[expectedVariables[rank]], holdings.getWeight(0, rank));
+        }
+    }
+}
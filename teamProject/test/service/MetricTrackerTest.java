@@ -0,0 +1,135 @@
+package service;
+
+import benchmark.SyntheticDataGenerator;
+import myutil.FixedHistogram;
+import myutil.Maps;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MetricTrackerTest {
+    @TempDir
+    File dir;
+
+    private Maps open() throws IOException {
+        SyntheticDataGenerator.generate(dir, 200, Maps.VARIABLE_COUNT, 3L);
+        return new Maps(new File(dir, SyntheticDataGenerator.WEIGHT_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.STATUS_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.VALUE_FILE).getPath(), Maps.Loader.FAST);
+    }
+
+    // 문제 하나를 세 파일에 이어 씀 (수익률 ret)
+    private void appendProblem(int problemId, double ret) throws IOException {
+        StringBuilder weights = new StringBuilder().append(problemId);
+        for (int v = 0; v < Maps.VARIABLE_COUNT; v++) {
+            weights.append(v == 0 ? ",1.0" : ",-1");
+        }
+        append(SyntheticDataGenerator.WEIGHT_FILE, weights.append('\n').toString());
+        append(SyntheticDataGenerator.STATUS_FILE, problemId + ",optimal,0.01,1\n");
+        append(SyntheticDataGenerator.VALUE_FILE, problemId + ",-0.5," + ret + "\n");
+    }
+
+    private void append(String fileName, String line) throws IOException {
+        try (Writer writer = new FileWriter(new File(dir, fileName), true)) {
+            writer.write(line);
+        }
+    }
+
+    @Test
+    void topKFollowsRefreshUntilClosed() throws IOException {
+        try (Maps maps = open()) {
+            MyService service = new MyService(maps);
+            TopKTracker tracker = service.trackTopK(MyService.Metric.RETURN, 5, true, false);
+            assertEquals(service.getTopK(MyService.Metric.RETURN, 5, true, false), tracker.result());
+
+            appendProblem(1000, 10.0);
+            maps.refresh();
+            List<Integer> afterRefresh = tracker.result();
+            assertEquals(1000, afterRefresh.get(0));
+            assertEquals(service.getTopK(MyService.Metric.RETURN, 5, true, false), afterRefresh);
+
+            tracker.close();
+            appendProblem(1001, 20.0);
+            maps.refresh();
+            assertEquals(afterRefresh, tracker.result()); // 닫은 뒤에는 갱신하지 않음
+            assertNotEquals(afterRefresh, service.getTopK(MyService.Metric.RETURN, 5, true, false));
+        }
+    }
+
+    @Test
+    void histogramFollowsRefreshUntilClosed() throws IOException {
+        try (Maps maps = open()) {
+            MyService service = new MyService(maps);
+            HistogramTracker tracker = service.trackHistogram(MyService.Metric.RETURN, 10);
+            FixedHistogram initial = tracker.result();
+            assertHistogramEquals(service.buildHistogram(MyService.Metric.RETURN, 10), initial);
+
+            appendProblem(1000, 1e9); // 처음 최대보다 큼 -> overflow
+            maps.refresh();
+            FixedHistogram afterRefresh = tracker.result();
+            assertEquals(initial.getOverflow() + 1, afterRefresh.getOverflow());
+            assertEquals(initial.getTotalCount(), afterRefresh.getTotalCount());
+            assertEquals(maps.getValueStore().size(), tracker.getCountedRows());
+
+            tracker.close();
+            appendProblem(1001, 1e9);
+            maps.refresh();
+            assertHistogramEquals(afterRefresh, tracker.result()); // 닫은 뒤에는 갱신하지 않음
+        }
+    }
+
+    private static void assertHistogramEquals(FixedHistogram expected, FixedHistogram actual) {
+        assertEquals(expected.getBinCount(), actual.getBinCount());
+        for (int bin = 0; bin < expected.getBinCount(); bin++) {
+            assertEquals(expected.getLowerBound(bin), actual.getLowerBound(bin));
+            assertEquals(expected.getCount(bin), actual.getCount(bin));
+        }
+        assertEquals(expected.getUnderflow(), actual.getUnderflow());
+        assertEquals(expected.getOverflow(), actual.getOverflow());
+    }
+
+    // refresh 스레드가 갱신하는 동안 다른 스레드가 읽어도 예외 없이 일관된 결과
+    @Test
+    void concurrentReadsDuringRefresh() throws Exception {
+        try (Maps maps = open()) {
+            MyService service = new MyService(maps);
+            try (TopKTracker tracker = service.trackTopK(MyService.Metric.RETURN, 3, true, false)) {
+                AtomicBoolean done = new AtomicBoolean();
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                Thread reader = new Thread(() -> {
+                    try {
+                        while (!done.get()) {
+                            List<Integer> top = tracker.result();
+                            if (top.size() != 3) {
+                                throw new AssertionError("size " + top.size());
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    }
+                });
+                reader.start();
+                for (int i = 0; i < 50; i++) {
+                    appendProblem(1000 + i, 1.0 + i);
+                    maps.refresh();
+                }
+                done.set(true);
+                reader.join();
+                assertNull(failure.get());
+                assertEquals(List.of(1049, 1048, 1047), tracker.result());
+                assertEquals(maps.getValueStore().size(), tracker.getCountedRows()); // 빠지거나 두 번 센 행 없음
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package service;
+
+import benchmark.SyntheticDataGenerator;
+import myutil.Dataset;
+import myutil.Maps;
+import myutil.StatusStore;
+import myutil.ValueStore;
+import myutil.WeightStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * ProblemQuery 의 비트맵 교집합 결과를 모든 행을 직접 훑는 방식(brute force)과 비교합니다.
+ */
+class ProblemQueryTest {
+    private static final int PROBLEM_COUNT = 2000;
+
+    @TempDir
+    static File dir;
+
+    private static Maps maps;
+    private static MyService service;
+
+    @BeforeAll
+    static void load() throws IOException {
+        SyntheticDataGenerator.generate(dir, PROBLEM_COUNT, Maps.VARIABLE_COUNT, 11L);
+        maps = new Maps(new File(dir, SyntheticDataGenerator.WEIGHT_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.STATUS_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.VALUE_FILE).getPath(), Maps.Loader.FAST);
+        service = new MyService(maps);
+    }
+
+    @AfterAll
+    static void close() {
+        maps.close();
+    }
+
+    // 무작위 조건 조합마다 문제 목록, 개수, 평균, 상위 K 를 직접 훑은 결과와 비교
+    @Test
+    void randomQueriesMatchBruteForce() {
+        SplittableRandom random = new SplittableRandom(5L);
+        try (Dataset data = maps.acquire()) {
+            StatusStore status = data.getStatusStore();
+            ValueStore values = data.getValueStore();
+            WeightStore weights = data.getWeightStore();
+
+            for (int trial = 0; trial < 200; trial++) {
+                ProblemQuery query = service.query();
+                List<IntPredicate> expected = new ArrayList<>(); // Status 행 -> 조건 만족 여부
+                if (random.nextBoolean()) {
+                    boolean optimal = random.nextBoolean();
+                    query.optimal(optimal);
+                    expected.add(row -> status.isOptimal(row) == optimal);
+                }
+                if (random.nextBoolean()) {
+                    double low = random.nextDouble() * 0.03;
+                    double high = low + random.nextDouble() * 0.03;
+                    query.timeBetween(low, high);
+                    expected.add(row -> status.getTimeTaken(row) >= low && status.getTimeTaken(row) <= high);
+                }
+                if (random.nextBoolean()) {
+                    double low = random.nextDouble() * 0.06;
+                    double high = random.nextInt(4) == 0 ? Double.POSITIVE_INFINITY : low + random.nextDouble() * 0.06;
+                    query.returnBetween(low, high);
+                    expected.add(row -> {
+                        int valueRow = values.getRow(status.getProblemId(row));
+                        return valueRow >= 0 && values.getReturn(valueRow) >= low && values.getReturn(valueRow) <= high;
+                    });
+                }
+                if (random.nextBoolean()) {
+                    double low = -random.nextDouble();
+                    double high = Math.min(0, low + random.nextDouble());
+                    query.riskBetween(low, high);
+                    expected.add(row -> {
+                        int valueRow = values.getRow(status.getProblemId(row));
+                        return valueRow >= 0 && values.getRisk(valueRow) >= low && values.getRisk(valueRow) <= high;
+                    });
+                }
+                if (random.nextBoolean()) {
+                    int low = random.nextInt(100);
+                    int high = low + random.nextInt(200);
+                    query.variableCountBetween(low, high);
+                    expected.add(row -> status.getVariableCount(row) >= low && status.getVariableCount(row) <= high);
+                }
+                if (random.nextInt(3) == 0) {
+                    int variable = random.nextInt(Maps.VARIABLE_COUNT);
+                    query.usesVariable(variable);
+                    expected.add(row -> {
+                        int weightRow = weights.getRow(status.getProblemId(row));
+                        return weightRow >= 0 && weights.readRow(weightRow).getWeight(variable) > 0;
+                    });
+                }
+
+                List<Integer> matchedRows = new ArrayList<>();
+                for (int row = 0; row < status.size(); row++) {
+                    int r = row;
+                    if (expected.stream().allMatch(condition -> condition.test(r))) {
+                        matchedRows.add(row);
+                    }
+                }
+                List<Integer> expectedIds = new ArrayList<>();
+                for (int row : matchedRows) {
+                    expectedIds.add(status.getProblemId(row));
+                }
+
+                assertEquals(expectedIds, query.problemIds(), "trial " + trial);
+                assertEquals(expectedIds.size(), query.count(), "trial " + trial);
+                assertEquals(expectedAverage(status, matchedRows), query.average(MyService.Metric.TIME), 1e-12);
+                assertEquals(expectedTopK(status, values, matchedRows, 10), query.topK(MyService.Metric.RETURN, 10, true),
+                        "trial " + trial);
+            }
+        }
+    }
+
+    private static double expectedAverage(StatusStore status, List<Integer> rows) {
+        double sum = 0.0;
+        for (int row : rows) {
+            sum += status.getTimeTaken(row);
+        }
+        return rows.isEmpty() ? 0.0 : sum / rows.size();
+    }
+
+    // 수익률이 있는 문제 중 수익률 내림차순 상위 k 개 (동점은 파일 순서)
+    private static List<Integer> expectedTopK(StatusStore status, ValueStore values, List<Integer> rows, int k) {
+        List<int[]> candidates = new ArrayList<>(); // {문제 번호, Value 행}
+        for (int row : rows) {
+            int valueRow = values.getRow(status.getProblemId(row));
+            if (valueRow >= 0) {
+                candidates.add(new int[]{status.getProblemId(row), valueRow});
+            }
+        }
+        candidates.sort(Comparator.comparingDouble((int[] candidate) -> values.getReturn(candidate[1])).reversed());
+        List<Integer> problemIds = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, candidates.size()); i++) {
+            problemIds.add(candidates.get(i)[0]);
+        }
+        return problemIds;
+    }
+}
@@ -0,0 +1,68 @@
+package service;
+
+import benchmark.SyntheticDataGenerator;
+import myutil.Maps;
+import myutil.StatusStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProblemsSolvedWithinTimeTest {
+    @TempDir
+    File dir;
+
+    @Test
+    void pagesCoverTheInclusiveRangeExactlyOnce() throws IOException {
+        SyntheticDataGenerator.generate(dir, 300, Maps.VARIABLE_COUNT, 5L);
+        try (Maps maps = new Maps(new File(dir, SyntheticDataGenerator.WEIGHT_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.STATUS_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.VALUE_FILE).getPath(), Maps.Loader.FAST)) {
+            MyService service = new MyService(maps);
+            StatusStore statusStore = maps.getStatusStore();
+            // 실제 소요 시간 값을 경계로 써서 양 끝 포함 여부를 확인
+            double lower = statusStore.getTimeTaken(10);
+            double upper = statusStore.getTimeTaken(20);
+            if (lower > upper) {
+                double swap = lower;
+                lower = upper;
+                upper = swap;
+            }
+            int expectedCount = 0;
+            for (int row = 0; row < statusStore.size(); row++) {
+                double time = statusStore.getTimeTaken(row);
+                if (time >= lower && time <= upper) {
+                    expectedCount++;
+                }
+            }
+            List<Integer> all = service.getProblemsSolvedWithinTime(upper, lower);
+            assertEquals(expectedCount, all.size());
+            assertEquals(expectedCount, service.countProblemsSolvedWithinTime(upper, lower));
+            assertTrue(all.contains(statusStore.getProblemId(10)) && all.contains(statusStore.getProblemId(20)));
+
+            List<Integer> paged = new ArrayList<>();
+            for (int offset = 0; offset < expectedCount; offset += 7) {
+                paged.addAll(service.getProblemsSolvedWithinTime(upper, lower, offset, 7));
+            }
+            assertEquals(all, paged);
+
+            assertEquals(List.of(), service.getProblemsSolvedWithinTime(upper, lower, expectedCount, 7)); // 끝 다음
+            assertEquals(List.of(), service.getProblemsSolvedWithinTime(upper, lower, Integer.MAX_VALUE, Integer.MAX_VALUE));
+            assertEquals(List.of(), service.getProblemsSolvedWithinTime(upper, lower, 0, 0));
+            assertEquals(all.subList(0, Math.min(3, expectedCount)), service.getProblemsSolvedWithinTime(upper, lower, -5, 3));
+            assertEquals(List.of(), service.getProblemsSolvedWithinTime(lower, upper + 1)); // 하한 > 상한
+
+            PrimitiveIterator.OfInt iterator = service.iterateProblemsSolvedWithinTime(upper, lower);
+            List<Integer> iterated = new ArrayList<>();
+            iterator.forEachRemaining((int problemId) -> iterated.add(problemId));
+            assertEquals(all, iterated);
+        }
+    }
+}
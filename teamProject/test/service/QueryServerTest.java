@@ -0,0 +1,132 @@
+package service;
+
+import benchmark.SyntheticDataGenerator;
+import myutil.Maps;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryServerTest {
+    @TempDir
+    File dir;
+
+    private Maps maps;
+    private QueryServer server;
+    private final Semaphore holding = new Semaphore(0); // BLOCK 이 자리를 잡을 때마다 하나
+    private final Semaphore release = new Semaphore(0); // 하나마다 BLOCK 하나를 끝냄
+
+    @BeforeEach
+    void start() throws IOException {
+        SyntheticDataGenerator.generate(dir, 200, Maps.VARIABLE_COUNT, 11L);
+        maps = new Maps(new File(dir, SyntheticDataGenerator.WEIGHT_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.STATUS_FILE).getPath(),
+                new File(dir, SyntheticDataGenerator.VALUE_FILE).getPath(), Maps.Loader.FAST);
+        server = new QueryServer(new MyService(maps), 0, 1, 200);
+        // 끝내라고 할 때까지 무거운 작업 자리를 잡고 있는 명령
+        server.register("BLOCK", "BLOCK", QueryServer.Mode.HEAVY, args -> {
+            holding.release();
+            try {
+                return release.tryAcquire(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        server.register("FAIL", "FAIL", QueryServer.Mode.LIGHT, args -> args[args.length]); // 처리기 버그 흉내
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        release.release(100);
+        server.close();
+        maps.close();
+    }
+
+    // 연결 하나 (한 줄 보내고 한 줄 받기)
+    private class Client implements AutoCloseable {
+        private final Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        private final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        private final Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+
+        Client() throws IOException {
+        }
+
+        void send(String line) throws IOException {
+            out.write(line + "\n");
+            out.flush();
+        }
+
+        String receive() throws IOException {
+            return in.readLine();
+        }
+
+        String call(String line) throws IOException {
+            send(line);
+            return receive();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    void parsesCommandsAndReportsBadArguments() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("{\"ok\":true,\"result\":\"pong\"}", client.call("ping"));
+            String missing = client.call("TOP_RETURN");
+            assertTrue(missing.startsWith("{\"ok\":false,\"error\":\"잘못된 인자입니다 (인자가 부족합니다)"), missing);
+            String notNumber = client.call("TOP_RETURN ten");
+            assertTrue(notNumber.startsWith("{\"ok\":false,\"error\":\"잘못된 인자입니다"), notNumber);
+            String unknown = client.call("NOPE 1");
+            assertTrue(unknown.startsWith("{\"ok\":false,\"error\":\"알 수 없는 명령입니다: NOPE"), unknown);
+            // 처리기 안의 색인 오류는 인자 문제로 보이지 않고 내부 오류로 보고됨
+            String failure = client.call("FAIL");
+            assertTrue(failure.contains("조회 중 오류 발생: java.lang.ArrayIndexOutOfBoundsException"), failure);
+            assertTrue(client.call("COUNT_WITHIN 1e9").startsWith("{\"ok\":true,\"result\":200"));
+        }
+    }
+
+    @Test
+    void rejectsHeavyCommandsBeyondPermits() throws Exception {
+        try (Client blocker = new Client(); Client other = new Client()) {
+            blocker.send("BLOCK");
+            assertTrue(holding.tryAcquire(10, TimeUnit.SECONDS));
+            String busy = other.call("AVG_TIME_ALL");
+            assertEquals("{\"ok\":false,\"busy\":true,\"error\":\"무거운 작업이 많아 거절했습니다. 잠시 뒤 다시 시도하세요.\"}", busy);
+            String indexNotBuilt = other.call("TOP_RETURN 3"); // 수익률 색인을 처음 구성해야 함
+            assertTrue(indexNotBuilt.contains("\"busy\":true"), indexNotBuilt);
+            assertTrue(other.call("PING").startsWith("{\"ok\":true")); // 가벼운 조회는 제한 없음
+            release.release();
+            assertEquals("{\"ok\":true,\"result\":true}", blocker.receive());
+
+            assertTrue(other.call("TOP_RETURN 3").startsWith("{\"ok\":true")); // 자리가 나면 색인을 구성
+
+            // 색인이 생긴 뒤에는 자리가 없어도 바로 답함
+            blocker.send("BLOCK");
+            assertTrue(holding.tryAcquire(10, TimeUnit.SECONDS));
+            assertTrue(other.call("TOP_RETURN 3").startsWith("{\"ok\":true"));
+            assertTrue(other.call("REFRESH").contains("\"busy\":true"));
+            release.release();
+            assertEquals("{\"ok\":true,\"result\":true}", blocker.receive());
+        }
+    }
+}